@@ -0,0 +1,39 @@
+package com.galapea.techblog.volunteer_matching.benchmarks;
+
+import com.galapea.techblog.volunteer_matching.util.DateTimeUtil;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The per-column timestamp conversions every {@code TIMESTAMP} column goes through in both directions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeUtilBenchmark {
+
+    private final String timestamp = "2025-03-01T09:00:00.125Z";
+    private final LocalDateTime localDateTime = LocalDateTime.of(2025, 3, 1, 9, 0, 0, 125_000_000);
+
+    @Benchmark
+    public LocalDateTime parseToLocalDateTime() {
+        return DateTimeUtil.parseToLocalDateTime(timestamp);
+    }
+
+    @Benchmark
+    public String formatToZoneDateTimeString() {
+        return DateTimeUtil.formatToZoneDateTimeString(localDateTime);
+    }
+}
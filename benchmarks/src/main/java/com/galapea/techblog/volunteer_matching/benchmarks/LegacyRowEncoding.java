@@ -0,0 +1,155 @@
+package com.galapea.techblog.volunteer_matching.benchmarks;
+
+import com.galapea.techblog.volunteer_matching.opportunity.OpportunityDTO;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationDTO;
+import com.galapea.techblog.volunteer_matching.util.DateTimeUtil;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
+
+/**
+ * Copies of the StringBuilder row JSON that {@code create}/{@code update} built before the services had
+ * {@code ROW_ENCODER}s, and of their {@code escapeString}, kept as the baseline of {@link RowEncodeBenchmark}. The
+ * services passed the finished string to {@code RestClient}, whose {@link StringHttpMessageConverter} encoded it again
+ * into the request body; {@link #send} does the same.
+ */
+final class LegacyRowEncoding {
+
+    private static final StringHttpMessageConverter CONVERTER = new StringHttpMessageConverter();
+
+    private LegacyRowEncoding() {}
+
+    /**
+     * The rows as {@code OpportunityGridDBService.create} and {@code update} wrote them, which were the same.
+     */
+    static String opportunities(final Collection<OpportunityDTO> rows) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (OpportunityDTO opportunityDTO : rows) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append("[");
+            sb.append("\"").append(escapeString(opportunityDTO.getId())).append("\"");
+            sb.append(", ");
+            sb.append("\"").append(escapeString(opportunityDTO.getTitle())).append("\"");
+            sb.append(", ");
+            sb.append("\"").append(escapeString(opportunityDTO.getDescription())).append("\"");
+            sb.append(", ");
+            sb.append("\"").append(escapeString(opportunityDTO.getAddress())).append("\"");
+            sb.append(", ");
+            sb.append(
+                    opportunityDTO.getStartTime() == null
+                            ? "null"
+                            : "\"" + DateTimeUtil.formatToZoneDateTimeString(opportunityDTO.getStartTime()) + "\"");
+            sb.append(", ");
+            sb.append(
+                    opportunityDTO.getEndTime() == null
+                            ? "null"
+                            : "\"" + DateTimeUtil.formatToZoneDateTimeString(opportunityDTO.getEndTime()) + "\"");
+            sb.append(", ");
+            sb.append(
+                    opportunityDTO.getSlotsTotal() == null
+                            ? "null"
+                            : opportunityDTO.getSlotsTotal().toString());
+            sb.append(", ");
+            sb.append("\"").append(escapeString(opportunityDTO.getOrgId())).append("\"");
+            sb.append("]");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * The rows as {@code RegistrationGridDBService.create} wrote them.
+     */
+    static String registrations(final Collection<RegistrationDTO> rows) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (RegistrationDTO registrationDTO : rows) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append("[");
+            sb.append("\"").append(escapeString(registrationDTO.getId())).append("\"");
+            sb.append(", ");
+            sb.append("\"").append(escapeString(registrationDTO.getUserId())).append("\"");
+            sb.append(", ");
+            sb.append("\"").append(escapeString(registrationDTO.getOpportunityId())).append("\"");
+            sb.append(", ");
+            sb.append(
+                    registrationDTO.getStatus() == null
+                            ? "null"
+                            : "\"" + escapeString(registrationDTO.getStatus().name()) + "\"");
+            sb.append(", ");
+            sb.append("\"")
+                    .append(DateTimeUtil.formatToZoneDateTimeString(registrationDTO.getRegistrationTime()))
+                    .append("\"");
+            sb.append("]");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * The rows as {@code RegistrationGridDBService.update} wrote them, with the timestamp's {@code toString()}.
+     */
+    static String registrationUpdates(final Collection<RegistrationDTO> rows) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (RegistrationDTO registrationDTO : rows) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append("[");
+            sb.append("\"").append(escapeString(registrationDTO.getId())).append("\"");
+            sb.append(", ");
+            sb.append("\"").append(escapeString(registrationDTO.getUserId())).append("\"");
+            sb.append(", ");
+            sb.append("\"").append(escapeString(registrationDTO.getOpportunityId())).append("\"");
+            sb.append(", ");
+            sb.append(
+                    registrationDTO.getStatus() == null
+                            ? "null"
+                            : "\"" + escapeString(registrationDTO.getStatus().name()) + "\"");
+            sb.append(", ");
+            sb.append(
+                    registrationDTO.getRegistrationTime() == null
+                            ? "null"
+                            : "\""
+                                    + escapeString(
+                                            registrationDTO.getRegistrationTime().toString()) + "\"");
+            sb.append("]");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Writes {@code body} to {@code out} the way {@code RestClient} wrote a {@code String} body with the
+     * {@code application/json} content type of the GridDB client.
+     */
+    static void send(final String body, final OutputStream out) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        CONVERTER.write(body, MediaType.APPLICATION_JSON, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return out;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        });
+    }
+
+    static String escapeString(String input) {
+        if (input == null) return null;
+        return input.replace("\\", "\\\\").replace("'", "\\'").replace("\"", "\\\"");
+    }
+}
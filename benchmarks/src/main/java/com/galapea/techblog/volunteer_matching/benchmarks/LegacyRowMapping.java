@@ -0,0 +1,70 @@
+package com.galapea.techblog.volunteer_matching.benchmarks;
+
+import com.galapea.techblog.volunteer_matching.opportunity.OpportunityDTO;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationDTO;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationStatus;
+import com.galapea.techblog.volunteer_matching.util.DateTimeUtil;
+import java.util.List;
+
+/**
+ * Copies of the {@code mapRowToDTO}/{@code extractRowToDTO} methods the services used before their
+ * {@code ROW_DECODER}s, kept as the baseline of {@link RowDecodeBenchmark}. They map one row of an
+ * {@code AcquireRowsResponse} that Jackson has already bound to {@code List<List<Object>>}.
+ */
+final class LegacyRowMapping {
+
+    private LegacyRowMapping() {}
+
+    static OpportunityDTO opportunity(final List<Object> row) {
+        OpportunityDTO dto = new OpportunityDTO();
+        dto.setId((String) row.get(0));
+        dto.setTitle((String) row.get(1));
+        dto.setDescription((String) row.get(2));
+        dto.setAddress((String) row.get(3));
+        Object st = row.get(4);
+        if (st != null) {
+            try {
+                dto.setStartTime(DateTimeUtil.parseToLocalDateTime(st.toString()));
+            } catch (Exception e) {
+                dto.setStartTime(null);
+            }
+        }
+        Object et = row.get(5);
+        if (et != null) {
+            try {
+                dto.setEndTime(DateTimeUtil.parseToLocalDateTime(et.toString()));
+            } catch (Exception e) {
+                dto.setEndTime(null);
+            }
+        }
+        Object slots = row.get(6);
+        if (slots != null) {
+            try {
+                if (slots instanceof Number) dto.setSlotsTotal(((Number) slots).longValue());
+                else dto.setSlotsTotal(Long.valueOf(slots.toString()));
+            } catch (Exception e) {
+                dto.setSlotsTotal(null);
+            }
+        }
+        dto.setOrgId((String) row.get(7));
+        return dto;
+    }
+
+    static RegistrationDTO registration(final List<Object> row) {
+        RegistrationDTO dto = new RegistrationDTO();
+        dto.setId((String) row.get(0));
+        dto.setUserId((String) row.get(1));
+        dto.setOpportunityId((String) row.get(2));
+        try {
+            dto.setStatus(RegistrationStatus.valueOf(row.get(3).toString()));
+        } catch (Exception e) {
+            dto.setStatus(null);
+        }
+        try {
+            dto.setRegistrationTime(DateTimeUtil.parseToLocalDateTime(row.get(4).toString()));
+        } catch (Exception e) {
+            dto.setRegistrationTime(null);
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,80 @@
+package com.galapea.techblog.volunteer_matching.benchmarks;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowReader;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsResponse;
+import com.galapea.techblog.volunteer_matching.opportunity.OpportunityDTO;
+import com.galapea.techblog.volunteer_matching.opportunity.OpportunityGridDBService;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationDTO;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationGridDBService;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Response body to DTOs: the streaming parse through {@link GridDbRowReader} and each service's {@code ROW_DECODER},
+ * against the baseline it replaced: binding the whole response to {@link AcquireRowsResponse} with {@code List<Object>}
+ * rows, then {@code mapRowToDTO}/{@code extractRowToDTO} per row ({@link LegacyRowMapping}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowDecodeBenchmark {
+
+    @Param({"1", "50", "10000"})
+    int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] opportunityResponse;
+    private byte[] registrationResponse;
+
+    @Setup
+    public void setUp() {
+        opportunityResponse =
+                Rows.acquireResponse(Rows.opportunities(rows), OpportunityGridDBService.ROW_ENCODER);
+        registrationResponse =
+                Rows.acquireResponse(Rows.registrations(rows), RegistrationGridDBService.ROW_ENCODER);
+    }
+
+    @Benchmark
+    public List<OpportunityDTO> decodeOpportunities() throws IOException {
+        try (JsonParser parser = Rows.JSON_FACTORY.createParser(opportunityResponse)) {
+            return GridDbRowReader.readRows(parser, "rows", OpportunityGridDBService.ROW_DECODER);
+        }
+    }
+
+    @Benchmark
+    public List<OpportunityDTO> decodeOpportunitiesBaseline() throws IOException {
+        AcquireRowsResponse response = objectMapper.readValue(opportunityResponse, AcquireRowsResponse.class);
+        return response.getRows().stream().map(LegacyRowMapping::opportunity).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<RegistrationDTO> decodeRegistrations() throws IOException {
+        try (JsonParser parser = Rows.JSON_FACTORY.createParser(registrationResponse)) {
+            return GridDbRowReader.readRows(parser, "rows", RegistrationGridDBService.ROW_DECODER);
+        }
+    }
+
+    @Benchmark
+    public List<RegistrationDTO> decodeRegistrationsBaseline() throws IOException {
+        AcquireRowsResponse response = objectMapper.readValue(registrationResponse, AcquireRowsResponse.class);
+        return response.getRows().stream().map(LegacyRowMapping::registration).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,90 @@
+package com.galapea.techblog.volunteer_matching.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowWriter;
+import com.galapea.techblog.volunteer_matching.opportunity.OpportunityDTO;
+import com.galapea.techblog.volunteer_matching.opportunity.OpportunityGridDBService;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationDTO;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationGridDBService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DTOs to a row registration body: {@link GridDbRowWriter} with each service's {@code ROW_ENCODER}, against the
+ * baseline it replaced: the hand-built JSON strings of {@code create}/{@code update} with {@code escapeString}, encoded
+ * into the body by {@code RestClient} ({@link LegacyRowEncoding}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowEncodeBenchmark {
+
+    @Param({"1", "50", "10000"})
+    int rows;
+
+    private List<OpportunityDTO> opportunities;
+    private List<RegistrationDTO> registrations;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() {
+        opportunities = Rows.opportunities(rows);
+        registrations = Rows.registrations(rows);
+        out = new ByteArrayOutputStream(rows * 512);
+    }
+
+    @Benchmark
+    public int encodeOpportunities() throws IOException {
+        out.reset();
+        try (JsonGenerator generator = Rows.JSON_FACTORY.createGenerator(out)) {
+            GridDbRowWriter.writeRows(generator, opportunities, OpportunityGridDBService.ROW_ENCODER);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int encodeOpportunitiesBaseline() throws IOException {
+        out.reset();
+        LegacyRowEncoding.send(LegacyRowEncoding.opportunities(opportunities), out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int encodeRegistrations() throws IOException {
+        out.reset();
+        try (JsonGenerator generator = Rows.JSON_FACTORY.createGenerator(out)) {
+            GridDbRowWriter.writeRows(generator, registrations, RegistrationGridDBService.ROW_ENCODER);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int encodeRegistrationsBaseline() throws IOException {
+        out.reset();
+        LegacyRowEncoding.send(LegacyRowEncoding.registrations(registrations), out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int encodeRegistrationUpdatesBaseline() throws IOException {
+        out.reset();
+        LegacyRowEncoding.send(LegacyRowEncoding.registrationUpdates(registrations), out);
+        return out.size();
+    }
+}
@@ -0,0 +1,84 @@
+package com.galapea.techblog.volunteer_matching.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowEncoder;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowWriter;
+import com.galapea.techblog.volunteer_matching.opportunity.OpportunityDTO;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationDTO;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationStatus;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Deterministic row sets shaped like the app's data: TSID-like ids, a mix of plain and quoted text, UTC timestamps.
+ */
+final class Rows {
+
+    static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 9, 0, 0, 125_000_000);
+    private static final RegistrationStatus[] STATUSES = RegistrationStatus.values();
+
+    private Rows() {}
+
+    static List<OpportunityDTO> opportunities(final int count) {
+        List<OpportunityDTO> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            OpportunityDTO dto = new OpportunityDTO();
+            dto.setId(id("opp", i));
+            dto.setTitle("Community Health Screening #" + i);
+            dto.setDescription("Assist with general health screening, \"blood pressure\" checks and patient "
+                    + "registration at the clinic's main entrance. Shift " + i + ".");
+            dto.setAddress(i + " Health Street, Medical City");
+            dto.setStartTime(START.plusHours(i));
+            dto.setEndTime(START.plusHours(i + 4L));
+            dto.setSlotsTotal(10L + i % 40);
+            dto.setOrgId(id("org", i % 25));
+            rows.add(dto);
+        }
+        return rows;
+    }
+
+    static List<RegistrationDTO> registrations(final int count) {
+        List<RegistrationDTO> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RegistrationDTO dto = new RegistrationDTO();
+            dto.setId(id("reg", i));
+            dto.setUserId(id("usr", i % 500));
+            dto.setOpportunityId(id("opp", i % 200));
+            dto.setStatus(STATUSES[i % STATUSES.length]);
+            dto.setRegistrationTime(START.plusMinutes(i));
+            rows.add(dto);
+        }
+        return rows;
+    }
+
+    /**
+     * Encodes {@code rows} as a {@code POST /containers/{name}/rows} response body.
+     */
+    static <T> byte[] acquireResponse(final Collection<T> rows, final GridDbRowEncoder<T> encoder) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write("{\"columns\":[],\"rows\":".getBytes(StandardCharsets.UTF_8));
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+                GridDbRowWriter.writeRows(generator, rows, encoder);
+            }
+            out.write((",\"total\":" + rows.size() + ",\"offset\":0,\"limit\":" + rows.size() + "}")
+                    .getBytes(StandardCharsets.UTF_8));
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String id(final String prefix, final int index) {
+        return prefix + "_0" + Long.toString(0x1F3A5C7E9BL + index * 7919L, 32);
+    }
+}
@@ -0,0 +1,140 @@
+package com.galapea.techblog.volunteer_matching.benchmarks;
+
+import com.galapea.techblog.volunteer_matching.config.RestClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+/**
+ * One small GridDB-shaped query round trip against a local stub server, through:
+ * <ul>
+ * <li>{@code pooled}: the pooled Apache HttpClient transport built by {@link RestClientConfig}</li>
+ * <li>{@code jdkDefault}: the JDK request factory the {@code RestClient} used before that</li>
+ * <li>{@code newConnection}: a new connection per request, the cost every round trip pays when connections are not
+ * reused</li>
+ * </ul>
+ * The stub is plain HTTP on loopback, so the difference is a lower bound: against GridDB Cloud each new connection
+ * also pays the network round trips and the TLS handshake.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class TransportBenchmark {
+
+    private static final byte[] RESPONSE = """
+            [{"columns":[{"name":"id","type":"STRING"}],"results":[["opp-1"],["opp-2"]],"total":2}]
+            """.getBytes(StandardCharsets.UTF_8);
+    private static final String QUERY = "[{\"stmt\":\"SELECT id FROM VoMaOpportunities LIMIT 2\"}]";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private CloseableHttpClient pooledHttpClient;
+    private RestClient pooled;
+    private RestClient jdkDefault;
+    private RestClient newConnection;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/sql/dml/query", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.readAllBytes();
+            }
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(RESPONSE);
+            }
+        });
+        serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(serverExecutor);
+        server.start();
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        RestClientConfig config = new RestClientConfig();
+        pooledHttpClient = config.gridDbHttpClient(
+                config.gridDbConnectionManager(
+                        50,
+                        20,
+                        Duration.ofSeconds(5),
+                        Duration.ofSeconds(30),
+                        Duration.ofMinutes(5),
+                        Duration.ofSeconds(2)),
+                Duration.ofMinutes(2),
+                Duration.ofMinutes(1));
+        pooled = restClient(baseUrl, new HttpComponentsClientHttpRequestFactory(pooledHttpClient), false);
+        jdkDefault = restClient(baseUrl, new JdkClientHttpRequestFactory(), false);
+        newConnection = restClient(baseUrl, new SimpleClientHttpRequestFactory(), true);
+    }
+
+    private static RestClient restClient(
+            final String baseUrl, final ClientHttpRequestFactory requestFactory, final boolean closeConnections) {
+        RestClient.Builder builder = RestClient.builder()
+                .requestFactory(requestFactory)
+                .baseUrl(baseUrl)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        if (closeConnections) {
+            builder.defaultHeader(HttpHeaders.CONNECTION, "close");
+        }
+        return builder.build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pooledHttpClient.close();
+        server.stop(0);
+        serverExecutor.close();
+    }
+
+    @Benchmark
+    public byte[] pooled() {
+        return query(pooled);
+    }
+
+    @Benchmark
+    public byte[] jdkDefault() {
+        return query(jdkDefault);
+    }
+
+    @Benchmark
+    public byte[] newConnection() {
+        return query(newConnection);
+    }
+
+    private static byte[] query(final RestClient restClient) {
+        return restClient.post().uri("/sql/dml/query").body(QUERY).retrieve().body(byte[].class);
+    }
+}
@@ -0,0 +1,114 @@
+package com.galapea.techblog.volunteer_matching.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The scripted user journeys. Each step is one page a browser would load and is timed separately. A step whose
+ * responses exceed their GridDB call budget is also counted as an error of {@code <step>.overBudget}.
+ */
+final class Flows {
+
+    private static final Pattern OPPORTUNITY_LINK = Pattern.compile("href=\"/opportunities/([A-Za-z0-9_]+)\"");
+    private static final Pattern APPROVE_ACTION = Pattern.compile("action=\"/registrations/approve/([A-Za-z0-9_]+)\"");
+
+    private final LoadTestConfig config;
+    private final LatencyReport report;
+    private final Executor httpExecutor;
+
+    Flows(final LoadTestConfig config, final LatencyReport report, final Executor httpExecutor) {
+        this.config = config;
+        this.report = report;
+        this.httpExecutor = httpExecutor;
+    }
+
+    /**
+     * Logs in as a volunteer, browses the opportunity list, opens one opportunity and registers for it.
+     */
+    void volunteer(final String email) throws Exception {
+        try (WebSession session = new WebSession(config.baseUri(), httpExecutor)) {
+            if (!login(session, "volunteer", email)) {
+                return;
+            }
+            WebSession.Page list = step("volunteer.browse", () -> session.get("/opportunities"));
+            String opportunityId = pick(ids(OPPORTUNITY_LINK, list.body()));
+            if (opportunityId == null) {
+                return;
+            }
+            step("volunteer.view", () -> session.get("/opportunities/" + opportunityId));
+            step(
+                    "volunteer.register",
+                    () -> session.postForm("/opportunities/" + opportunityId + "/registrations", Map.of()));
+        }
+    }
+
+    /**
+     * Logs in as the organizer, opens the registrations of the organization and approves one pending registration.
+     */
+    void organizer() throws Exception {
+        try (WebSession session = new WebSession(config.baseUri(), httpExecutor)) {
+            if (!login(session, "organizer", config.organizerEmail())) {
+                return;
+            }
+            WebSession.Page registrations = step("organizer.registrations", () -> session.get("/registrations"));
+            String registrationId = pick(ids(APPROVE_ACTION, registrations.body()));
+            if (registrationId != null) {
+                step(
+                        "organizer.approve",
+                        () -> session.postForm("/registrations/approve/" + registrationId, Map.of()));
+            }
+        }
+    }
+
+    private boolean login(final WebSession session, final String role, final String email) throws Exception {
+        step(role + ".loginPage", () -> session.get("/login"));
+        WebSession.Page page = step(
+                role + ".login",
+                () -> session.postForm("/login", Map.of("email", email, "password", config.password())));
+        boolean loggedIn = page.ok() && !page.uri().toString().contains("loginError");
+        if (!loggedIn) {
+            report.record(role + ".loginRejected", 0, false);
+        }
+        return loggedIn;
+    }
+
+    private WebSession.Page step(final String name, final Request request) throws Exception {
+        long start = System.nanoTime();
+        try {
+            WebSession.Page page = request.send();
+            report.record(name, System.nanoTime() - start, page.ok());
+            for (int i = 0; i < page.overBudget(); i++) {
+                report.record(name + ".overBudget", 0, false);
+            }
+            return page;
+        } catch (Exception e) {
+            report.record(name, System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    private static List<String> ids(final Pattern pattern, final String html) {
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = pattern.matcher(html);
+        while (matcher.find()) {
+            if (!"add".equals(matcher.group(1))) {
+                ids.add(matcher.group(1));
+            }
+        }
+        return ids;
+    }
+
+    private static String pick(final List<String> ids) {
+        return ids.isEmpty() ? null : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        WebSession.Page send() throws Exception;
+    }
+}
@@ -0,0 +1,130 @@
+package com.galapea.techblog.volunteer_matching.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms per step of a flow, e.g. {@code volunteer.login} or {@code volunteer.register}, plus one for
+ * every whole flow measured from its scheduled start, so a saturated generator shows up as latency rather than as a
+ * lower arrival rate.
+ */
+final class LatencyReport {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final Map<String, Step> steps = new ConcurrentSkipListMap<>();
+    private volatile boolean recording;
+
+    void startRecording() {
+        recording = true;
+    }
+
+    void record(final String step, final long nanos, final boolean ok) {
+        if (!recording) {
+            return;
+        }
+        Step recorded = steps.computeIfAbsent(step, name -> new Step());
+        recorded.histogram.recordValue(Math.min(Math.max(nanos, 1), MAX_TRACKABLE_NANOS));
+        if (!ok) {
+            recorded.errors.incrementAndGet();
+        }
+    }
+
+    void print(final PrintStream out, final LoadTestConfig config, final long elapsedNanos) {
+        out.printf(
+                Locale.ROOT,
+                "%n%s: %.1f volunteer + %.1f organizer sessions/s for %ds%n",
+                config.label(),
+                config.volunteerRate(),
+                config.organizerRate(),
+                TimeUnit.NANOSECONDS.toSeconds(elapsedNanos));
+        out.printf(
+                Locale.ROOT,
+                "%-28s %8s %8s %9s %9s %9s %9s %9s%n",
+                "step",
+                "count",
+                "errors",
+                "req/s",
+                "p50 ms",
+                "p95 ms",
+                "p99 ms",
+                "max ms");
+        steps.forEach((name, step) -> {
+            Histogram histogram = step.histogram.copy();
+            out.printf(
+                    Locale.ROOT,
+                    "%-28s %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    name,
+                    histogram.getTotalCount(),
+                    step.errors.get(),
+                    histogram.getTotalCount() * 1e9 / elapsedNanos,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMaxValue()));
+        });
+    }
+
+    /**
+     * Writes the run as one JSON object, so runs of different commits can be kept side by side and diffed.
+     */
+    void write(final Path file, final LoadTestConfig config, final long elapsedNanos) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"label\": \"").append(config.label()).append("\",\n");
+        json.append("  \"finishedAt\": \"").append(Instant.now()).append("\",\n");
+        json.append(String.format(
+                Locale.ROOT,
+                "  \"config\": {\"volunteerRate\": %s, \"organizerRate\": %s, \"durationSeconds\": %d, "
+                        + "\"volunteers\": %d},%n",
+                config.volunteerRate(),
+                config.organizerRate(),
+                config.duration().toSeconds(),
+                config.volunteers()));
+        json.append("  \"steps\": {");
+        String separator = "\n";
+        for (Map.Entry<String, Step> entry : steps.entrySet()) {
+            Histogram histogram = entry.getValue().histogram.copy();
+            json.append(separator)
+                    .append(String.format(
+                            Locale.ROOT,
+                            "    \"%s\": {\"count\": %d, \"errors\": %d, \"perSecond\": %.2f, \"p50Ms\": %.2f, "
+                                    + "\"p90Ms\": %.2f, \"p95Ms\": %.2f, \"p99Ms\": %.2f, \"p999Ms\": %.2f, "
+                                    + "\"maxMs\": %.2f}",
+                            entry.getKey(),
+                            histogram.getTotalCount(),
+                            entry.getValue().errors.get(),
+                            histogram.getTotalCount() * 1e9 / elapsedNanos,
+                            millis(histogram.getValueAtPercentile(50)),
+                            millis(histogram.getValueAtPercentile(90)),
+                            millis(histogram.getValueAtPercentile(95)),
+                            millis(histogram.getValueAtPercentile(99)),
+                            millis(histogram.getValueAtPercentile(99.9)),
+                            millis(histogram.getMaxValue())));
+            separator = ",\n";
+        }
+        json.append("\n  }\n}\n");
+        Files.writeString(file, json, StandardCharsets.UTF_8);
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Step {
+
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+        private final AtomicLong errors = new AtomicLong();
+    }
+}
@@ -0,0 +1,117 @@
+package com.galapea.techblog.volunteer_matching.loadtest;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open-model load generator for a running VolunteerMatching instance.
+ * <p>
+ * Volunteer and organizer sessions arrive as two independent Poisson processes at the configured rates. Each session
+ * runs on its own virtual thread with its own cookie jar, so a slow server leads to more concurrent sessions, as it
+ * would with real users, instead of fewer requests. Step latencies go into HdrHistograms, printed at the end and
+ * optionally written as JSON for comparison between commits:
+ *
+ * <pre>
+ * mvn -f loadtest/pom.xml compile exec:java \
+ *     -Dexec.args="--base-url=http://localhost:8080 --volunteer-rate=20 --duration=120s \
+ *         --label=$(git rev-parse --short HEAD) --output=run-$(git rev-parse --short HEAD).json"
+ * </pre>
+ *
+ * Run the app with the {@code griddb-stub} profile to keep GridDB Cloud out of the measurement.
+ * </p>
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(final String... args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        LatencyReport report = new LatencyReport();
+        long elapsedNanos;
+        // one executor for the HTTP clients of all sessions, each session closes its own client
+        try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Flows flows = new Flows(config, report, httpExecutor);
+
+            VolunteerAccounts accounts = new VolunteerAccounts(config);
+            accounts.create(httpExecutor);
+
+            long runNanos = config.warmup().plus(config.duration()).toNanos();
+            long begin = System.nanoTime();
+            try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+                Thread warmup = Thread.ofVirtual().start(() -> {
+                    sleepUntil(begin + config.warmup().toNanos());
+                    report.startRecording();
+                });
+                Flow volunteerFlow = () -> flows.volunteer(accounts.pick());
+                Thread volunteers = Thread.ofVirtual().start(() -> arrive(
+                        sessions, config.volunteerRate(), begin, runNanos, report, "volunteer.flow", volunteerFlow));
+                Thread organizers = Thread.ofVirtual().start(() -> arrive(
+                        sessions, config.organizerRate(), begin, runNanos, report, "organizer.flow", flows::organizer));
+                warmup.join();
+                volunteers.join();
+                organizers.join();
+            }
+            elapsedNanos = System.nanoTime() - begin - config.warmup().toNanos();
+        }
+
+        report.print(System.out, config, elapsedNanos);
+        if (config.output() != null) {
+            report.write(Path.of(config.output()), config, elapsedNanos);
+            System.out.println("Report written to " + config.output());
+        }
+    }
+
+    /**
+     * Starts sessions with exponentially distributed gaps until {@code runNanos} after {@code begin}. The flow time is
+     * measured from the scheduled arrival, not from when the session actually got going.
+     */
+    private static void arrive(
+            final ExecutorService sessions,
+            final double perSecond,
+            final long begin,
+            final long runNanos,
+            final LatencyReport report,
+            final String flowName,
+            final Flow flow) {
+        if (perSecond <= 0) {
+            return;
+        }
+        long next = begin;
+        while (true) {
+            next += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) / perSecond * 1e9);
+            if (next - begin >= runNanos) {
+                return;
+            }
+            sleepUntil(next);
+            long scheduled = next;
+            sessions.execute(() -> {
+                boolean ok = true;
+                try {
+                    flow.run();
+                } catch (Exception e) {
+                    ok = false;
+                }
+                report.record(flowName, System.nanoTime() - scheduled, ok);
+            });
+        }
+    }
+
+    private static void sleepUntil(final long nanoTime) {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Flow {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,64 @@
+package com.galapea.techblog.volunteer_matching.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code --name=value} arguments.
+ *
+ * @param baseUri
+ *            the running instance, e.g. {@code http://localhost:8080}
+ * @param duration
+ *            how long new sessions are started, after the warm-up
+ * @param warmup
+ *            sessions started in this period are not recorded
+ * @param volunteerRate
+ *            volunteer sessions started per second, on average
+ * @param organizerRate
+ *            organizer sessions started per second, on average
+ * @param volunteers
+ *            size of the pool of volunteer accounts the sessions log in as
+ * @param organizerEmail
+ *            the organizer account, one that administers an organization
+ * @param password
+ *            password of every account
+ * @param label
+ *            name of the run in the report, e.g. a commit id
+ * @param output
+ *            file the JSON report is written to, or {@code null}
+ */
+record LoadTestConfig(
+        URI baseUri,
+        Duration duration,
+        Duration warmup,
+        double volunteerRate,
+        double organizerRate,
+        int volunteers,
+        String organizerEmail,
+        String password,
+        String label,
+        String output) {
+
+    static LoadTestConfig parse(final String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return new LoadTestConfig(
+                URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                Duration.parse("PT" + values.getOrDefault("duration", "60s")),
+                Duration.parse("PT" + values.getOrDefault("warmup", "10s")),
+                Double.parseDouble(values.getOrDefault("volunteer-rate", "5")),
+                Double.parseDouble(values.getOrDefault("organizer-rate", "0.5")),
+                Integer.parseInt(values.getOrDefault("volunteers", "200")),
+                values.getOrDefault("organizer-email", "admin@health.example"),
+                values.getOrDefault("password", "123"),
+                values.getOrDefault("label", "local"),
+                values.get("output"));
+    }
+}
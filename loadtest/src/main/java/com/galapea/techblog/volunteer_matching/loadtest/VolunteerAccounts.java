@@ -0,0 +1,42 @@
+package com.galapea.techblog.volunteer_matching.loadtest;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The pool of volunteer accounts sessions log in as, {@code loadtest-volunteer-<n>@example.com}. Accounts are
+ * created through {@code /api/users} before the run. An account that already exists is kept, so reruns against the
+ * same database reuse the pool.
+ */
+final class VolunteerAccounts {
+
+    private final LoadTestConfig config;
+
+    VolunteerAccounts(final LoadTestConfig config) {
+        this.config = config;
+    }
+
+    void create(final Executor httpExecutor) throws Exception {
+        int created = 0;
+        try (WebSession session = new WebSession(config.baseUri(), httpExecutor)) {
+            // the login page hands out the CSRF token the API expects
+            session.get("/login");
+            for (int i = 0; i < config.volunteers(); i++) {
+                String json = "{\"email\":\"" + email(i) + "\",\"fullName\":\"Load Test Volunteer " + i
+                        + "\",\"role\":\"VOLUNTEER\"}";
+                if (session.postJson("/api/users", json).status() == 201) {
+                    created++;
+                }
+            }
+        }
+        System.out.printf("%d volunteer accounts ready (%d created)%n", config.volunteers(), created);
+    }
+
+    String pick() {
+        return email(ThreadLocalRandom.current().nextInt(config.volunteers()));
+    }
+
+    private static String email(final int index) {
+        return "loadtest-volunteer-" + index + "@example.com";
+    }
+}
@@ -0,0 +1,117 @@
+package com.galapea.techblog.volunteer_matching.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * One simulated browser: its own cookie jar, so its own login session, following redirects like a browser after a
+ * form post. Remembers the CSRF token of the last page it loaded. Closing it closes its HTTP client and with it the
+ * connections and selector thread of the client; the executor the client runs on is shared and stays open.
+ */
+final class WebSession implements AutoCloseable {
+
+    private static final Pattern CSRF_INPUT = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private String csrfToken;
+
+    WebSession(final URI baseUri, final Executor executor) {
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    Page get(final String path) throws IOException, InterruptedException {
+        return send(request(path).GET().build());
+    }
+
+    Page postForm(final String path, final Map<String, String> fields) throws IOException, InterruptedException {
+        String form = fields.entrySet().stream()
+                .map(field -> encode(field.getKey()) + "=" + encode(field.getValue()))
+                .collect(Collectors.joining("&"));
+        if (csrfToken != null) {
+            form = form.isEmpty() ? "_csrf=" + encode(csrfToken) : form + "&_csrf=" + encode(csrfToken);
+        }
+        return send(request(path)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build());
+    }
+
+    Page postJson(final String path, final String json) throws IOException, InterruptedException {
+        HttpRequest.Builder request = request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (csrfToken != null) {
+            request.header("X-CSRF-TOKEN", csrfToken);
+        }
+        return send(request.build());
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private HttpRequest.Builder request(final String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private Page send(final HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Matcher csrf = CSRF_INPUT.matcher(response.body());
+        if (csrf.find()) {
+            csrfToken = csrf.group(1);
+        }
+        return new Page(response.statusCode(), response.uri(), response.body(), overBudget(response));
+    }
+
+    /**
+     * Counts the responses of the request and of the redirects it followed whose GridDB call count exceeds the
+     * budget the application declared for them.
+     */
+    private static int overBudget(final HttpResponse<?> response) {
+        int overBudget = 0;
+        for (HttpResponse<?> hop = response; hop != null; hop = hop.previousResponse().orElse(null)) {
+            OptionalLong calls = hop.headers().firstValueAsLong("X-GridDB-Calls");
+            OptionalLong budget = hop.headers().firstValueAsLong("X-GridDB-Call-Budget");
+            if (calls.isPresent() && budget.isPresent() && calls.getAsLong() > budget.getAsLong()) {
+                overBudget++;
+            }
+        }
+        return overBudget;
+    }
+
+    private static String encode(final String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The page a request ended on, after redirects, and how many of the responses on the way made more GridDB calls
+     * than their budget.
+     */
+    record Page(int status, URI uri, String body, int overBudget) {
+
+        boolean ok() {
+            return status >= 200 && status < 400;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.galapea.techblog.volunteer_matching;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @Controller
+@GridDbCallBudget(0)
 public class HomeController {
 
     @GetMapping("/")
@@ -1,6 +1,10 @@
 package com.galapea.techblog.volunteer_matching;
 
-import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbConnectionPoolStats;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbHealth;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbHealthMonitor;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,16 +13,30 @@ import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping(value = "/api/home", produces = MediaType.APPLICATION_JSON_VALUE)
+@GridDbCallBudget(0)
 public class HomeResource {
-    private final GridDbClient gridDbClient;
+    private final GridDbHealthMonitor gridDbHealthMonitor;
+    private final PoolingHttpClientConnectionManager gridDbConnectionManager;
 
-    public HomeResource(final GridDbClient gridDbClient) {
-        this.gridDbClient = gridDbClient;
+    public HomeResource(
+            final GridDbHealthMonitor gridDbHealthMonitor,
+            final PoolingHttpClientConnectionManager gridDbConnectionManager) {
+        this.gridDbHealthMonitor = gridDbHealthMonitor;
+        this.gridDbConnectionManager = gridDbConnectionManager;
     }
 
     @GetMapping("/databaseStatus")
     public ResponseEntity<String> getDatabaseStatus() {
-        String status = gridDbClient.checkConnection() ? "Connected to GridDBCloud" : "Not connected to GridDBCloud";
-        return ResponseEntity.ok('"' + status + '"');
+        return ResponseEntity.ok('"' + gridDbHealthMonitor.health().describe() + '"');
+    }
+
+    @GetMapping("/databaseHealth")
+    public ResponseEntity<GridDbHealth> getDatabaseHealth() {
+        return ResponseEntity.ok(gridDbHealthMonitor.health());
+    }
+
+    @GetMapping("/connectionPool")
+    public ResponseEntity<GridDbConnectionPoolStats> getConnectionPool() {
+        return ResponseEntity.ok(GridDbConnectionPoolStats.of(gridDbConnectionManager));
     }
 }
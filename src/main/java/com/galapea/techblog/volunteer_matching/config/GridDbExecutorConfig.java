@@ -0,0 +1,20 @@
+package com.galapea.techblog.volunteer_matching.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GridDbExecutorConfig {
+
+    /**
+     * One virtual thread per GridDB call: blocking on the HTTP round trip parks the virtual thread instead of
+     * holding a platform (Tomcat) thread.
+     */
+    @Bean(name = "GridDbExecutor", destroyMethod = "close")
+    public ExecutorService gridDbExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("griddb-", 0).factory());
+    }
+}
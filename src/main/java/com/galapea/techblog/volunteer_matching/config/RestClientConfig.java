@@ -1,76 +1,92 @@
 package com.galapea.techblog.volunteer_matching.config;
 
-import com.galapea.techblog.volunteer_matching.ForbiddenGridDbConnectionException;
-import com.galapea.techblog.volunteer_matching.griddb.GridDbException;
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.concurrent.TimeUnit;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRequestMetrics;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbResilience;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbResponseErrors;
+import java.time.Duration;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpRequest;
 import org.springframework.http.MediaType;
-import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.lang.NonNull;
 import org.springframework.web.client.RestClient;
 
 @Configuration
 public class RestClientConfig {
-    final Logger LOGGER = LoggerFactory.getLogger(RestClientConfig.class);
+
+    /**
+     * Connection pool shared by every GridDB Cloud request, so that consecutive round trips reuse an open
+     * (and already TLS-negotiated) connection instead of dialing a new one. Closed by {@link #gridDbHttpClient},
+     * which owns it.
+     */
+    @Bean(destroyMethod = "")
+    public PoolingHttpClientConnectionManager gridDbConnectionManager(
+            @Value("${griddbcloud.http.max-connections:50}") final int maxConnections,
+            @Value("${griddbcloud.http.max-connections-per-route:20}") final int maxConnectionsPerRoute,
+            @Value("${griddbcloud.http.connect-timeout:5s}") final Duration connectTimeout,
+            @Value("${griddbcloud.http.read-timeout:30s}") final Duration readTimeout,
+            @Value("${griddbcloud.http.connection-ttl:5m}") final Duration connectionTtl,
+            @Value("${griddbcloud.http.validate-after-inactivity:2s}") final Duration validateAfterInactivity) {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(readTimeout))
+                .setTimeToLive(TimeValue.of(connectionTtl))
+                .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                .build();
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient gridDbHttpClient(
+            final PoolingHttpClientConnectionManager gridDbConnectionManager,
+            @Value("${griddbcloud.http.keep-alive:2m}") final Duration keepAlive,
+            @Value("${griddbcloud.http.idle-eviction:1m}") final Duration idleEviction) {
+        // keep-alive is the fallback used when GridDB Cloud doesn't send a Keep-Alive header
+        // the client must own the pool: a shared connection manager gets no idle connection evictor
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(gridDbConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+    }
 
     @Bean("GridDbRestClient")
     public RestClient gridDbRestClient(
             @NonNull @Value("${griddbcloud.base-url}") final String baseUrl,
-            @NonNull @Value("${griddbcloud.auth-token}") final String authToken) {
+            @NonNull @Value("${griddbcloud.auth-token}") final String authToken,
+            final CloseableHttpClient gridDbHttpClient,
+            final GridDbResilience gridDbResilience,
+            final GridDbRequestMetrics gridDbRequestMetrics) {
         return RestClient.builder()
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(gridDbHttpClient))
                 .baseUrl(baseUrl)
                 .defaultHeader(HttpHeaders.AUTHORIZATION, "Basic " + authToken)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .defaultStatusHandler(
-                        status -> status.is4xxClientError() || status.is5xxServerError(), (request, response) -> {
-                            String responseBody = getResponseBody(response);
-                            LOGGER.error("GridDB API error: status={} body={}", response.getStatusCode(), responseBody);
-                            if (response.getStatusCode().value() == 403) {
-                                LOGGER.error("Access forbidden - please check your auth token and permissions.");
-                                throw new ForbiddenGridDbConnectionException("Access forbidden to GridDB Cloud API.");
-                            }
-                            throw new GridDbException("GridDB API error: ", response.getStatusCode(), responseBody);
-                        })
-                .requestInterceptor((request, body, execution) -> {
-                    final long begin = System.currentTimeMillis();
-                    ClientHttpResponse response = execution.execute(request, body);
-                    logDuration(request, body, begin, response);
-                    return response;
+                .defaultStatusHandler(GridDbResponseErrors::isError, (request, response) -> {
+                    throw GridDbResponseErrors.toException(response);
                 })
+                // outermost, so that calls refused by a circuit or the bulkhead are not timed as GridDB requests
+                .requestInterceptor(gridDbResilience)
+                .requestInterceptor(gridDbRequestMetrics)
                 .build();
     }
-
-    private void logDuration(HttpRequest request, byte[] body, final long begin, ClientHttpResponse response)
-            throws IOException {
-        long duration = System.currentTimeMillis() - begin;
-        LOGGER.info(
-                "[GridDbRestClientRequest] {} {} {} duration={}s Body: {}",
-                request.getMethod(),
-                request.getURI(),
-                response.getStatusCode().value(),
-                TimeUnit.MILLISECONDS.toSeconds(duration),
-                body != null ? new String(body, StandardCharsets.UTF_8) : "<no-body>");
-    }
-
-    private String getResponseBody(ClientHttpResponse response) {
-        try (InputStream in = response.getBody()) {
-            byte[] bytes = in.readAllBytes();
-            if (bytes.length == 0) {
-                return "<empty>";
-            }
-            return new String(bytes, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            return "<error-reading-body: " + e.getMessage() + ">";
-        }
-    }
 }
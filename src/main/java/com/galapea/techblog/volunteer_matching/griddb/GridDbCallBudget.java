@@ -0,0 +1,20 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most GridDB Cloud round trips a handler may make per request. {@link GridDbCallCountFilter} reports the budget
+ * next to the actual count in the {@code X-GridDB-Call-Budget} header and logs a warning when it is exceeded, which
+ * is how a new N+1 pattern shows up before it reaches production.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface GridDbCallBudget {
+
+    int value();
+}
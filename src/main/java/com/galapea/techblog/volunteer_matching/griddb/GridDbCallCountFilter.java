@@ -0,0 +1,152 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Opens a {@link GridDbCallCounter} for every request and reports how many GridDB Cloud round trips and bytes it
+ * took: in the {@code X-GridDB-Calls}, {@code X-GridDB-Bytes} and {@code X-GridDB-Call-Budget} response headers,
+ * which are written just before the response is committed, and in a log line once the request completes. Handlers
+ * that exceed their {@link GridDbCallBudget} are logged at WARN. Runs first, so that the user lookups of the
+ * security filters are counted as well.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class GridDbCallCountFilter extends OncePerRequestFilter {
+
+    public static final String CALLS_HEADER = "X-GridDB-Calls";
+    public static final String BYTES_HEADER = "X-GridDB-Bytes";
+    public static final String BUDGET_HEADER = "X-GridDB-Call-Budget";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GridDbCallCountFilter.class);
+
+    @Override
+    protected void doFilterInternal(
+            final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
+            throws ServletException, IOException {
+        GridDbCallCounter counter = GridDbCallCounter.open(request);
+        CountingResponse countingResponse = new CountingResponse(request, response, counter);
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            countingResponse.writeHeaders();
+            budget(request, counter);
+            if (counter.overBudget()) {
+                LOGGER.warn(
+                        "{} {}: {} GridDB calls ({} bytes) exceed the budget of {}",
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        counter.calls(),
+                        counter.bytes(),
+                        counter.budget());
+            } else if (counter.calls() > 0) {
+                LOGGER.info(
+                        "{} {}: {} GridDB calls, {} bytes",
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        counter.calls(),
+                        counter.bytes());
+            }
+        }
+    }
+
+    /**
+     * Takes the budget from the handler method, or else its controller, once the dispatcher has picked it.
+     */
+    private static void budget(final HttpServletRequest request, final GridDbCallCounter counter) {
+        if (counter.budget() >= 0
+                || !(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)
+                        instanceof HandlerMethod handler)) {
+            return;
+        }
+        GridDbCallBudget budget = handler.getMethodAnnotation(GridDbCallBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), GridDbCallBudget.class);
+        }
+        if (budget != null) {
+            counter.budget(budget.value());
+        }
+    }
+
+    /**
+     * Adds the count headers the first time the response is about to be committed; headers set later are ignored
+     * by the container.
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private final GridDbCallCounter counter;
+        private boolean written;
+
+        CountingResponse(
+                final HttpServletRequest request, final HttpServletResponse response, final GridDbCallCounter counter) {
+            super(response);
+            this.request = request;
+            this.counter = counter;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            budget(request, counter);
+            setHeader(CALLS_HEADER, Integer.toString(counter.calls()));
+            setHeader(BYTES_HEADER, Long.toString(counter.bytes()));
+            if (counter.budget() >= 0) {
+                setHeader(BUDGET_HEADER, Integer.toString(counter.budget()));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void sendRedirect(final String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(final int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(final int sc, final String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Counts the GridDB Cloud round trips and bytes one HTTP request causes, including those made on the virtual threads
+ * {@link GridDbClient#supplyAsync} starts for it. {@link GridDbCallCountFilter} opens a counter per request and
+ * reports it; {@link GridDbRequestMetrics} feeds it from the {@code RestClient} interceptor.
+ */
+public final class GridDbCallCounter {
+
+    private static final String ATTRIBUTE = GridDbCallCounter.class.getName();
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+    private volatile int budget = -1;
+
+    public int calls() {
+        return calls.get();
+    }
+
+    public long bytes() {
+        return requestBytes.get() + responseBytes.get();
+    }
+
+    /**
+     * @return the declared {@link GridDbCallBudget} of the handler, or {@code -1} if it has none
+     */
+    public int budget() {
+        return budget;
+    }
+
+    public boolean overBudget() {
+        return budget >= 0 && calls() > budget;
+    }
+
+    void budget(final int budget) {
+        this.budget = budget;
+    }
+
+    void recordCall(final long bytes) {
+        calls.incrementAndGet();
+        requestBytes.addAndGet(bytes);
+    }
+
+    void recordResponse(final long bytes) {
+        responseBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Starts the counter of the current request. Called once per request by {@link GridDbCallCountFilter}.
+     */
+    static GridDbCallCounter open(final HttpServletRequest request) {
+        GridDbCallCounter counter = new GridDbCallCounter();
+        request.setAttribute(ATTRIBUTE, counter);
+        return counter;
+    }
+
+    static GridDbCallCounter current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        try {
+            return (GridDbCallCounter) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        } catch (IllegalStateException e) {
+            // async work that outlived its request
+            return null;
+        }
+    }
+
+    static GridDbCallCounter of(final HttpServletRequest request) {
+        return (GridDbCallCounter) request.getAttribute(ATTRIBUTE);
+    }
+}
@@ -0,0 +1,130 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Count-based circuit breaker over the outcomes of the last {@code window} GridDB Cloud calls.
+ * <p>
+ * The circuit opens once at least {@code minimumCalls} outcomes are recorded and the share of failures reaches
+ * {@code failureRateThreshold}. While open every call is refused, until {@code openNanos} have passed; then a single
+ * trial call is let through, which closes the circuit again when it succeeds and reopens it when it fails.
+ * </p>
+ */
+final class GridDbCircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GridDbCircuitBreaker.class);
+
+    private final String name;
+    private final boolean[] failed;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private int next;
+    private int samples;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    GridDbCircuitBreaker(
+            final String name,
+            final int window,
+            final int minimumCalls,
+            final double failureRateThreshold,
+            final long openNanos) {
+        this.name = name;
+        this.failed = new boolean[Math.max(1, window)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, failed.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+    }
+
+    String name() {
+        return name;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return whether a call may be made now; a call that was permitted must end in {@link #record} or
+     *         {@link #release}
+     */
+    synchronized boolean tryAcquire() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> {
+                if (System.nanoTime() - openedAt < openNanos) {
+                    yield false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                yield true;
+            }
+            case HALF_OPEN -> {
+                if (trialInFlight) {
+                    yield false;
+                }
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void record(final boolean failure) {
+        switch (state) {
+            case HALF_OPEN -> {
+                trialInFlight = false;
+                if (failure) {
+                    open();
+                } else {
+                    LOGGER.info("GridDB {} circuit closed again", name);
+                    state = State.CLOSED;
+                }
+            }
+            case CLOSED -> {
+                if (samples == failed.length && failed[next]) {
+                    failures--;
+                }
+                failed[next] = failure;
+                if (failure) {
+                    failures++;
+                }
+                next = (next + 1) % failed.length;
+                samples = Math.min(samples + 1, failed.length);
+                if (samples >= minimumCalls && (double) failures / samples >= failureRateThreshold) {
+                    LOGGER.warn("GridDB {} circuit opened: {} of the last {} calls failed", name, failures, samples);
+                    open();
+                }
+            }
+            case OPEN -> {
+                // a call that was already running when the circuit opened
+            }
+        }
+    }
+
+    /**
+     * Gives back a permitted call that was never made, so that a refused half-open trial does not block the circuit.
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        next = 0;
+        samples = 0;
+        failures = 0;
+    }
+}
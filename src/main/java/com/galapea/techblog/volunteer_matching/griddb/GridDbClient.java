@@ -1,5 +1,9 @@
 package com.galapea.techblog.volunteer_matching.griddb;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.StreamWriteFeature;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsRequest;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsResponse;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbCloudSQLStmt;
@@ -7,28 +11,84 @@ import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefin
 import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLSelectResponse;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLUpdateResponse;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.SqlExecutionResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Component
 public class GridDbClient {
     private static final Logger LOGGER = LoggerFactory.getLogger(GridDbClient.class);
+    private static final JsonFactory JSON_FACTORY =
+            JsonFactory.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+
+    /** Rows fetched per request by {@link #streamRows}. */
+    public static final int STREAM_PAGE_SIZE = 200;
+    private static final ScheduledThreadPoolExecutor TIMEOUTS = timeoutScheduler();
 
     private final RestClient restClient;
+    private final ExecutorService executor;
+    /** Ids found missing by {@link #findExistingIds}, keyed by {@code container/id}. */
+    private final Cache<String, Boolean> missingIds;
+    private final Duration asyncTimeout;
 
-    public GridDbClient(@Qualifier("GridDbRestClient") final RestClient restClient) {
+    public GridDbClient(
+            @Qualifier("GridDbRestClient") final RestClient restClient,
+            @Qualifier("GridDbExecutor") final ExecutorService executor,
+            @Value("${griddbcloud.async-timeout:30s}") final Duration asyncTimeout,
+            @Value("${griddbcloud.existence.negative-ttl:10s}") final Duration negativeTtl,
+            @Value("${griddbcloud.existence.negative-max-size:10000}") final long negativeMaxSize) {
         this.restClient = restClient;
+        this.executor = executor;
+        this.asyncTimeout = asyncTimeout;
+        this.missingIds = Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfterWrite(negativeTtl)
+                .build();
+    }
+
+    private static ScheduledThreadPoolExecutor timeoutScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(
+                1, Thread.ofPlatform().name("griddb-timeout").daemon().factory());
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
     }
 
     public Boolean checkConnection() {
         try {
-            restClient.get().uri("/checkConnection").retrieve().toBodilessEntity();
+            ping();
             LOGGER.info("Connection to GridDBCloud successful.");
             return true;
         } catch (Exception e) {
@@ -37,6 +97,23 @@ public class GridDbClient {
         }
     }
 
+    /**
+     * Calls {@code /checkConnection} without logging, for periodic probes.
+     *
+     * @throws GridDbException
+     *             if GridDB Cloud cannot be reached or answers with an error
+     */
+    public void ping() {
+        try {
+            restClient.get().uri("/checkConnection").retrieve().toBodilessEntity();
+        } catch (GridDbException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GridDbException(
+                    "Failed to connect to GridDBCloud", HttpStatusCode.valueOf(503), e.getMessage(), e);
+        }
+    }
+
     public void createContainer(final GridDbContainerDefinition containerDefinition) {
         try {
             restClient
@@ -89,6 +166,43 @@ public class GridDbClient {
                     .retrieve()
                     .toEntity(String.class);
             LOGGER.info("Register row response:{}", result);
+            forgetMissingIds(containerName);
+        } catch (GridDbException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GridDbException("Failed to execute PUT request", HttpStatusCode.valueOf(500), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Registers rows into a specified GridDB container, writing each row with
+     * {@code encoder} straight into the request body instead of building the
+     * JSON as a string first.
+     *
+     * @param containerName
+     *            The name of the container where rows will be registered
+     * @param rows
+     *            The rows to register, in the order they are written
+     * @param encoder
+     *            Writes one row, in container column order
+     * @throws GridDbException
+     *             If there's an error during the registration process with GridDB
+     *             or if the REST request fails
+     */
+    public <T> void registerRows(String containerName, Collection<? extends T> rows, GridDbRowEncoder<T> encoder) {
+        try {
+            ResponseEntity<String> result = restClient
+                    .put()
+                    .uri("/containers/" + containerName + "/rows")
+                    .body(outputStream -> {
+                        try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+                            GridDbRowWriter.writeRows(generator, rows, encoder);
+                        }
+                    })
+                    .retrieve()
+                    .toEntity(String.class);
+            LOGGER.info("Register row response:{}", result);
+            forgetMissingIds(containerName);
         } catch (GridDbException e) {
             throw e;
         } catch (Exception e) {
@@ -136,6 +250,26 @@ public class GridDbClient {
         }
     }
 
+    /**
+     * Retrieves rows from a specified GridDB container like
+     * {@link #acquireRows(String, AcquireRowsRequest)}, but maps every row with
+     * {@code decoder} while the response is streamed, without materializing an
+     * {@link AcquireRowsResponse}.
+     *
+     * @param containerName
+     *            the name of the GridDB container to query
+     * @param requestBody
+     *            the request parameters for acquiring rows
+     * @param decoder
+     *            maps one row, in container column order
+     * @return the decoded rows, empty if the container has none
+     * @throws GridDbException
+     *             if the request fails or the GridDB API returns an error
+     */
+    public <T> List<T> acquireRows(String containerName, AcquireRowsRequest requestBody, GridDbRowDecoder<T> decoder) {
+        return decodeRows("/containers/" + containerName + "/rows", requestBody, "rows", decoder);
+    }
+
     public SQLSelectResponse[] select(List<GridDbCloudSQLStmt> sqlStmts) {
         try {
             ResponseEntity<SQLSelectResponse[]> responseEntity = restClient
@@ -153,6 +287,192 @@ public class GridDbClient {
         }
     }
 
+    /**
+     * Reads one page of a container in {@code id} order, starting after the row
+     * whose id is {@code after}. Keyset paging keeps every page equally cheap,
+     * unlike an offset that GridDB has to skip over.
+     *
+     * @param containerName
+     *            the name of the GridDB container to query
+     * @param condition
+     *            an additional TQL condition, or an empty string
+     * @param after
+     *            the {@code nextAfter} of the previous page, or {@code null} for
+     *            the first page
+     * @param size
+     *            the maximum number of rows of the page
+     * @param decoder
+     *            maps one row, in container column order
+     * @param idOf
+     *            extracts the {@code id} column from a decoded row
+     * @throws GridDbException
+     *             if the request fails or the GridDB API returns an error
+     */
+    public <T> KeysetPage<T> acquirePage(
+            String containerName,
+            String condition,
+            String after,
+            int size,
+            GridDbRowDecoder<T> decoder,
+            Function<T, String> idOf) {
+        int pageSize = KeysetPage.clampSize(size);
+        String keyset = after == null || after.isBlank() ? "" : "id > '" + sqlString(after) + "'";
+        String combined = condition == null || condition.isBlank()
+                ? keyset
+                : keyset.isEmpty() ? condition : "(" + condition + ") AND " + keyset;
+        // one extra row tells whether there is a next page
+        AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
+                .limit((long) pageSize + 1)
+                .condition(combined)
+                .sort("id ASC")
+                .build();
+        List<T> rows = acquireRows(containerName, requestBody, decoder);
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> content = List.copyOf(rows.subList(0, pageSize));
+        return new KeysetPage<>(content, idOf.apply(content.get(pageSize - 1)));
+    }
+
+    /**
+     * Lazily streams every row of a container matching {@code condition}, in
+     * {@code id} order, one {@link #acquirePage keyset page} at a time. The next
+     * page is requested on a virtual thread while the current one is consumed,
+     * so only about two pages are held in memory. Closing the stream cancels
+     * the pending request.
+     */
+    public <T> Stream<T> streamRows(
+            String containerName,
+            String condition,
+            int pageSize,
+            GridDbRowDecoder<T> decoder,
+            Function<T, String> idOf) {
+        PagingIterator<T> iterator = new PagingIterator<>(after -> supplyAsync(
+                () -> acquirePage(containerName, condition, after, pageSize, decoder, idOf)));
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Runs a single SQL select and maps every result row with {@code decoder}
+     * while the response is streamed, in {@code SELECT} column order.
+     *
+     * @throws GridDbException
+     *             if the request fails or the GridDB API returns an error
+     */
+    public <T> List<T> select(GridDbCloudSQLStmt sqlStmt, GridDbRowDecoder<T> decoder) {
+        return decodeRows("/sql/dml/query", List.of(sqlStmt), "results", decoder);
+    }
+
+    /**
+     * Tells whether a row with {@code id} exists, selecting only the {@code id} column of at most one row.
+     *
+     * @throws GridDbException
+     *             if the request fails or the GridDB API returns an error
+     */
+    public boolean exists(String containerName, String id) {
+        if (id == null || missingIds.getIfPresent(missingKey(containerName, id)) != null) {
+            return false;
+        }
+        // @formatter:off
+        String stmt = """
+            SELECT id FROM %s WHERE id = '%s' LIMIT 1
+        """.formatted(containerName, sqlString(id));
+        // @formatter:on
+        boolean found = !select(new GridDbCloudSQLStmt(stmt), row -> row.nextString()).isEmpty();
+        if (!found) {
+            missingIds.put(missingKey(containerName, id), Boolean.TRUE);
+        }
+        return found;
+    }
+
+    /**
+     * Returns those of {@code ids} that exist in the container, in one id-only select. Ids found missing are
+     * remembered for {@code griddbcloud.existence.negative-ttl}, or until the next write to the container.
+     *
+     * @throws GridDbException
+     *             if the request fails or the GridDB API returns an error
+     */
+    public Set<String> findExistingIds(String containerName, Collection<String> ids) {
+        List<String> candidates = ids.stream()
+                .filter(id -> id != null && missingIds.getIfPresent(missingKey(containerName, id)) == null)
+                .distinct()
+                .toList();
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        String idList = candidates.stream().map(id -> "'" + sqlString(id) + "'").collect(Collectors.joining(", "));
+        // @formatter:off
+        String stmt = """
+            SELECT id FROM %s WHERE id IN (%s)
+        """.formatted(containerName, idList);
+        // @formatter:on
+        Set<String> existing = new HashSet<>(select(new GridDbCloudSQLStmt(stmt), row -> row.nextString()));
+        for (String id : candidates) {
+            if (!existing.contains(id)) {
+                missingIds.put(missingKey(containerName, id), Boolean.TRUE);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Escapes {@code value} for a single-quoted string literal in GridDB SQL or TQL, where a quote is written as two
+     * quotes and a backslash is an ordinary character.
+     */
+    public static String sqlString(String value) {
+        return value.replace("'", "''");
+    }
+
+    private static String missingKey(String containerName, String id) {
+        return containerName + '/' + id;
+    }
+
+    private void forgetMissingIds(String containerName) {
+        String prefix = containerName + '/';
+        missingIds.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * Starts a batch of SQL selects that are sent together in one {@code /sql/dml/query} request.
+     */
+    public GridDbSelectBatch selectBatch() {
+        return new GridDbSelectBatch(this);
+    }
+
+    List<List<?>> select(List<GridDbCloudSQLStmt> sqlStmts, List<GridDbRowDecoder<?>> decoders) {
+        return readResponse("/sql/dml/query", sqlStmts, parser -> GridDbRowReader.readResults(parser, decoders));
+    }
+
+    private <T> List<T> decodeRows(String uri, Object body, String rowsField, GridDbRowDecoder<T> decoder) {
+        return readResponse(uri, body, parser -> GridDbRowReader.readRows(parser, rowsField, decoder));
+    }
+
+    private <R> R readResponse(String uri, Object body, ResponseReader<R> reader) {
+        try {
+            return restClient.post().uri(uri).body(body).exchange((request, response) -> {
+                if (GridDbResponseErrors.isError(response.getStatusCode())) {
+                    throw GridDbResponseErrors.toException(response);
+                }
+                try (JsonParser parser = JSON_FACTORY.createParser(response.getBody())) {
+                    return reader.read(parser);
+                }
+            });
+        } catch (GridDbException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GridDbException(
+                    "Failed to decode rows from " + uri, HttpStatusCode.valueOf(500), e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseReader<R> {
+        R read(JsonParser parser) throws IOException;
+    }
+
     public SqlExecutionResult[] executeSqlDDL(List<GridDbCloudSQLStmt> sqlStmts) {
         try {
             ResponseEntity<SqlExecutionResult[]> responseEntity =
@@ -173,6 +493,8 @@ public class GridDbClient {
                     .body(sqlStmts)
                     .retrieve()
                     .toEntity(SQLUpdateResponse[].class);
+            // an INSERT may have added any id
+            missingIds.invalidateAll();
             return responseEntity.getBody();
         } catch (GridDbException e) {
             throw e;
@@ -181,4 +503,140 @@ public class GridDbClient {
                     "Failed to execute /sql/dml/update", HttpStatusCode.valueOf(500), e.getMessage(), e);
         }
     }
+
+    public CompletableFuture<Void> registerRowsAsync(String containerName, Object body) {
+        return supplyAsync(() -> {
+            registerRows(containerName, body);
+            return null;
+        });
+    }
+
+    public CompletableFuture<AcquireRowsResponse> acquireRowsAsync(
+            String containerName, AcquireRowsRequest requestBody) {
+        return supplyAsync(() -> acquireRows(containerName, requestBody));
+    }
+
+    public <T> CompletableFuture<Void> registerRowsAsync(
+            String containerName, Collection<? extends T> rows, GridDbRowEncoder<T> encoder) {
+        return supplyAsync(() -> {
+            registerRows(containerName, rows, encoder);
+            return null;
+        });
+    }
+
+    public <T> CompletableFuture<List<T>> acquireRowsAsync(
+            String containerName, AcquireRowsRequest requestBody, GridDbRowDecoder<T> decoder) {
+        return supplyAsync(() -> acquireRows(containerName, requestBody, decoder));
+    }
+
+    public CompletableFuture<SQLSelectResponse[]> selectAsync(List<GridDbCloudSQLStmt> sqlStmts) {
+        return supplyAsync(() -> select(sqlStmts));
+    }
+
+    public <T> CompletableFuture<List<T>> selectAsync(GridDbCloudSQLStmt sqlStmt, GridDbRowDecoder<T> decoder) {
+        return supplyAsync(() -> select(sqlStmt, decoder));
+    }
+
+    public CompletableFuture<SQLUpdateResponse[]> executeSQLUpdateAsync(List<GridDbCloudSQLStmt> sqlStmts) {
+        return supplyAsync(() -> executeSQLUpdate(sqlStmts));
+    }
+
+    /**
+     * Runs a blocking GridDB call on a virtual thread.
+     * <p>
+     * The returned future fails with the same {@link GridDbException} the blocking call would have thrown. It also
+     * fails with a {@link GridDbException} (status 504) once {@code griddbcloud.async-timeout} elapses. Cancelling
+     * the future, or letting it time out, interrupts the virtual thread, which aborts the HTTP exchange.
+     * </p>
+     *
+     * @param call
+     *            the blocking call, usually one of the methods of this client
+     * @return a future completed with the result of {@code call}
+     */
+    public <T> CompletableFuture<T> supplyAsync(final Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // carry the caller's request over so request-scoped state such as the GridDbIdentityMap is shared
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Future<?> task = executor.submit(() -> {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+        ScheduledFuture<?> timeout = TIMEOUTS.schedule(
+                () -> result.completeExceptionally(new GridDbException(
+                        "GridDB call timed out after " + asyncTimeout.toMillis() + "ms",
+                        HttpStatusCode.valueOf(504),
+                        null,
+                        new TimeoutException())),
+                asyncTimeout.toMillis(),
+                TimeUnit.MILLISECONDS);
+        result.whenComplete((value, error) -> {
+            // drops the timeout task, and with it the reference to the result, as soon as the call is done
+            timeout.cancel(false);
+            if (error != null) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Waits for a future returned by one of the {@code *Async} methods and rethrows its failure unwrapped, so
+     * callers keep catching {@link GridDbException} exactly as with the blocking methods.
+     */
+    public static <T> T await(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new GridDbException("GridDB async call failed", HttpStatusCode.valueOf(500), e.getMessage(), e);
+        }
+    }
+
+    private static final class PagingIterator<T> implements Iterator<T> {
+
+        private final Function<String, CompletableFuture<KeysetPage<T>>> fetch;
+        private CompletableFuture<KeysetPage<T>> pending;
+        private Iterator<T> current = Collections.emptyIterator();
+
+        PagingIterator(final Function<String, CompletableFuture<KeysetPage<T>>> fetch) {
+            this.fetch = fetch;
+            this.pending = fetch.apply(null);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (pending == null) {
+                    return false;
+                }
+                KeysetPage<T> page = await(pending);
+                pending = page.hasNext() ? fetch.apply(page.nextAfter()) : null;
+                current = page.content().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void close() {
+            if (pending != null) {
+                pending.cancel(true);
+                pending = null;
+            }
+        }
+    }
 }
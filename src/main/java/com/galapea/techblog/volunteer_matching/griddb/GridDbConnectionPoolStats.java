@@ -0,0 +1,22 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+
+/**
+ * Snapshot of the GridDB Cloud connection pool, used to size
+ * {@code griddbcloud.http.max-connections} and {@code griddbcloud.http.max-connections-per-route}.
+ */
+public record GridDbConnectionPoolStats(
+        int leased, int pending, int available, int maxTotal, int defaultMaxPerRoute) {
+
+    public static GridDbConnectionPoolStats of(final PoolingHttpClientConnectionManager connectionManager) {
+        PoolStats total = connectionManager.getTotalStats();
+        return new GridDbConnectionPoolStats(
+                total.getLeased(),
+                total.getPending(),
+                total.getAvailable(),
+                total.getMax(),
+                connectionManager.getDefaultMaxPerRoute());
+    }
+}
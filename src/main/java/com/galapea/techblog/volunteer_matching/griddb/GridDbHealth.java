@@ -0,0 +1,45 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import java.time.Instant;
+
+/**
+ * Result of the background GridDB Cloud probes, served by {@code /api/home/databaseHealth} without any I/O.
+ *
+ * @param up
+ *            whether the last probe succeeded, {@code null} before the first probe finished
+ * @param lastProbeAt
+ *            when the last probe finished
+ * @param lastLatencyMillis
+ *            round trip of the last probe
+ * @param averageLatencyMillis
+ *            mean round trip over the rolling window
+ * @param maxLatencyMillis
+ *            slowest round trip in the rolling window
+ * @param errorRate
+ *            share of failed probes in the rolling window, from {@code 0} to {@code 1}
+ * @param samples
+ *            number of probes in the rolling window
+ * @param lastError
+ *            message of the last failed probe in the window, or {@code null}
+ */
+public record GridDbHealth(
+        Boolean up,
+        Instant lastProbeAt,
+        long lastLatencyMillis,
+        double averageLatencyMillis,
+        long maxLatencyMillis,
+        double errorRate,
+        int samples,
+        String lastError) {
+
+    public static final GridDbHealth UNKNOWN = new GridDbHealth(null, null, 0L, 0.0, 0L, 0.0, 0, null);
+
+    public String describe() {
+        if (up == null) {
+            return "Checking database connections...";
+        }
+        return up
+                ? "Connected to GridDBCloud (" + lastLatencyMillis + " ms)"
+                : "Not connected to GridDBCloud";
+    }
+}
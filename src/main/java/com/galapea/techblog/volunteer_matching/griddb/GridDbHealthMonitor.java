@@ -0,0 +1,93 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Probes GridDB Cloud from one scheduled task and keeps a rolling window of the last
+ * {@code griddbcloud.health.window} probes.
+ * <p>
+ * Readers get the last published {@link GridDbHealth} snapshot, so a status request never touches GridDB, however
+ * many pages poll it.
+ * </p>
+ */
+@Component
+public class GridDbHealthMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GridDbHealthMonitor.class);
+
+    private final GridDbClient gridDbClient;
+    private final long[] latencies;
+    private final String[] errors;
+    private int next;
+    private int samples;
+    private volatile GridDbHealth health = GridDbHealth.UNKNOWN;
+
+    public GridDbHealthMonitor(
+            final GridDbClient gridDbClient, @Value("${griddbcloud.health.window:20}") final int window) {
+        this.gridDbClient = gridDbClient;
+        this.latencies = new long[Math.max(1, window)];
+        this.errors = new String[latencies.length];
+    }
+
+    public GridDbHealth health() {
+        return health;
+    }
+
+    @Scheduled(fixedDelayString = "${griddbcloud.health.probe-interval:15s}")
+    public void probe() {
+        long start = System.nanoTime();
+        String error = null;
+        try {
+            gridDbClient.ping();
+        } catch (Exception e) {
+            error = e.getMessage();
+        }
+        long latencyMillis = (System.nanoTime() - start) / 1_000_000;
+        GridDbHealth previous = health;
+        health = record(latencyMillis, error);
+        if (error != null && !Boolean.FALSE.equals(previous.up())) {
+            LOGGER.warn("GridDBCloud probe failed after {} ms: {}", latencyMillis, error);
+        } else if (error == null && Boolean.FALSE.equals(previous.up())) {
+            LOGGER.info("GridDBCloud reachable again ({} ms)", latencyMillis);
+        }
+    }
+
+    private synchronized GridDbHealth record(final long latencyMillis, final String error) {
+        latencies[next] = latencyMillis;
+        errors[next] = error;
+        int last = next;
+        next = (next + 1) % latencies.length;
+        samples = Math.min(samples + 1, latencies.length);
+
+        long total = 0;
+        long max = 0;
+        int failures = 0;
+        String lastError = null;
+        for (int i = 0; i < samples; i++) {
+            // walk from the newest sample backwards so lastError is the most recent one
+            int slot = Math.floorMod(last - i, latencies.length);
+            total += latencies[slot];
+            max = Math.max(max, latencies[slot]);
+            if (errors[slot] != null) {
+                failures++;
+                if (lastError == null) {
+                    lastError = errors[slot];
+                }
+            }
+        }
+        return new GridDbHealth(
+                error == null,
+                Instant.now(),
+                latencyMillis,
+                (double) total / samples,
+                max,
+                (double) failures / samples,
+                samples,
+                lastError);
+    }
+}
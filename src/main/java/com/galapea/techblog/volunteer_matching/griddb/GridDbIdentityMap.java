@@ -0,0 +1,108 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Identity map for one HTTP request: the first {@code get(id)} of an entity loads it from GridDB, later lookups of
+ * the same entity within the request get the already loaded DTO.
+ * <p>
+ * {@link GridDbIdentityMapFilter} opens the map as a request attribute, so it is shared by the virtual threads that
+ * {@link GridDbClient#supplyAsync} starts for the request. Concurrent lookups of the same entity wait for the one
+ * load in flight. Outside a request (scheduled tasks, event listeners) every lookup goes straight to GridDB. Only
+ * found entities are remembered, and services {@link #evict} an entity when they write it.
+ * </p>
+ */
+public final class GridDbIdentityMap {
+
+    private static final String ATTRIBUTE = GridDbIdentityMap.class.getName();
+
+    private final Map<Key, CompletableFuture<Object>> entities = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private record Key(Class<?> type, String id) {}
+
+    /**
+     * Returns the entity of {@code type} with {@code id} loaded earlier in this request, or calls {@code loader}.
+     * A {@code null} result or an exception of {@code loader} is passed on and not remembered.
+     */
+    public static <T> T lookup(final Class<T> type, final String id, final Supplier<T> loader) {
+        GridDbIdentityMap map = current();
+        return map != null && id != null ? map.get(type, id, loader) : loader.get();
+    }
+
+    /**
+     * Forgets the entity after a write, so the rest of the request reads it again.
+     */
+    public static void evict(final Class<?> type, final String id) {
+        GridDbIdentityMap map = current();
+        if (map != null && id != null) {
+            map.entities.remove(new Key(type, id));
+        }
+    }
+
+    public int hits() {
+        return hits.get();
+    }
+
+    public int loads() {
+        return loads.get();
+    }
+
+    private <T> T get(final Class<T> type, final String id, final Supplier<T> loader) {
+        Key key = new Key(type, id);
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> existing = entities.putIfAbsent(key, loading);
+        if (existing != null) {
+            Object entity = GridDbClient.await(existing);
+            if (entity != null) {
+                hits.incrementAndGet();
+                return type.cast(entity);
+            }
+            // the earlier load failed or found nothing, try on our own
+            return loader.get();
+        }
+        loads.incrementAndGet();
+        try {
+            T entity = loader.get();
+            if (entity == null) {
+                entities.remove(key, loading);
+            }
+            loading.complete(entity);
+            return entity;
+        } catch (RuntimeException e) {
+            entities.remove(key, loading);
+            loading.complete(null);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts an identity map for the current request. Called once per request by {@link GridDbIdentityMapFilter}.
+     */
+    static GridDbIdentityMap open(final HttpServletRequest request) {
+        GridDbIdentityMap map = new GridDbIdentityMap();
+        request.setAttribute(ATTRIBUTE, map);
+        return map;
+    }
+
+    private static GridDbIdentityMap current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        try {
+            return (GridDbIdentityMap) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        } catch (IllegalStateException e) {
+            // async work that outlived its request
+            return null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Opens a {@link GridDbIdentityMap} for every request and logs how many GridDB lookups it saved.
+ */
+@Component
+public class GridDbIdentityMapFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GridDbIdentityMapFilter.class);
+
+    @Override
+    protected void doFilterInternal(
+            final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
+            throws ServletException, IOException {
+        GridDbIdentityMap identityMap = GridDbIdentityMap.open(request);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (identityMap.hits() > 0 || identityMap.loads() > 0) {
+                LOGGER.debug(
+                        "{} {}: {} GridDB entity loads, {} saved by the identity map",
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        identityMap.loads(),
+                        identityMap.hits());
+            }
+        }
+    }
+}
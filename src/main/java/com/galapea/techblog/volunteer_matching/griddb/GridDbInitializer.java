@@ -1,6 +1,9 @@
 package com.galapea.techblog.volunteer_matching.griddb;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbCloudSQLStmt;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbColumn;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefinition;
 import com.galapea.techblog.volunteer_matching.opportunity.OpportunityDTO;
 import com.galapea.techblog.volunteer_matching.opportunity.OpportunityGridDBService;
 import com.galapea.techblog.volunteer_matching.opportunity_requirement.OpportunityRequirementDTO;
@@ -9,6 +12,7 @@ import com.galapea.techblog.volunteer_matching.organization.OrganizationDTO;
 import com.galapea.techblog.volunteer_matching.organization.OrganizationGridDBService;
 import com.galapea.techblog.volunteer_matching.organization_member.OrganizationMemberGridDBService;
 import com.galapea.techblog.volunteer_matching.registration.RegistrationGridDBService;
+import com.galapea.techblog.volunteer_matching.registration.SlotReservationService;
 import com.galapea.techblog.volunteer_matching.skill.SkillDTO;
 import com.galapea.techblog.volunteer_matching.skill.SkillGridDBService;
 import com.galapea.techblog.volunteer_matching.user.UserDTO;
@@ -17,19 +21,39 @@ import com.galapea.techblog.volunteer_matching.user.UserRole;
 import com.galapea.techblog.volunteer_matching.volunteer_skill.VolunteerSkillGridDBService;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
+/**
+ * Creates the GridDB containers and writes the demo data on startup.
+ * <p>
+ * All containers are created concurrently. The demo data is written with one {@code registerRows} call per
+ * container, and only when the {@code VoMaSchemaVersion} marker row is older than {@link #SEED_VERSION}, so a
+ * restart against an initialized database costs the container creation and a single select.
+ * </p>
+ */
 @Component
 public class GridDbInitializer implements CommandLineRunner {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GridDbInitializer.class);
 
+    /**
+     * Bump whenever the seed data below changes, so existing databases pick it up on their next start.
+     */
+    static final long SEED_VERSION = 1L;
+
+    private static final String VERSION_TBL_NAME = "VoMaSchemaVersion";
+    private static final String SEED_MARKER_ID = "seed";
+
+    private final GridDbClient gridDbClient;
     private final UserGridDBService userService;
     private final SkillGridDBService skillService;
     private final OrganizationGridDBService organizationService;
@@ -38,8 +62,10 @@ public class GridDbInitializer implements CommandLineRunner {
     private final OpportunityRequirementGridDBService opportunityRequirementService;
     private final RegistrationGridDBService registrationService;
     private final VolunteerSkillGridDBService volunteerSkillService;
+    private final SlotReservationService slotReservationService;
 
     public GridDbInitializer(
+            GridDbClient gridDbClient,
             UserGridDBService userService,
             SkillGridDBService skillService,
             OrganizationGridDBService organizationService,
@@ -47,7 +73,9 @@ public class GridDbInitializer implements CommandLineRunner {
             OpportunityGridDBService opportunityService,
             OpportunityRequirementGridDBService opportunityRequirementService,
             RegistrationGridDBService registrationService,
-            VolunteerSkillGridDBService volunteerSkillService) {
+            VolunteerSkillGridDBService volunteerSkillService,
+            SlotReservationService slotReservationService) {
+        this.gridDbClient = gridDbClient;
         this.userService = userService;
         this.skillService = skillService;
         this.organizationService = organizationService;
@@ -56,96 +84,149 @@ public class GridDbInitializer implements CommandLineRunner {
         this.opportunityRequirementService = opportunityRequirementService;
         this.registrationService = registrationService;
         this.volunteerSkillService = volunteerSkillService;
+        this.slotReservationService = slotReservationService;
     }
 
     @Override
     public void run(String... args) {
+        long start = System.nanoTime();
         LOGGER.info("Initializing GridDB containers via createTable() on services");
-        try {
-            userService.createTable();
-        } catch (Exception e) {
-            LOGGER.warn("createTable() failed for UserGridDBService", e);
-        }
+        createTables();
+        long tablesReady = System.nanoTime();
+        LOGGER.info("GridDB containers ready in {} ms", (tablesReady - start) / 1_000_000);
 
-        try {
-            skillService.createTable();
-        } catch (Exception e) {
-            LOGGER.warn("createTable() failed for SkillGridDBService", e);
+        long appliedVersion = readSeedVersion();
+        if (appliedVersion >= SEED_VERSION) {
+            LOGGER.info("Seed data version {} already applied, skipping seeding", appliedVersion);
+        } else if (seed()) {
+            writeSeedVersion();
+            LOGGER.info(
+                    "Seeded data version {} in {} ms", SEED_VERSION, (System.nanoTime() - tablesReady) / 1_000_000);
         }
 
-        try {
-            organizationService.createTable();
-        } catch (Exception e) {
-            LOGGER.warn("createTable() failed for OrganizationGridDBService", e);
-        }
+        LOGGER.info("GridDB initialization finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
 
-        try {
-            organizationMemberService.createTable();
-        } catch (Exception e) {
-            LOGGER.warn("createTable() failed for OrganizationMemberGridDBService", e);
-        }
+    private void createTables() {
+        Map<String, Runnable> tables = new LinkedHashMap<>();
+        tables.put("UserGridDBService", userService::createTable);
+        tables.put("SkillGridDBService", skillService::createTable);
+        tables.put("OrganizationGridDBService", organizationService::createTable);
+        tables.put("OrganizationMemberGridDBService", organizationMemberService::createTable);
+        tables.put("OpportunityGridDBService", opportunityService::createTable);
+        tables.put("OpportunityRequirementGridDBService", opportunityRequirementService::createTable);
+        tables.put("RegistrationGridDBService", registrationService::createTable);
+        tables.put("VolunteerSkillGridDBService", volunteerSkillService::createTable);
+        tables.put("SlotReservationService", slotReservationService::createTable);
+        tables.put(VERSION_TBL_NAME, this::createVersionTable);
 
-        try {
-            opportunityService.createTable();
-        } catch (Exception e) {
-            LOGGER.warn("createTable() failed for OpportunityGridDBService", e);
-        }
-
-        try {
-            opportunityRequirementService.createTable();
-        } catch (Exception e) {
-            LOGGER.warn("createTable() failed for OpportunityRequirementGridDBService", e);
-        }
+        List<CompletableFuture<Boolean>> created = new ArrayList<>();
+        tables.forEach((name, createTable) -> created.add(runAsync("createTable() failed for " + name, createTable)));
+        created.forEach(CompletableFuture::join);
+    }
 
-        try {
-            registrationService.createTable();
-        } catch (Exception e) {
-            LOGGER.warn("createTable() failed for RegistrationGridDBService", e);
-        }
+    /**
+     * Writes the demo data, one request per container, all containers at once.
+     *
+     * @return whether every write succeeded
+     */
+    private boolean seed() {
+        List<SkillDTO> skills = loadSkills();
 
-        try {
-            volunteerSkillService.createTable();
-        } catch (Exception e) {
-            LOGGER.warn("createTable() failed for VolunteerSkillGridDBService", e);
-        }
-        // Seed one user, one organization and healthcare-related skills
         UserDTO seededUser = new UserDTO();
         seededUser.setId("usr_0njm1smprjsvq");
         seededUser.setEmail("admin@health.example");
         seededUser.setFullName("Health Admin");
         seededUser.setRole(UserRole.ORGANIZER);
-        String seededUserId = userService.create(seededUser);
-        LOGGER.info("Seeded user id={}", seededUserId);
-
-        OrganizationDTO seededOrg = new OrganizationDTO();
-        seededOrg.setId("org_0njm1sn84jv58");
-        seededOrg.setName("Example Health Clinic");
-        seededOrg.setWebsiteUrl("https://www.examplehealth.org");
-        seededOrg.setAdminUserId(seededUserId);
-        String seededOrgId = organizationService.create(seededOrg);
-        LOGGER.info("Seeded organization id={}", seededOrgId);
 
         UserDTO memberUser = new UserDTO();
         memberUser.setId("usr_0njfreferfe");
         memberUser.setEmail("user1@member.com");
         memberUser.setFullName("Member User");
         memberUser.setRole(UserRole.VOLUNTEER);
-        String memberUserId = userService.create(memberUser);
-        LOGGER.info("Seeded member user id={}", memberUserId);
 
-        seedSkills();
-        seedOpportunities();
-        seedSecondOrg();
+        UserDTO secondOrgUser = new UserDTO();
+        secondOrgUser.setId("usr_0adminvitacomp");
+        secondOrgUser.setEmail("admin@vitacomp.com");
+        secondOrgUser.setFullName("Admin vitacomp");
+        secondOrgUser.setRole(UserRole.ORGANIZER);
 
-        LOGGER.info("GridDB initialization finished");
+        OrganizationDTO seededOrg = new OrganizationDTO();
+        seededOrg.setId("org_0njm1sn84jv58");
+        seededOrg.setName("Example Health Clinic");
+        seededOrg.setWebsiteUrl("https://www.examplehealth.org");
+        seededOrg.setAdminUserId(seededUser.getId());
+
+        OrganizationDTO secondOrg = new OrganizationDTO();
+        secondOrg.setId("org_0v1t4comp2");
+        secondOrg.setName("Vitamins Company");
+        secondOrg.setWebsiteUrl("https://www.vitacomp.com");
+        secondOrg.setAdminUserId(secondOrgUser.getId());
+
+        // Opportunity 1: No requirements
+        OpportunityDTO opportunity1 = new OpportunityDTO();
+        opportunity1.setId("opp_0njm1smprjsvq01");
+        opportunity1.setTitle("Community Health Screening");
+        opportunity1.setDescription("Assist with general health screening and patient registration");
+        opportunity1.setAddress("123 Health Street, Medical City");
+        opportunity1.setOrgId(seededOrg.getId());
+        opportunity1.setSlotsTotal(10L);
+
+        // Opportunity 2: With skill requirements
+        OpportunityDTO opportunity2 = new OpportunityDTO();
+        opportunity2.setId("opp_0njm1smprjsvq02");
+        opportunity2.setTitle("Advanced Medical Support");
+        opportunity2.setDescription("Provide advanced medical support requiring specific healthcare skills");
+        opportunity2.setAddress("456 Clinical Avenue, Medical City");
+        opportunity2.setOrgId(seededOrg.getId());
+        opportunity2.setSlotsTotal(5L);
+
+        OpportunityDTO opportunity3 = new OpportunityDTO();
+        opportunity3.setId("opp_0vitacompggg01");
+        opportunity3.setTitle("Vitamin Screening Drive");
+        opportunity3.setDescription("Assist with vitamin deficiency screening and consultation");
+        opportunity3.setAddress("789 Wellness Blvd, Health City");
+        opportunity3.setOrgId(secondOrg.getId());
+        opportunity3.setSlotsTotal(50L);
+
+        // First two skills are mandatory for opportunity 2, the third one is optional
+        List<OpportunityRequirementDTO> requirements = new ArrayList<>();
+        for (int i = 0; i < Math.min(3, skills.size()); i++) {
+            OpportunityRequirementDTO requirement = new OpportunityRequirementDTO();
+            requirement.setOpportunityId(opportunity2.getId());
+            requirement.setSkillId(skills.get(i).getId());
+            requirement.setIsMandatory(i < 2);
+            requirements.add(requirement);
+        }
+
+        List<UserDTO> users = List.of(seededUser, memberUser, secondOrgUser);
+        List<OrganizationDTO> organizations = List.of(seededOrg, secondOrg);
+        List<OpportunityDTO> opportunities = List.of(opportunity1, opportunity2, opportunity3);
+        List<CompletableFuture<Boolean>> writes = List.of(
+                runAsync("Seeding users failed", () -> userService.createMultiple(users)),
+                runAsync("Seeding organizations failed", () -> organizationService.createMultiple(organizations)),
+                runAsync("Seeding healthcare skills failed", () -> skillService.createMultiple(skills)),
+                runAsync("Seeding opportunities failed", () -> opportunityService.createMultiple(opportunities)),
+                runAsync(
+                        "Seeding opportunity requirements failed",
+                        () -> opportunityRequirementService.createMultiple(requirements)));
+        boolean seeded = writes.stream().map(CompletableFuture::join).reduce(true, Boolean::logicalAnd);
+        LOGGER.info(
+                "Seeded {} users, {} organizations, {} skills, {} opportunities and {} requirements",
+                users.size(),
+                organizations.size(),
+                skills.size(),
+                opportunities.size(),
+                requirements.size());
+        return seeded && !skills.isEmpty();
     }
 
-    private void seedSkills() {
-        try {
-            // Load healthcare skills from JSON file
+    /**
+     * Reads the healthcare skills from {@code skills.json}.
+     */
+    private List<SkillDTO> loadSkills() {
+        try (InputStream inputStream = new ClassPathResource("skills.json").getInputStream()) {
             ObjectMapper mapper = new ObjectMapper();
-            ClassPathResource resource = new ClassPathResource("skills.json");
-            InputStream inputStream = resource.getInputStream();
             @SuppressWarnings("unchecked")
             Map<String, Object> data = mapper.readValue(inputStream, Map.class);
             @SuppressWarnings("unchecked")
@@ -153,128 +234,66 @@ public class GridDbInitializer implements CommandLineRunner {
 
             if (healthcareSkillsList == null || healthcareSkillsList.isEmpty()) {
                 LOGGER.warn("No healthcare skills found in skills.json");
-                return;
-            }
-
-            if (skillService
-                    .getOneByName(healthcareSkillsList.get(0).get("name"))
-                    .isPresent()) {
-                LOGGER.info("Healthcare skills already seeded, skipping seeding process");
-                return;
+                return List.of();
             }
-
             List<SkillDTO> skillDTOs = new ArrayList<>();
             for (Map<String, String> skillMap : healthcareSkillsList) {
-                try {
-                    SkillDTO sd = new SkillDTO();
-                    sd.setId(skillMap.get("id"));
-                    sd.setName(skillMap.get("name"));
-                    skillDTOs.add(sd);
-                } catch (Exception e) {
-                    LOGGER.warn("Failed to seed skill: {}", skillMap.get("name"), e);
-                }
+                SkillDTO sd = new SkillDTO();
+                sd.setId(skillMap.get("id"));
+                sd.setName(skillMap.get("name"));
+                skillDTOs.add(sd);
             }
-            skillService.createMultiple(skillDTOs);
-            LOGGER.info("Seeded {} healthcare skills", skillDTOs.size());
+            return skillDTOs;
         } catch (Exception e) {
-            LOGGER.warn("Seeding healthcare skills failed", e);
+            LOGGER.warn("Loading healthcare skills failed", e);
+            return List.of();
         }
     }
 
-    private void seedOpportunities() {
-        try {
-            // Opportunity 1: No requirements
-            OpportunityDTO opportunity1 = new OpportunityDTO();
-            opportunity1.setId("opp_0njm1smprjsvq01");
-            opportunity1.setTitle("Community Health Screening");
-            opportunity1.setDescription("Assist with general health screening and patient registration");
-            opportunity1.setAddress("123 Health Street, Medical City");
-            opportunity1.setOrgId("org_0njm1sn84jv58");
-            opportunity1.setSlotsTotal(10L);
-            opportunityService.create(opportunity1);
-            LOGGER.info("Seeded opportunity without requirements: id={}", opportunity1.getId());
-
-            // Opportunity 2: With skill requirements
-            OpportunityDTO opportunity2 = new OpportunityDTO();
-            opportunity2.setId("opp_0njm1smprjsvq02");
-            opportunity2.setTitle("Advanced Medical Support");
-            opportunity2.setDescription("Provide advanced medical support requiring specific healthcare skills");
-            opportunity2.setAddress("456 Clinical Avenue, Medical City");
-            opportunity2.setOrgId("org_0njm1sn84jv58");
-            opportunity2.setSlotsTotal(5L);
-            String opp2Id = opportunityService.create(opportunity2);
-            LOGGER.info("Seeded opportunity with requirements: id={}", opp2Id);
-
-            // Add skill requirements to opportunity 2
-            try {
-                ObjectMapper mapper = new ObjectMapper();
-                ClassPathResource resource = new ClassPathResource("skills.json");
-                InputStream inputStream = resource.getInputStream();
-                @SuppressWarnings("unchecked")
-                Map<String, Object> data = mapper.readValue(inputStream, Map.class);
-                @SuppressWarnings("unchecked")
-                List<Map<String, String>> healthcareSkillsList =
-                        (List<Map<String, String>>) data.get("healthcareSkills");
+    private void createVersionTable() {
+        List<GridDbColumn> columns =
+                List.of(new GridDbColumn("id", "STRING", Set.of("TREE")), new GridDbColumn("version", "LONG"));
+        gridDbClient.createContainer(GridDbContainerDefinition.build(VERSION_TBL_NAME, columns));
+    }
 
-                if (healthcareSkillsList != null && !healthcareSkillsList.isEmpty()) {
-                    // Add first two skills as mandatory requirements
-                    for (int i = 0; i < Math.min(2, healthcareSkillsList.size()); i++) {
-                        OpportunityRequirementDTO requirement = new OpportunityRequirementDTO();
-                        requirement.setOpportunityId(opp2Id);
-                        requirement.setSkillId(healthcareSkillsList.get(i).get("id"));
-                        requirement.setIsMandatory(true);
-                        opportunityRequirementService.create(requirement);
-                        LOGGER.info(
-                                "Added requirement to opportunity: skill={}",
-                                healthcareSkillsList.get(i).get("name"));
-                    }
-                    // Add next skill as optional
-                    if (healthcareSkillsList.size() > 2) {
-                        OpportunityRequirementDTO optionalRequirement = new OpportunityRequirementDTO();
-                        optionalRequirement.setOpportunityId(opp2Id);
-                        optionalRequirement.setSkillId(
-                                healthcareSkillsList.get(2).get("id"));
-                        optionalRequirement.setIsMandatory(false);
-                        opportunityRequirementService.create(optionalRequirement);
-                        LOGGER.info(
-                                "Added optional requirement to opportunity: skill={}",
-                                healthcareSkillsList.get(2).get("name"));
-                    }
-                }
-            } catch (Exception e) {
-                LOGGER.warn("Failed to add skill requirements to opportunity", e);
-            }
+    /**
+     * @return the applied seed version, or {@code 0} if there is none or it cannot be read
+     */
+    private long readSeedVersion() {
+        String stmt =
+                "SELECT version FROM " + VERSION_TBL_NAME + " WHERE id = '" + SEED_MARKER_ID + "' LIMIT 1";
+        try {
+            return gridDbClient.select(new GridDbCloudSQLStmt(stmt), row -> row.nextLong()).stream()
+                    .findFirst()
+                    .orElse(0L);
         } catch (Exception e) {
-            LOGGER.warn("Seeding opportunities failed", e);
+            LOGGER.warn("Reading the seed version failed, seeding again", e);
+            return 0L;
         }
     }
 
-    private void seedSecondOrg() {
-        UserDTO seededUser = new UserDTO();
-        seededUser.setId("usr_0adminvitacomp");
-        seededUser.setEmail("admin@vitacomp.com");
-        seededUser.setFullName("Admin vitacomp");
-        seededUser.setRole(UserRole.ORGANIZER);
-        String seededUserId = userService.create(seededUser);
-        LOGGER.info("Seeded user id={}", seededUserId);
-
-        OrganizationDTO seededOrg = new OrganizationDTO();
-        seededOrg.setId("org_0v1t4comp2");
-        seededOrg.setName("Vitamins Company");
-        seededOrg.setWebsiteUrl("https://www.vitacomp.com");
-        seededOrg.setAdminUserId(seededUserId);
-        String seededOrgId = organizationService.create(seededOrg);
-        LOGGER.info("Seeded organization id={}", seededOrgId);
+    private void writeSeedVersion() {
+        try {
+            gridDbClient.registerRows(VERSION_TBL_NAME, List.of(List.of(SEED_MARKER_ID, SEED_VERSION)));
+        } catch (Exception e) {
+            LOGGER.warn("Recording seed version {} failed", SEED_VERSION, e);
+        }
+    }
 
-        // Opportunity 1: No requirements
-        OpportunityDTO opportunity1 = new OpportunityDTO();
-        opportunity1.setId("opp_0vitacompggg01");
-        opportunity1.setTitle("Vitamin Screening Drive");
-        opportunity1.setDescription("Assist with vitamin deficiency screening and consultation");
-        opportunity1.setAddress("789 Wellness Blvd, Health City");
-        opportunity1.setOrgId(seededOrgId);
-        opportunity1.setSlotsTotal(50L);
-        opportunityService.create(opportunity1);
-        LOGGER.info("Seeded opportunity without requirements: id={}", opportunity1.getId());
+    /**
+     * Runs {@code task} on a virtual thread, logging a failure with {@code failureMessage} instead of passing it on.
+     *
+     * @return a future completed with whether {@code task} succeeded
+     */
+    private CompletableFuture<Boolean> runAsync(final String failureMessage, final Runnable task) {
+        return gridDbClient
+                .supplyAsync(() -> {
+                    task.run();
+                    return true;
+                })
+                .exceptionally(e -> {
+                    LOGGER.warn(failureMessage, e);
+                    return false;
+                });
     }
 }
@@ -0,0 +1,288 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records every GridDB Cloud request in Micrometer, tagged by HTTP method, logical operation, container and status:
+ * <ul>
+ * <li>{@code griddb.client.requests}: time from sending the request until its response body is closed, with
+ * p50/p95/p99 and max</li>
+ * <li>{@code griddb.client.request.size} and {@code griddb.client.response.size}: bytes on the wire</li>
+ * <li>{@code griddb.client.errors}: responses with an error status and requests that failed with an I/O error</li>
+ * </ul>
+ * The container is taken from the URI for row and container requests and from the statements for SQL requests.
+ * A batch that touches several containers is tagged {@code multiple}, and a name that is not one of the app's
+ * {@link #CONTAINERS} is tagged {@code other}, so the tag values stay fixed. Each request is also added to the
+ * {@link GridDbCallCounter} of the HTTP request that caused it, if any.
+ */
+@Component
+public class GridDbRequestMetrics implements ClientHttpRequestInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GridDbRequestMetrics.class);
+
+    private static final Pattern ROWS_PATH = Pattern.compile("/containers/([^/]+)/rows$");
+    private static final Pattern CONTAINER_NAME = Pattern.compile("\"container_name\"\\s*:\\s*\"(\\w+)\"");
+    private static final Pattern SQL_TABLE =
+            Pattern.compile("\\b(?:FROM|INTO|UPDATE|JOIN)\\s+(?:\\\\?\")?(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final String NONE = "none";
+    private static final String OTHER = "other";
+
+    /**
+     * The containers the app creates; anything else in a URI or statement, including text in an SQL literal, counts
+     * as {@code other}.
+     */
+    static final Set<String> CONTAINERS = Set.of(
+            "VoMaUsers",
+            "VoMaSkills",
+            "VoMaOrganizations",
+            "VoMaOrganizationMembers",
+            "VoMaOpportunities",
+            "VoMaOpportunityRequirements",
+            "VoMaRegistrations",
+            "VoMaVolunteerSkills",
+            "VoMaOpportunitySlots",
+            "VoMaSchemaVersion");
+
+    private final MeterRegistry meterRegistry;
+
+    public GridDbRequestMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    @NonNull
+    public ClientHttpResponse intercept(
+            @NonNull final HttpRequest request,
+            @NonNull final byte[] body,
+            @NonNull final ClientHttpRequestExecution execution)
+            throws IOException {
+        String path = request.getURI().getPath();
+        Tags tags = Tags.of("method", request.getMethod().name())
+                .and("operation", operation(request, path))
+                .and("container", container(path, body));
+        GridDbCallCounter counter = GridDbCallCounter.current();
+        if (counter != null) {
+            counter.recordCall(body.length);
+        }
+        long begin = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException e) {
+            Tags failed = tags.and("status", "IO_ERROR");
+            timer(failed).record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+            Counter.builder("griddb.client.errors").tags(failed).register(meterRegistry).increment();
+            throw e;
+        }
+        int status = response.getStatusCode().value();
+        LOGGER.info(
+                "[GridDbRestClientRequest] {} {} {} duration={}ms",
+                request.getMethod(),
+                request.getURI(),
+                status,
+                (System.nanoTime() - begin) / 1_000_000);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(
+                    "[GridDbRestClientRequest] Body: {}",
+                    body.length > 0 ? new String(body, StandardCharsets.UTF_8) : "<no-body>");
+        }
+        Tags completed = tags.and("status", Integer.toString(status));
+        DistributionSummary.builder("griddb.client.request.size")
+                .baseUnit("bytes")
+                .tags(completed)
+                .register(meterRegistry)
+                .record(body.length);
+        if (response.getStatusCode().isError()) {
+            Counter.builder("griddb.client.errors").tags(completed).register(meterRegistry).increment();
+        }
+        return new MeteredResponse(response, completed, begin, counter);
+    }
+
+    private Timer timer(final Tags tags) {
+        return Timer.builder("griddb.client.requests")
+                .description("GridDB Cloud Web API round trips, including reading the response body")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    static String operation(final HttpRequest request, final String path) {
+        if (ROWS_PATH.matcher(path).find()) {
+            return "PUT".equals(request.getMethod().name()) ? "rows.register" : "rows.acquire";
+        }
+        if (path.endsWith("/containers")) {
+            return "container.create";
+        }
+        if (path.endsWith("/sql/dml/query")) {
+            return "sql.query";
+        }
+        if (path.endsWith("/sql/dml/update")) {
+            return "sql.update";
+        }
+        if (path.endsWith("/sql/ddl")) {
+            return "sql.ddl";
+        }
+        if (path.endsWith("/checkConnection")) {
+            return "ping";
+        }
+        return "other";
+    }
+
+    static String container(final String path, final byte[] body) {
+        Matcher rows = ROWS_PATH.matcher(path);
+        if (rows.find()) {
+            return known(rows.group(1));
+        }
+        String json = new String(body, StandardCharsets.UTF_8);
+        Matcher definition = CONTAINER_NAME.matcher(json);
+        if (definition.find()) {
+            return known(definition.group(1));
+        }
+        Set<String> tables = new LinkedHashSet<>();
+        boolean unknown = false;
+        Matcher sql = SQL_TABLE.matcher(json);
+        while (sql.find()) {
+            if (CONTAINERS.contains(sql.group(1))) {
+                tables.add(sql.group(1));
+            } else {
+                unknown = true;
+            }
+        }
+        return switch (tables.size()) {
+            case 0 -> unknown ? OTHER : NONE;
+            case 1 -> tables.iterator().next();
+            default -> "multiple";
+        };
+    }
+
+    private static String known(final String container) {
+        return CONTAINERS.contains(container) ? container : OTHER;
+    }
+
+    /**
+     * Counts the bytes read from the response body and stops the timer when the response is closed, which
+     * {@code RestClient} does once the body has been decoded.
+     */
+    private final class MeteredResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Tags tags;
+        private final long begin;
+        private final GridDbCallCounter counter;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private long bytesRead;
+        private InputStream body;
+
+        MeteredResponse(
+                final ClientHttpResponse delegate,
+                final Tags tags,
+                final long begin,
+                final GridDbCallCounter counter) {
+            this.delegate = delegate;
+            this.tags = tags;
+            this.begin = begin;
+            this.counter = counter;
+        }
+
+        @Override
+        @NonNull
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        @NonNull
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        @NonNull
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        @NonNull
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterInputStream(delegate.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        int b = super.read();
+                        if (b >= 0) {
+                            bytesRead++;
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+                        int n = super.read(buffer, offset, length);
+                        if (n > 0) {
+                            bytesRead += n;
+                        }
+                        return n;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            record();
+                        }
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                record();
+            }
+        }
+
+        private void record() {
+            if (recorded.compareAndSet(false, true)) {
+                timer(tags).record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+                DistributionSummary.builder("griddb.client.response.size")
+                        .baseUnit("bytes")
+                        .tags(tags)
+                        .register(meterRegistry)
+                        .record(bytesRead);
+                if (counter != null) {
+                    counter.recordResponse(bytesRead);
+                }
+            }
+        }
+    }
+}
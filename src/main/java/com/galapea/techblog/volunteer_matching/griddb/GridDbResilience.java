@@ -0,0 +1,374 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Keeps a slow or failing GridDB Cloud from tying up every request thread:
+ * <ul>
+ * <li>a circuit breaker each for reads (row acquisition, SQL queries) and writes, which fails calls fast with a 503
+ * {@link GridDbException} while GridDB Cloud keeps failing or answering slower than
+ * {@code griddbcloud.resilience.slow-call-threshold}</li>
+ * <li>a bulkhead of {@code griddbcloud.resilience.max-concurrent-calls} calls in flight, beyond which a call waits at
+ * most {@code griddbcloud.resilience.max-wait} and then fails, so that pages which don't need GridDB stay
+ * responsive</li>
+ * <li>optionally, with {@code griddbcloud.resilience.stale-reads}, the last successful response of each read is kept
+ * and answered again, marked with {@code X-GridDB-Stale}, while the read circuit is open</li>
+ * </ul>
+ * {@code /checkConnection} bypasses all of them, so that {@link GridDbHealthMonitor} keeps seeing the real service, and
+ * so do the compensating writes made through {@link #exempt}.
+ * The state of each circuit is published as the {@code griddb.client.circuit.state} gauge (0 closed, 1 open,
+ * 2 half-open); refused calls are counted in {@code griddb.client.rejected}.
+ */
+@Component
+public class GridDbResilience implements ClientHttpRequestInterceptor {
+
+    public static final String STALE_HEADER = "X-GridDB-Stale";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GridDbResilience.class);
+
+    private static final ThreadLocal<Boolean> EXEMPT = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final GridDbCircuitBreaker reads;
+    private final GridDbCircuitBreaker writes;
+    private final Semaphore bulkhead;
+    private final long maxWaitNanos;
+    private final long slowCallNanos;
+    private final Cache<String, byte[]> staleResponses;
+    private final long staleMaxEntryBytes;
+    private final MeterRegistry meterRegistry;
+
+    public GridDbResilience(
+            final MeterRegistry meterRegistry,
+            @Value("${griddbcloud.resilience.window:20}") final int window,
+            @Value("${griddbcloud.resilience.minimum-calls:10}") final int minimumCalls,
+            @Value("${griddbcloud.resilience.failure-rate-threshold:0.5}") final double failureRateThreshold,
+            @Value("${griddbcloud.resilience.slow-call-threshold:5s}") final Duration slowCallThreshold,
+            @Value("${griddbcloud.resilience.open-duration:30s}") final Duration openDuration,
+            @Value("${griddbcloud.resilience.max-concurrent-calls:20}") final int maxConcurrentCalls,
+            @Value("${griddbcloud.resilience.max-wait:250ms}") final Duration maxWait,
+            @Value("${griddbcloud.resilience.stale-reads:false}") final boolean staleReads,
+            @Value("${griddbcloud.resilience.stale-max-size:16MB}") final DataSize staleMaxSize,
+            @Value("${griddbcloud.resilience.stale-max-entry-size:1MB}") final DataSize staleMaxEntrySize) {
+        this.meterRegistry = meterRegistry;
+        this.reads = circuit("read", window, minimumCalls, failureRateThreshold, openDuration);
+        this.writes = circuit("write", window, minimumCalls, failureRateThreshold, openDuration);
+        this.bulkhead = new Semaphore(Math.max(1, maxConcurrentCalls), true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.staleResponses = staleReads
+                ? Caffeine.newBuilder()
+                        .maximumWeight(staleMaxSize.toBytes())
+                        .<String, byte[]>weigher((key, body) -> key.length() + body.length)
+                        .build()
+                : null;
+        this.staleMaxEntryBytes = staleMaxEntrySize.toBytes();
+        Gauge.builder("griddb.client.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("GridDB Cloud calls that may still start without waiting")
+                .register(meterRegistry);
+    }
+
+    private GridDbCircuitBreaker circuit(
+            final String name,
+            final int window,
+            final int minimumCalls,
+            final double failureRateThreshold,
+            final Duration openDuration) {
+        GridDbCircuitBreaker circuit =
+                new GridDbCircuitBreaker(name, window, minimumCalls, failureRateThreshold, openDuration.toNanos());
+        Gauge.builder("griddb.client.circuit.state", circuit, c -> c.state().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .tag("circuit", name)
+                .register(meterRegistry);
+        return circuit;
+    }
+
+    /**
+     * Runs {@code action} with its GridDB Cloud calls exempt from the circuits and the bulkhead. Meant for writes that
+     * undo an earlier one, such as giving back a reserved slot after storing the registration failed: they are needed
+     * most exactly when GridDB Cloud is failing, and refusing them would leave the earlier write in place.
+     */
+    public static void exempt(final Runnable action) {
+        boolean outer = EXEMPT.get();
+        EXEMPT.set(Boolean.TRUE);
+        try {
+            action.run();
+        } finally {
+            if (!outer) {
+                EXEMPT.remove();
+            }
+        }
+    }
+
+    @Override
+    @NonNull
+    public ClientHttpResponse intercept(
+            @NonNull final HttpRequest request,
+            @NonNull final byte[] body,
+            @NonNull final ClientHttpRequestExecution execution)
+            throws IOException {
+        String operation = GridDbRequestMetrics.operation(request, request.getURI().getPath());
+        if ("ping".equals(operation) || EXEMPT.get()) {
+            return execution.execute(request, body);
+        }
+        boolean read = "rows.acquire".equals(operation) || "sql.query".equals(operation);
+        GridDbCircuitBreaker circuit = read ? reads : writes;
+        String staleKey = read && staleResponses != null ? staleKey(request, body) : null;
+        if (!circuit.tryAcquire()) {
+            byte[] stale = staleKey != null ? staleResponses.getIfPresent(staleKey) : null;
+            if (stale != null) {
+                rejected(circuit, "stale");
+                LOGGER.debug("GridDB read circuit is open, answering {} with its last response", request.getURI());
+                return new StaleResponse(stale);
+            }
+            rejected(circuit, "circuit_open");
+            throw new GridDbException(
+                    "GridDB Cloud " + circuit.name() + " circuit is open", HttpStatus.SERVICE_UNAVAILABLE, null);
+        }
+        try {
+            if (!bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                circuit.release();
+                rejected(circuit, "bulkhead_full");
+                throw new GridDbException(
+                        "Too many concurrent GridDB Cloud calls", HttpStatus.SERVICE_UNAVAILABLE, null);
+            }
+        } catch (InterruptedException e) {
+            circuit.release();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a GridDB Cloud call slot", e);
+        }
+        long begin = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            bulkhead.release();
+            circuit.record(true);
+            throw e;
+        }
+        int status;
+        try {
+            status = response.getStatusCode().value();
+        } catch (IOException | RuntimeException e) {
+            try {
+                response.close();
+            } finally {
+                bulkhead.release();
+                circuit.record(true);
+            }
+            throw e;
+        }
+        circuit.record(status >= 500 || status == 429 || System.nanoTime() - begin > slowCallNanos);
+        boolean cache = staleKey != null && status >= 200 && status < 300;
+        return new GuardedResponse(response, cache ? staleKey : null);
+    }
+
+    private void rejected(final GridDbCircuitBreaker circuit, final String reason) {
+        Counter.builder("griddb.client.rejected")
+                .description("GridDB Cloud calls that were not made; stale ones were answered from the last response")
+                .tag("circuit", circuit.name())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String staleKey(final HttpRequest request, final byte[] body) {
+        return request.getMethod().name() + ' ' + request.getURI() + '\n' + new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Frees the bulkhead slot once the response is closed, and remembers the body of a successful read for
+     * {@link StaleResponse}.
+     */
+    private final class GuardedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final String staleKey;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private InputStream body;
+
+        GuardedResponse(final ClientHttpResponse delegate, final String staleKey) {
+            this.delegate = delegate;
+            this.staleKey = staleKey;
+        }
+
+        @Override
+        @NonNull
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        @NonNull
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        @NonNull
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        @NonNull
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = staleKey == null ? delegate.getBody() : new CopyingInputStream(delegate.getBody(), staleKey);
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (body instanceof CopyingInputStream copying) {
+                    copying.finish();
+                }
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    bulkhead.release();
+                }
+            }
+        }
+    }
+
+    private final class CopyingInputStream extends FilterInputStream {
+
+        private final String staleKey;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        CopyingInputStream(final InputStream in, final String staleKey) {
+            super(in);
+            this.staleKey = staleKey;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                copy(new byte[] {(byte) b}, 0, 1);
+            } else {
+                complete();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                copy(buffer, offset, n);
+            } else if (n < 0) {
+                complete();
+            }
+            return n;
+        }
+
+        private void copy(final byte[] buffer, final int offset, final int length) {
+            if (copy == null) {
+                return;
+            }
+            if (copy.size() + length > staleMaxEntryBytes) {
+                copy = null;
+                return;
+            }
+            copy.write(buffer, offset, length);
+        }
+
+        /**
+         * Reads what the decoder left unread, usually just trailing whitespace, so that the copy is complete.
+         */
+        void finish() {
+            if (copy == null) {
+                return;
+            }
+            byte[] buffer = new byte[8192];
+            try {
+                while (copy != null && read(buffer, 0, buffer.length) >= 0) {
+                    // copied by read
+                }
+            } catch (IOException e) {
+                copy = null;
+            }
+        }
+
+        private void complete() {
+            if (copy != null) {
+                staleResponses.put(staleKey, copy.toByteArray());
+                copy = null;
+            }
+        }
+    }
+
+    /**
+     * The remembered body of an earlier successful read, answered while the read circuit is open.
+     */
+    private static final class StaleResponse implements ClientHttpResponse {
+
+        private final byte[] body;
+
+        StaleResponse(final byte[] body) {
+            this.body = body;
+        }
+
+        @Override
+        @NonNull
+        public HttpStatusCode getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        @NonNull
+        public String getStatusText() {
+            return HttpStatus.OK.getReasonPhrase();
+        }
+
+        @Override
+        @NonNull
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+            headers.set(STALE_HEADER, "true");
+            return headers;
+        }
+
+        @Override
+        @NonNull
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {}
+    }
+}
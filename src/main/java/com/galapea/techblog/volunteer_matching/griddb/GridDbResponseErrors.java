@@ -0,0 +1,48 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import com.galapea.techblog.volunteer_matching.ForbiddenGridDbConnectionException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Translates an error response of the GridDB Cloud Web API into the exception callers of {@link GridDbClient}
+ * handle. Shared by the {@code GridDbRestClient} status handler and the streaming calls, which read the response
+ * themselves.
+ */
+public final class GridDbResponseErrors {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GridDbResponseErrors.class);
+
+    private GridDbResponseErrors() {}
+
+    public static boolean isError(final HttpStatusCode status) {
+        return status.is4xxClientError() || status.is5xxServerError();
+    }
+
+    public static RuntimeException toException(final ClientHttpResponse response) throws IOException {
+        String responseBody = getResponseBody(response);
+        LOGGER.error("GridDB API error: status={} body={}", response.getStatusCode(), responseBody);
+        if (response.getStatusCode().value() == 403) {
+            LOGGER.error("Access forbidden - please check your auth token and permissions.");
+            return new ForbiddenGridDbConnectionException("Access forbidden to GridDB Cloud API.");
+        }
+        return new GridDbException("GridDB API error: ", response.getStatusCode(), responseBody);
+    }
+
+    private static String getResponseBody(final ClientHttpResponse response) {
+        try (InputStream in = response.getBody()) {
+            byte[] bytes = in.readAllBytes();
+            if (bytes.length == 0) {
+                return "<empty>";
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "<error-reading-body: " + e.getMessage() + ">";
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import java.io.IOException;
+
+/**
+ * Maps one row of a GridDB Cloud response into a typed object while the response is being parsed.
+ * <p>
+ * Implementations read the columns in container (or {@code SELECT}) order through the {@link GridDbRowReader}. Each
+ * service declares its decoder as a {@code ROW_DECODER} constant next to its {@code createTable()} column list.
+ * </p>
+ *
+ * @param <T>
+ *            the row type, usually the container's DTO
+ */
+@FunctionalInterface
+public interface GridDbRowDecoder<T> {
+
+    T decode(GridDbRowReader row) throws IOException;
+}
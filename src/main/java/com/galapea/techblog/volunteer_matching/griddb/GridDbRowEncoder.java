@@ -0,0 +1,19 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import java.io.IOException;
+
+/**
+ * Writes one object as a GridDB row, column by column in container order, through a {@link GridDbRowWriter}.
+ * <p>
+ * The write-side counterpart of {@link GridDbRowDecoder}: each service declares its encoder as a
+ * {@code ROW_ENCODER} constant next to its {@code ROW_DECODER}.
+ * </p>
+ *
+ * @param <T>
+ *            the row type, usually the container's DTO
+ */
+@FunctionalInterface
+public interface GridDbRowEncoder<T> {
+
+    void encode(T value, GridDbRowWriter row) throws IOException;
+}
@@ -0,0 +1,188 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.galapea.techblog.volunteer_matching.util.DateTimeUtil;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cursor over the columns of a single row of a GridDB Cloud response, backed by a streaming Jackson
+ * {@link JsonParser}.
+ * <p>
+ * Every {@code next*} method consumes one column. A missing trailing column reads as {@code null}, and a value
+ * that cannot be converted reads as {@code null} too, the same way the {@code List<Object>} row mappers treated
+ * them. Columns that the decoder does not read are skipped when the row ends.
+ * </p>
+ */
+public final class GridDbRowReader {
+
+    private final JsonParser parser;
+    private boolean rowEnded;
+
+    GridDbRowReader(final JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Reads the rows array found under {@code rowsField} of a GridDB Cloud response. The parser may point either
+     * at a row acquisition response object ({@code "rows"}) or at an SQL select response array
+     * ({@code "results"} of its first element).
+     */
+    public static <T> List<T> readRows(
+            final JsonParser parser, final String rowsField, final GridDbRowDecoder<T> decoder) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            token = parser.nextToken();
+        }
+        if (token != JsonToken.START_OBJECT) {
+            return new ArrayList<>();
+        }
+        return readObjectRows(parser, rowsField, decoder);
+    }
+
+    /**
+     * Reads every element of an SQL select response array, decoding the {@code "results"} of the n-th statement
+     * with the n-th decoder. Statements without a decoder are skipped.
+     */
+    public static List<List<?>> readResults(final JsonParser parser, final List<GridDbRowDecoder<?>> decoders)
+            throws IOException {
+        List<List<?>> results = new ArrayList<>(decoders.size());
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            return results;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+            if (results.size() < decoders.size()) {
+                results.add(readObjectRows(parser, "results", decoders.get(results.size())));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (token != JsonToken.END_ARRAY) {
+            throw new IOException("Unexpected token in SQL select response: " + token);
+        }
+        return results;
+    }
+
+    private static <T> List<T> readObjectRows(
+            final JsonParser parser, final String rowsField, final GridDbRowDecoder<T> decoder) throws IOException {
+        List<T> rows = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (rowsField.equals(field) && value == JsonToken.START_ARRAY) {
+                GridDbRowReader reader = new GridDbRowReader(parser);
+                while (parser.nextToken() == JsonToken.START_ARRAY) {
+                    rows.add(decoder.decode(reader));
+                    reader.endRow();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return rows;
+    }
+
+    public String nextString() throws IOException {
+        JsonToken token = next();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText();
+    }
+
+    public Long nextLong() throws IOException {
+        JsonToken token = next();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getLongValue();
+        }
+        String text = textOrNull(token);
+        try {
+            return text != null ? Long.valueOf(text) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Boolean nextBoolean() throws IOException {
+        JsonToken token = next();
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return token == JsonToken.VALUE_TRUE;
+        }
+        String text = textOrNull(token);
+        return text != null ? Boolean.valueOf(text) : null;
+    }
+
+    public LocalDateTime nextLocalDateTime() throws IOException {
+        String text = textOrNull(next());
+        if (text == null) {
+            return null;
+        }
+        try {
+            return DateTimeUtil.parseToLocalDateTime(text);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public <E extends Enum<E>> E nextEnum(final Class<E> type) throws IOException {
+        String text = textOrNull(next());
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, text);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public void skip() throws IOException {
+        JsonToken token = next();
+        if (token != null && token.isStructStart()) {
+            parser.skipChildren();
+        }
+    }
+
+    private String textOrNull(final JsonToken token) throws IOException {
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText();
+    }
+
+    private JsonToken next() throws IOException {
+        if (rowEnded) {
+            return null;
+        }
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            rowEnded = true;
+            return null;
+        }
+        return token;
+    }
+
+    private void endRow() throws IOException {
+        if (!rowEnded) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                if (token.isStructStart()) {
+                    parser.skipChildren();
+                }
+            }
+        }
+        rowEnded = false;
+    }
+}
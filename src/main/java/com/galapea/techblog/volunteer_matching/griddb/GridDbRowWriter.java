@@ -0,0 +1,73 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.galapea.techblog.volunteer_matching.util.DateTimeUtil;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Writes the columns of a single row of a GridDB Cloud row registration body to a streaming Jackson
+ * {@link JsonGenerator}.
+ * <p>
+ * Strings are escaped by the generator as they are written, {@code null} values become JSON {@code null} and
+ * {@code TIMESTAMP} columns use the same UTC format as {@link DateTimeUtil#formatToZoneDateTimeString}.
+ * </p>
+ */
+public final class GridDbRowWriter {
+
+    private final JsonGenerator generator;
+
+    GridDbRowWriter(final JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Writes {@code rows} as the JSON array of row arrays that {@code PUT /containers/{name}/rows} expects.
+     */
+    public static <T> void writeRows(
+            final JsonGenerator generator, final Collection<? extends T> rows, final GridDbRowEncoder<T> encoder)
+            throws IOException {
+        GridDbRowWriter writer = new GridDbRowWriter(generator);
+        generator.writeStartArray();
+        for (T row : rows) {
+            generator.writeStartArray();
+            encoder.encode(row, writer);
+            generator.writeEndArray();
+        }
+        generator.writeEndArray();
+        generator.flush();
+    }
+
+    public void string(final String value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    public void number(final Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    public void bool(final Boolean value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeBoolean(value);
+        }
+    }
+
+    public void timestamp(final LocalDateTime value) throws IOException {
+        string(value == null ? null : DateTimeUtil.formatToZoneDateTimeString(value));
+    }
+
+    public void enumName(final Enum<?> value) throws IOException {
+        string(value == null ? null : value.name());
+    }
+}
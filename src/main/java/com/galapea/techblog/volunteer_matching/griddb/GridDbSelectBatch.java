@@ -0,0 +1,78 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbCloudSQLStmt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Several SQL selects sent to GridDB Cloud in a single {@code /sql/dml/query} round trip, each decoded with its own
+ * {@link GridDbRowDecoder}.
+ *
+ * <pre>
+ * GridDbSelectBatch batch = gridDbClient.selectBatch();
+ * GridDbSelectBatch.Result&lt;OpportunityDTO&gt; opportunity = batch.add(oppStmt, OPPORTUNITY_DECODER);
+ * GridDbSelectBatch.Result&lt;SkillDTO&gt; skills = batch.add(skillStmt, SKILL_DECODER);
+ * batch.execute();
+ * opportunity.first();
+ * </pre>
+ */
+public final class GridDbSelectBatch {
+
+    private final GridDbClient gridDbClient;
+    private final List<GridDbCloudSQLStmt> statements = new ArrayList<>();
+    private final List<GridDbRowDecoder<?>> decoders = new ArrayList<>();
+    private List<List<?>> results;
+
+    GridDbSelectBatch(final GridDbClient gridDbClient) {
+        this.gridDbClient = gridDbClient;
+    }
+
+    public <T> Result<T> add(final GridDbCloudSQLStmt statement, final GridDbRowDecoder<T> decoder) {
+        if (results != null) {
+            throw new IllegalStateException("Batch already executed");
+        }
+        statements.add(statement);
+        decoders.add(decoder);
+        return new Result<>(this, statements.size() - 1);
+    }
+
+    /**
+     * Sends all statements added so far in one request.
+     *
+     * @throws GridDbException
+     *             if the request fails or the GridDB API returns an error
+     */
+    public void execute() {
+        if (results != null) {
+            throw new IllegalStateException("Batch already executed");
+        }
+        results = statements.isEmpty() ? List.of() : gridDbClient.select(statements, decoders);
+    }
+
+    /**
+     * Rows of one statement of a {@link GridDbSelectBatch}, available after {@link GridDbSelectBatch#execute()}.
+     */
+    public static final class Result<T> {
+
+        private final GridDbSelectBatch batch;
+        private final int index;
+
+        private Result(final GridDbSelectBatch batch, final int index) {
+            this.batch = batch;
+            this.index = index;
+        }
+
+        @SuppressWarnings("unchecked")
+        public List<T> rows() {
+            if (batch.results == null) {
+                throw new IllegalStateException("Batch not executed yet");
+            }
+            return index < batch.results.size() ? (List<T>) batch.results.get(index) : List.of();
+        }
+
+        public Optional<T> first() {
+            return rows().stream().findFirst();
+        }
+    }
+}
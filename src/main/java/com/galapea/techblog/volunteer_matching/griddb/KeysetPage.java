@@ -0,0 +1,26 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import java.util.List;
+
+/**
+ * One page of rows read in {@code id} order, with the cursor to pass as {@code after} for the following page.
+ *
+ * @param content
+ *            the rows of this page
+ * @param nextAfter
+ *            the {@code id} of the last row, or {@code null} when this is the last page
+ */
+public record KeysetPage<T>(List<T> content, String nextAfter) {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 1000;
+
+    /** Bounds a client supplied page size to {@code [1, MAX_SIZE]}. */
+    public static int clampSize(final int size) {
+        return Math.clamp(size, 1, MAX_SIZE);
+    }
+
+    public boolean hasNext() {
+        return nextAfter != null;
+    }
+}
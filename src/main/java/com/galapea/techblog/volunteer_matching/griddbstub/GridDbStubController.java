@@ -0,0 +1,129 @@
+package com.galapea.techblog.volunteer_matching.griddbstub;
+
+import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsRequest;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsResponse;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbCloudSQLStmt;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefinition;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLSelectResponse;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLUpdateResponse;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.SqlExecutionResult;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Stand-in for the subset of the GridDB Cloud Web API that {@code GridDbClient} uses, so the app can run and be
+ * load-tested without network access or a paid instance. Active with the {@code griddb-stub} profile, which serves
+ * it on its own port (see {@link GridDbStubServerConfig}) and points {@code griddbcloud.base-url} there.
+ * <p>
+ * Every request is delayed by {@code griddbstub.latency} plus a random share of {@code griddbstub.jitter} to mimic
+ * the round trip to the cloud. A share {@code griddbstub.failure-rate} of them then fails with 503, to exercise
+ * the circuit breakers of {@code GridDbResilience}.
+ * </p>
+ */
+@RestController
+@Profile("griddb-stub")
+@RequestMapping(value = GridDbStubController.PATH, produces = MediaType.APPLICATION_JSON_VALUE)
+public class GridDbStubController {
+
+    static final String PATH = "/griddb-stub";
+
+    private final GridDbStubStore store;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double failureRate;
+
+    public GridDbStubController(
+            final GridDbStubStore store,
+            @Value("${griddbstub.latency:0ms}") final Duration latency,
+            @Value("${griddbstub.jitter:0ms}") final Duration jitter,
+            @Value("${griddbstub.failure-rate:0}") final double failureRate) {
+        this.store = store;
+        this.latencyMillis = latency.toMillis();
+        this.jitterMillis = jitter.toMillis();
+        this.failureRate = failureRate;
+    }
+
+    @GetMapping("/checkConnection")
+    public ResponseEntity<Void> checkConnection() {
+        delay();
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/containers")
+    public ResponseEntity<Void> createContainer(@RequestBody final GridDbContainerDefinition definition) {
+        delay();
+        store.createContainer(definition);
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
+    @PutMapping("/containers/{name}/rows")
+    public Map<String, Integer> putRows(
+            @PathVariable(name = "name") final String name, @RequestBody final List<List<Object>> rows) {
+        delay();
+        store.putRows(name, rows);
+        return Map.of("count", rows.size());
+    }
+
+    @PostMapping("/containers/{name}/rows")
+    public AcquireRowsResponse acquireRows(
+            @PathVariable(name = "name") final String name, @RequestBody final AcquireRowsRequest request) {
+        delay();
+        return store.acquireRows(name, request);
+    }
+
+    @PostMapping("/sql/dml/query")
+    public List<SQLSelectResponse> query(@RequestBody final List<GridDbCloudSQLStmt> statements) {
+        delay();
+        return store.query(statements.stream().map(GridDbCloudSQLStmt::statement).toList());
+    }
+
+    @PostMapping("/sql/dml/update")
+    public List<SQLUpdateResponse> update(@RequestBody final List<GridDbCloudSQLStmt> statements) {
+        delay();
+        return store.update(statements.stream().map(GridDbCloudSQLStmt::statement).toList());
+    }
+
+    @PostMapping("/sql/ddl")
+    public List<SqlExecutionResult> ddl(@RequestBody final List<GridDbCloudSQLStmt> statements) {
+        delay();
+        return store.ddl(statements.stream().map(GridDbCloudSQLStmt::statement).toList());
+    }
+
+    @ExceptionHandler(GridDbStubException.class)
+    public ResponseEntity<Map<String, Object>> handleStubException(final GridDbStubException exception) {
+        return ResponseEntity.status(exception.getStatus())
+                .body(Map.of(
+                        "version", "stub",
+                        "errorCode", exception.getStatus().value(),
+                        "errorMessage", String.valueOf(exception.getMessage())));
+    }
+
+    private void delay() {
+        long millis = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new GridDbStubException(HttpStatus.SERVICE_UNAVAILABLE, "Injected failure");
+        }
+    }
+}
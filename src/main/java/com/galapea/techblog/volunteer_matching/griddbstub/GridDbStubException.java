@@ -0,0 +1,20 @@
+package com.galapea.techblog.volunteer_matching.griddbstub;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Error answered by the stub with {@code status} and a GridDB-style error body.
+ */
+public class GridDbStubException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public GridDbStubException(final HttpStatus status, final String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
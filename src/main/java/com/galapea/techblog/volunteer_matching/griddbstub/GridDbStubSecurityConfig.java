@@ -0,0 +1,28 @@
+package com.galapea.techblog.volunteer_matching.griddbstub;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Lets {@code GridDbClient} call the stub like the real Web API: no login, no CSRF token and no session.
+ */
+@Configuration
+@Profile("griddb-stub")
+public class GridDbStubSecurityConfig {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityFilterChain gridDbStubFilterChain(final HttpSecurity http) throws Exception {
+        return http.securityMatcher(GridDbStubController.PATH + "/**")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.galapea.techblog.volunteer_matching.griddbstub;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+/**
+ * Serves the stub on its own Tomcat connector at {@code griddbstub.port}, whose requests run on virtual threads. The
+ * simulated GridDB latency therefore sleeps outside the request thread pool of the app, and a load test measures the
+ * app's threads waiting on GridDB rather than the stub and the app starving each other of threads.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("griddb-stub")
+public class GridDbStubServerConfig {
+
+    private final int port;
+
+    public GridDbStubServerConfig(@Value("${griddbstub.port:8081}") final int port) {
+        this.port = port;
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> gridDbStubConnector() {
+        return factory -> {
+            Connector connector = new Connector(TomcatServletWebServerFactory.DEFAULT_PROTOCOL);
+            connector.setPort(port);
+            connector.getProtocolHandler().setExecutor(new VirtualThreadExecutor("griddb-stub-"));
+            factory.addAdditionalTomcatConnectors(connector);
+        };
+    }
+
+    /**
+     * Answers 404 for the stub on the app port and for the app on the stub port, so each listener serves one of them.
+     */
+    @Bean
+    public FilterRegistrationBean<Filter> gridDbStubPortFilter() {
+        Filter filter = (request, response, chain) -> {
+            HttpServletRequest httpRequest = (HttpServletRequest) request;
+            boolean stubPath = httpRequest.getRequestURI().startsWith(GridDbStubController.PATH + "/");
+            if (stubPath != (httpRequest.getLocalPort() == port)) {
+                ((HttpServletResponse) response).sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            chain.doFilter(request, response);
+        };
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
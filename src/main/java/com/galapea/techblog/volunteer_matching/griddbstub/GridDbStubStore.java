@@ -0,0 +1,313 @@
+package com.galapea.techblog.volunteer_matching.griddbstub;
+
+import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsRequest;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsResponse;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbColumn;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefinition;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLSelectResponse;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLUpdateResponse;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.SqlExecutionResult;
+import com.galapea.techblog.volunteer_matching.util.DateTimeUtil;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory row store behind {@link GridDbStubController}, kept in an embedded H2 database.
+ * <p>
+ * Containers become tables whose row key is the primary key, so registering a row with an existing key replaces it
+ * as in GridDB. The SQL the services send is plain enough to run on H2 unchanged. Identifiers are case-sensitive
+ * like GridDB's, and {@code TIMESTAMP} columns are read and written in the Web API's UTC string format.
+ * </p>
+ */
+@Component
+@Profile("griddb-stub")
+public class GridDbStubStore implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GridDbStubStore.class);
+    private static final String URL = "jdbc:h2:mem:griddb-stub;DATABASE_TO_UPPER=FALSE;DB_CLOSE_DELAY=-1";
+
+    // keeps the in-memory database alive between requests
+    private final Connection keepAlive;
+    private final Map<String, List<String>> columnTypes = new ConcurrentHashMap<>();
+
+    public GridDbStubStore() throws SQLException {
+        this.keepAlive = DriverManager.getConnection(URL);
+    }
+
+    public void createContainer(final GridDbContainerDefinition definition) {
+        String name = identifier(definition.getContainerName());
+        List<String> columns = new ArrayList<>();
+        for (GridDbColumn column : definition.getColumns()) {
+            columns.add(identifier(column.getName()) + " " + sqlType(column.getType()));
+        }
+        if (Boolean.TRUE.equals(definition.getRowkey()) && !definition.getColumns().isEmpty()) {
+            columns.add("PRIMARY KEY (" + identifier(definition.getColumns().get(0).getName()) + ")");
+        }
+        try (Connection connection = connect();
+                Statement statement = connection.createStatement()) {
+            if (tableExists(connection, name)) {
+                throw new GridDbStubException(HttpStatus.CONFLICT, "Container already exists: " + name);
+            }
+            statement.execute("CREATE TABLE " + name + " (" + String.join(", ", columns) + ")");
+            for (GridDbColumn column : definition.getColumns()) {
+                if (column.getIndex() != null && !column.getIndex().isEmpty()) {
+                    String columnName = identifier(column.getName());
+                    statement.execute(
+                            "CREATE INDEX " + name + "_" + columnName + " ON " + name + " (" + columnName + ")");
+                }
+            }
+            LOGGER.info("Created stub container {}", name);
+        } catch (SQLException e) {
+            throw new GridDbStubException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    public void putRows(final String container, final List<List<Object>> rows) {
+        String name = identifier(container);
+        if (rows.isEmpty()) {
+            return;
+        }
+        try (Connection connection = connect()) {
+            List<String> types = columnTypes(connection, name);
+            String placeholders = types.stream().map(type -> "?").collect(Collectors.joining(", "));
+            try (PreparedStatement statement =
+                    connection.prepareStatement("MERGE INTO " + name + " VALUES (" + placeholders + ")")) {
+                for (List<Object> row : rows) {
+                    for (int i = 0; i < types.size(); i++) {
+                        statement.setObject(i + 1, toSql(i < row.size() ? row.get(i) : null, types.get(i)));
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new GridDbStubException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    public AcquireRowsResponse acquireRows(final String container, final AcquireRowsRequest request) {
+        String name = identifier(container);
+        String where = isBlank(request.getCondition()) ? "" : " WHERE " + request.getCondition();
+        String orderBy = isBlank(request.getSort()) ? "" : " ORDER BY " + request.getSort();
+        long limit = request.getLimit() != null ? request.getLimit() : 10_000L;
+        long offset = request.getOffset() != null ? request.getOffset() : 0L;
+        try (Connection connection = connect();
+                Statement statement = connection.createStatement()) {
+            AcquireRowsResponse response = new AcquireRowsResponse();
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT * FROM " + name + where + orderBy + " LIMIT " + limit + " OFFSET " + offset)) {
+                response.setColumns(columns(resultSet.getMetaData()).stream()
+                        .map(column -> {
+                            AcquireRowsResponse.Column result = new AcquireRowsResponse.Column();
+                            result.setName(column.getName());
+                            result.setType(column.getType());
+                            return result;
+                        })
+                        .toList());
+                response.setRows(rows(resultSet));
+            }
+            try (ResultSet count = statement.executeQuery("SELECT count(*) FROM " + name + where)) {
+                count.next();
+                response.setTotal(count.getLong(1));
+            }
+            response.setOffset(offset);
+            response.setLimit(limit);
+            return response;
+        } catch (SQLException e) {
+            throw new GridDbStubException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    public List<SQLSelectResponse> query(final List<String> statements) {
+        List<SQLSelectResponse> responses = new ArrayList<>(statements.size());
+        try (Connection connection = connect();
+                Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                try (ResultSet resultSet = statement.executeQuery(sql)) {
+                    SQLSelectResponse response = new SQLSelectResponse();
+                    response.setColumns(columns(resultSet.getMetaData()).stream()
+                            .map(column -> {
+                                SQLSelectResponse.Column result = new SQLSelectResponse.Column();
+                                result.setName(column.getName());
+                                result.setType(column.getType());
+                                return result;
+                            })
+                            .toList());
+                    response.setResults(rows(resultSet));
+                    responses.add(response);
+                }
+            }
+        } catch (SQLException e) {
+            throw new GridDbStubException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return responses;
+    }
+
+    public List<SQLUpdateResponse> update(final List<String> statements) {
+        List<SQLUpdateResponse> responses = new ArrayList<>(statements.size());
+        try (Connection connection = connect();
+                Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                try {
+                    responses.add(new SQLUpdateResponse(1, statement.executeUpdate(sql), sql));
+                } catch (SQLException e) {
+                    responses.add(new SQLUpdateResponse(0, 0, sql, e.getMessage()));
+                }
+            }
+        } catch (SQLException e) {
+            throw new GridDbStubException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return responses;
+    }
+
+    public List<SqlExecutionResult> ddl(final List<String> statements) {
+        List<SqlExecutionResult> results = new ArrayList<>(statements.size());
+        try (Connection connection = connect();
+                Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                try {
+                    statement.execute(sql);
+                    columnTypes.clear();
+                    results.add(new SqlExecutionResult(1, sql, null));
+                } catch (SQLException e) {
+                    results.add(new SqlExecutionResult(0, sql, e.getMessage()));
+                }
+            }
+        } catch (SQLException e) {
+            throw new GridDbStubException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() throws SQLException {
+        keepAlive.close();
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(URL);
+    }
+
+    private List<String> columnTypes(final Connection connection, final String name) throws SQLException {
+        List<String> types = columnTypes.get(name);
+        if (types != null) {
+            return types;
+        }
+        if (!tableExists(connection, name)) {
+            throw new GridDbStubException(HttpStatus.NOT_FOUND, "Container not found: " + name);
+        }
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT * FROM " + name + " WHERE 1 = 0")) {
+            types = columns(resultSet.getMetaData()).stream()
+                    .map(GridDbColumn::getType)
+                    .toList();
+        }
+        columnTypes.put(name, types);
+        return types;
+    }
+
+    private static boolean tableExists(final Connection connection, final String name) throws SQLException {
+        try (ResultSet tables = connection.getMetaData().getTables(null, null, name, null)) {
+            return tables.next();
+        }
+    }
+
+    private static List<GridDbColumn> columns(final ResultSetMetaData metaData) throws SQLException {
+        List<GridDbColumn> columns = new ArrayList<>(metaData.getColumnCount());
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(new GridDbColumn(metaData.getColumnLabel(i), gridDbType(metaData.getColumnType(i))));
+        }
+        return columns;
+    }
+
+    private static List<List<Object>> rows(final ResultSet resultSet) throws SQLException {
+        int columnCount = resultSet.getMetaData().getColumnCount();
+        List<List<Object>> rows = new ArrayList<>();
+        while (resultSet.next()) {
+            List<Object> row = new ArrayList<>(columnCount);
+            for (int i = 1; i <= columnCount; i++) {
+                row.add(toGridDb(resultSet.getObject(i)));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Object toGridDb(final Object value) {
+        if (value instanceof OffsetDateTime timestamp) {
+            return DateTimeUtil.formatToZoneDateTimeString(
+                    timestamp.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime());
+        }
+        if (value instanceof LocalDateTime timestamp) {
+            return DateTimeUtil.formatToZoneDateTimeString(timestamp);
+        }
+        return value;
+    }
+
+    private static Object toSql(final Object value, final String type) {
+        if (value instanceof String text && "TIMESTAMP".equals(type)) {
+            return OffsetDateTime.parse(text);
+        }
+        return value;
+    }
+
+    private static String sqlType(final String gridDbType) {
+        return switch (gridDbType) {
+            case "STRING" -> "VARCHAR";
+            case "BOOL" -> "BOOLEAN";
+            case "BYTE" -> "TINYINT";
+            case "SHORT" -> "SMALLINT";
+            case "INTEGER" -> "INTEGER";
+            case "LONG" -> "BIGINT";
+            case "FLOAT" -> "REAL";
+            case "DOUBLE" -> "DOUBLE PRECISION";
+            case "TIMESTAMP" -> "TIMESTAMP(3) WITH TIME ZONE";
+            default -> throw new GridDbStubException(HttpStatus.BAD_REQUEST, "Unsupported column type: " + gridDbType);
+        };
+    }
+
+    private static String gridDbType(final int sqlType) {
+        return switch (sqlType) {
+            case Types.BOOLEAN -> "BOOL";
+            case Types.TINYINT -> "BYTE";
+            case Types.SMALLINT -> "SHORT";
+            case Types.INTEGER -> "INTEGER";
+            case Types.BIGINT -> "LONG";
+            case Types.REAL -> "FLOAT";
+            case Types.DOUBLE, Types.FLOAT, Types.DECIMAL, Types.NUMERIC -> "DOUBLE";
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> "TIMESTAMP";
+            default -> "STRING";
+        };
+    }
+
+    private static String identifier(final String name) {
+        if (name == null || !name.matches("\\w+")) {
+            throw new GridDbStubException(HttpStatus.BAD_REQUEST, "Invalid name: " + name);
+        }
+        return name;
+    }
+
+    private static boolean isBlank(final String value) {
+        return value == null || value.isBlank();
+    }
+}
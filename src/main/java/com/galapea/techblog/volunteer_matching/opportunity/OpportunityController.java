@@ -1,5 +1,7 @@
 package com.galapea.techblog.volunteer_matching.opportunity;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import com.galapea.techblog.volunteer_matching.opportunity_requirement.OpportunityRequirementDTO;
 import com.galapea.techblog.volunteer_matching.opportunity_requirement.OpportunityRequirementForm;
 import com.galapea.techblog.volunteer_matching.opportunity_requirement.OpportunityRequirementService;
@@ -7,7 +9,6 @@ import com.galapea.techblog.volunteer_matching.organization.OrganizationDTO;
 import com.galapea.techblog.volunteer_matching.registration.AlreadyRegisteredException;
 import com.galapea.techblog.volunteer_matching.registration.MissingMandatorySkillException;
 import com.galapea.techblog.volunteer_matching.registration.OpportunitySlotsFullException;
-import com.galapea.techblog.volunteer_matching.registration.RegistrationDTO;
 import com.galapea.techblog.volunteer_matching.registration.RegistrationService;
 import com.galapea.techblog.volunteer_matching.registration.RegistrationValidationService;
 import com.galapea.techblog.volunteer_matching.security.CustomUserDetails;
@@ -15,21 +16,16 @@ import com.galapea.techblog.volunteer_matching.security.SecurityExpressions;
 import com.galapea.techblog.volunteer_matching.skill.SkillDTO;
 import com.galapea.techblog.volunteer_matching.skill.SkillService;
 import com.galapea.techblog.volunteer_matching.user.UserDTO;
-import com.galapea.techblog.volunteer_matching.user.UserService;
 import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import jakarta.validation.Valid;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -38,66 +34,76 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
 @RequestMapping("/opportunities")
+@GridDbCallBudget(1)
 public class OpportunityController {
     private final Logger log = LoggerFactory.getLogger(getClass());
     private final OpportunityService opportunityService;
     private final RegistrationService registrationService;
     private final RegistrationValidationService registrationValidationService;
-    private final UserService userService;
     private final OpportunityRequirementService opportunityRequirementService;
     private final SkillService skillService;
+    private final OpportunityViewQueryService opportunityViewQueryService;
 
     public OpportunityController(
             final OpportunityService opportunityService,
             final RegistrationService registrationService,
             final RegistrationValidationService registrationValidationService,
-            final UserService userService,
             final OpportunityRequirementService opportunityRequirementService,
-            final SkillService skillService) {
+            final SkillService skillService,
+            final OpportunityViewQueryService opportunityViewQueryService) {
         this.opportunityService = opportunityService;
         this.registrationService = registrationService;
         this.registrationValidationService = registrationValidationService;
-        this.userService = userService;
         this.opportunityRequirementService = opportunityRequirementService;
         this.skillService = skillService;
+        this.opportunityViewQueryService = opportunityViewQueryService;
     }
 
     @GetMapping
-    public String list(final Model model, @AuthenticationPrincipal final CustomUserDetails userDetails) {
-        List<OpportunityDTO> allOpportunities = new ArrayList<>();
-        UserDTO user = userDetails != null
-                ? userService.getOneByEmail(userDetails.getUsername()).orElse(null)
-                : null;
+    @GridDbCallBudget(3)
+    public String list(
+            @RequestParam(name = "after", required = false) final String after,
+            @RequestParam(name = "size", defaultValue = "" + KeysetPage.DEFAULT_SIZE) final int size,
+            final Model model,
+            @AuthenticationPrincipal final CustomUserDetails userDetails) {
+        KeysetPage<OpportunityDTO> page;
+        UserDTO user = userDetails != null ? userDetails.toUserDTO() : null;
         if (userDetails != null
                 && userDetails.getOrganizations() != null
                 && !userDetails.getOrganizations().isEmpty()) {
             OrganizationDTO org = userDetails.getOrganizations().get(0);
             model.addAttribute("organization", org);
-            allOpportunities = opportunityService.findAllByOrgId(org.getId());
+            page = opportunityService.findPageByOrgId(org.getId(), after, size);
         } else {
             model.addAttribute("organization", null);
-            allOpportunities = opportunityService.findAll();
+            page = opportunityService.findPage(after, size);
         }
-        List<OpportunityResponse> opportunities = extractOpportunities(allOpportunities, user);
+        List<OpportunityResponse> opportunities = extractOpportunities(page.content(), user);
         model.addAttribute("opportunities", opportunities);
+        model.addAttribute("opportunityPage", page);
+        model.addAttribute("isFirstPage", after == null || after.isBlank());
+        model.addAttribute("pageSize", KeysetPage.clampSize(size));
         return "opportunity/list";
     }
 
     private List<OpportunityResponse> extractOpportunities(List<OpportunityDTO> allOpportunities, UserDTO user) {
+        Map<String, String> registrationIds = new HashMap<>();
+        List<String> opportunityIds =
+                allOpportunities.stream().map(OpportunityDTO::getId).collect(Collectors.toList());
+        Map<String, Long> takenCounts = registrationService.countByOpportunityIdIn(opportunityIds);
+        if (user != null) {
+            registrationService
+                    .findAllByUserIdAndOpportunityIdIn(user.getId(), opportunityIds)
+                    .forEach(reg -> registrationIds.putIfAbsent(reg.getOpportunityId(), reg.getId()));
+        }
         List<OpportunityResponse> opportunities = allOpportunities.stream()
                 .map(opportunity -> {
-                    String registrationId = "";
-                    if (user != null) {
-                        Optional<RegistrationDTO> reg =
-                                registrationService.getByUserIdAndOpportunityId(user.getId(), opportunity.getId());
-                        if (reg.isPresent()) {
-                            registrationId = reg.get().getId();
-                        }
-                    }
+                    String registrationId = registrationIds.getOrDefault(opportunity.getId(), "");
                     return new OpportunityResponse(
                             opportunity.getId(),
                             opportunity.getTitle(),
@@ -106,7 +112,8 @@ public class OpportunityController {
                             opportunity.getStartTime(),
                             opportunity.getEndTime(),
                             opportunity.getSlotsTotal(),
-                            0L,
+                            OpportunityViewQueryService.availableSlots(
+                                    opportunity.getSlotsTotal(), takenCounts.getOrDefault(opportunity.getId(), 0L)),
                             "",
                             "",
                             registrationId,
@@ -182,28 +189,13 @@ public class OpportunityController {
     }
 
     @GetMapping("/{id}")
+    @GridDbCallBudget(1)
     public String view(
             @PathVariable(name = "id") final String id,
             final Model model,
             @AuthenticationPrincipal final CustomUserDetails userDetails) {
-        OpportunityDTO opportunity = opportunityService.get(id);
-        UserDTO user = userDetails != null
-                ? userService.getOneByEmail(userDetails.getUsername()).orElse(null)
-                : null;
-        String registrationId = "";
-        LocalDateTime registrationTime = null;
-        String registrationStatus = "";
-        if (user != null) {
-            Optional<RegistrationDTO> reg =
-                    registrationService.getByUserIdAndOpportunityId(user.getId(), opportunity.getId());
-            if (reg.isPresent()) {
-                registrationId = reg.get().getId();
-                registrationTime = reg.get().getRegistrationTime();
-                registrationStatus = reg.get().getStatus().name();
-            }
-        }
         String orgName = "";
-        String orgId = opportunity.getOrgId();
+        String orgId = null;
         if (userDetails != null
                 && userDetails.getOrganizations() != null
                 && !userDetails.getOrganizations().isEmpty()) {
@@ -211,60 +203,28 @@ public class OpportunityController {
             orgName = org.getName();
             orgId = org.getId();
         }
-        List<OpportunityRequirementDTO> opportunitySkills = opportunityRequirementService.findAllByOpportunityId(id);
-        List<OpportunitySkill> skills = new ArrayList<>(opportunitySkills.size());
-        List<SkillDTO> findAllByIdIn = skillService.findAllByIdIn(opportunitySkills.stream()
-                .map(OpportunityRequirementDTO::getSkillId)
-                .collect(Collectors.toList()));
-        for (OpportunityRequirementDTO ors : opportunitySkills) {
-            for (SkillDTO skillDTO : findAllByIdIn) {
-                if (skillDTO.getId().equals(ors.getSkillId())) {
-                    skills.add(new OpportunitySkill(skillDTO.getName(), ors.getIsMandatory()));
-                    break;
-                }
-            }
-        }
-        OpportunityResponse view = new OpportunityResponse(
-                opportunity.getId(),
-                opportunity.getTitle(),
-                opportunity.getDescription(),
-                opportunity.getAddress(),
-                opportunity.getStartTime(),
-                opportunity.getEndTime(),
-                opportunity.getSlotsTotal(),
-                0L,
-                orgId,
-                orgName,
-                registrationId,
-                registrationId.isBlank() ? false : true,
-                registrationTime,
-                registrationStatus,
-                skills);
+        String userId = userDetails != null ? userDetails.getUserId() : null;
+        OpportunityResponse view = opportunityViewQueryService.getView(id, userId, orgId, orgName);
         model.addAttribute("opportunity", view);
         return "opportunity/view";
     }
 
     @PostMapping("/{id}/registrations")
+    @GridDbCallBudget(10)
     public String registrations(
             @PathVariable(name = "id") final String opportunityId,
             final RedirectAttributes redirectAttributes,
-            @AuthenticationPrincipal final UserDetails userDetails) {
-        UserDTO user = userService
-                .getOneByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            @AuthenticationPrincipal final CustomUserDetails userDetails) {
+        UserDTO user = userDetails.toUserDTO();
         log.debug("Processing registration for user: {}, opportunity: {}", user.getFullName(), opportunityId);
 
         try {
             // Validate registration using the validation service
             registrationValidationService.validateRegistration(user.getId(), opportunityId);
 
-            // If validation passes, proceed with registration
-            OpportunityDTO opportunityDTO = opportunityService.get(opportunityId);
+            // If validation passes, store the registration, which takes a slot atomically
             registrationService.register(user.getId(), opportunityId);
-            log.debug(
-                    "Registration Successful - user: {}, opportunity: {}",
-                    user.getFullName(),
-                    opportunityDTO.getTitle());
+            log.debug("Registration Successful - user: {}, opportunity: {}", user.getFullName(), opportunityId);
             redirectAttributes.addFlashAttribute(
                     WebUtils.MSG_INFO, WebUtils.getMessage("opportunity.registrations.success"));
             return "redirect:/opportunities/" + opportunityId;
@@ -300,6 +260,7 @@ public class OpportunityController {
     }
 
     @GetMapping("/{id}/requirements")
+    @GridDbCallBudget(3)
     public String view_requirements(
             @PathVariable(name = "id") final String opportunityId,
             final Model model,
@@ -329,11 +290,20 @@ public class OpportunityController {
     }
 
     @PostMapping("/{id}/requirements")
+    @GridDbCallBudget(2)
     @PreAuthorize(SecurityExpressions.ORGANIZER_ONLY)
     public String saveRequirements(
             @PathVariable(name = "id") final String opportunityId,
             @ModelAttribute("requirementForm") final OpportunityRequirementForm requirementForm,
             final RedirectAttributes redirectAttributes) {
+        List<String> skillIds = requirementForm.getRequirements().stream()
+                .map(OpportunityRequirementDTO::getSkillId)
+                .toList();
+        if (!skillService.existAll(skillIds)) {
+            redirectAttributes.addFlashAttribute(
+                    WebUtils.MSG_ERROR, WebUtils.getMessage("opportunity.requirements.update.unknownSkill"));
+            return "redirect:/opportunities/" + opportunityId + "/requirements";
+        }
         opportunityRequirementService.replaceAllForOpportunity(opportunityId, requirementForm.getRequirements());
         redirectAttributes.addFlashAttribute(
                 WebUtils.MSG_SUCCESS, WebUtils.getMessage("opportunity.requirements.update.success"));
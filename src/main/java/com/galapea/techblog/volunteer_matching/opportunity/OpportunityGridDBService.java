@@ -1,17 +1,19 @@
 package com.galapea.techblog.volunteer_matching.opportunity;
 
 import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbIdentityMap;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowDecoder;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowEncoder;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsRequest;
-import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsResponse;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbColumn;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefinition;
-import com.galapea.techblog.volunteer_matching.util.DateTimeUtil;
 import com.galapea.techblog.volunteer_matching.util.NotFoundException;
 import com.github.f4b6a3.tsid.TsidCreator;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -23,6 +25,30 @@ public class OpportunityGridDBService implements OpportunityService {
     private final GridDbClient gridDbClient;
     private final String TBL_NAME = "VoMaOpportunities";
 
+    public static final GridDbRowDecoder<OpportunityDTO> ROW_DECODER = row -> {
+        OpportunityDTO dto = new OpportunityDTO();
+        dto.setId(row.nextString());
+        dto.setTitle(row.nextString());
+        dto.setDescription(row.nextString());
+        dto.setAddress(row.nextString());
+        dto.setStartTime(row.nextLocalDateTime());
+        dto.setEndTime(row.nextLocalDateTime());
+        dto.setSlotsTotal(row.nextLong());
+        dto.setOrgId(row.nextString());
+        return dto;
+    };
+
+    public static final GridDbRowEncoder<OpportunityDTO> ROW_ENCODER = (opportunity, row) -> {
+        row.string(opportunity.getId());
+        row.string(opportunity.getTitle());
+        row.string(opportunity.getDescription());
+        row.string(opportunity.getAddress());
+        row.timestamp(opportunity.getStartTime());
+        row.timestamp(opportunity.getEndTime());
+        row.number(opportunity.getSlotsTotal());
+        row.string(opportunity.getOrgId());
+    };
+
     public OpportunityGridDBService(final GridDbClient gridDbClient) {
         this.gridDbClient = gridDbClient;
     }
@@ -43,73 +69,21 @@ public class OpportunityGridDBService implements OpportunityService {
     }
 
     @Override
-    public List<OpportunityDTO> findAll() {
-        AcquireRowsRequest requestBody =
-                AcquireRowsRequest.builder().limit(50L).sort("id ASC").build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return List.of();
-        }
-        return response.getRows().stream()
-                .map(row -> {
-                    return mapRowToDTO(row);
-                })
-                .collect(Collectors.toList());
-    }
-
-    private OpportunityDTO mapRowToDTO(List<Object> row) {
-        OpportunityDTO dto = new OpportunityDTO();
-        dto.setId((String) row.get(0));
-        dto.setTitle((String) row.get(1));
-        dto.setDescription((String) row.get(2));
-        dto.setAddress((String) row.get(3));
-        Object st = row.get(4);
-        if (st != null) {
-            try {
-                dto.setStartTime(DateTimeUtil.parseToLocalDateTime(st.toString()));
-            } catch (Exception e) {
-                dto.setStartTime(null);
-            }
-        }
-        Object et = row.get(5);
-        if (et != null) {
-            try {
-                dto.setEndTime(DateTimeUtil.parseToLocalDateTime(et.toString()));
-            } catch (Exception e) {
-                dto.setEndTime(null);
-            }
-        }
-        Object slots = row.get(6);
-        if (slots != null) {
-            try {
-                if (slots instanceof Number) dto.setSlotsTotal(((Number) slots).longValue());
-                else dto.setSlotsTotal(Long.valueOf(slots.toString()));
-            } catch (Exception e) {
-                dto.setSlotsTotal(null);
-            }
-        }
-        dto.setOrgId((String) row.get(7));
-        return dto;
+    public KeysetPage<OpportunityDTO> findPage(final String after, final int size) {
+        return this.gridDbClient.acquirePage(TBL_NAME, "", after, size, ROW_DECODER, OpportunityDTO::getId);
     }
 
     @Override
     public OpportunityDTO get(final String id) {
-        AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
-                .limit(1L)
-                .condition("id == '" + id + "'")
-                .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            throw new NotFoundException("Opportunity not found with id: " + id);
-        }
-        return response.getRows().stream()
-                .findFirst()
-                .map(row -> {
-                    return mapRowToDTO(row);
-                })
-                .orElseThrow(() -> new NotFoundException("Opportunity not found with id: " + id));
+        return GridDbIdentityMap.lookup(OpportunityDTO.class, id, () -> {
+            AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
+                    .limit(1L)
+                    .condition("id == '" + id + "'")
+                    .build();
+            return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("Opportunity not found with id: " + id));
+        });
     }
 
     public String nextId() {
@@ -120,75 +94,31 @@ public class OpportunityGridDBService implements OpportunityService {
     public String create(final OpportunityDTO opportunityDTO) {
         String id =
                 opportunityDTO.getId() != null && !opportunityDTO.getId().isBlank() ? opportunityDTO.getId() : nextId();
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(opportunityDTO.getTitle())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(opportunityDTO.getDescription())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(opportunityDTO.getAddress())).append("\"");
-        sb.append(", ");
-        sb.append(
-                opportunityDTO.getStartTime() == null
-                        ? "null"
-                        : "\"" + DateTimeUtil.formatToZoneDateTimeString(opportunityDTO.getStartTime()) + "\"");
-        sb.append(", ");
-        sb.append(
-                opportunityDTO.getEndTime() == null
-                        ? "null"
-                        : "\"" + DateTimeUtil.formatToZoneDateTimeString(opportunityDTO.getEndTime()) + "\"");
-        sb.append(", ");
-        sb.append(
-                opportunityDTO.getSlotsTotal() == null
-                        ? "null"
-                        : opportunityDTO.getSlotsTotal().toString());
-        sb.append(", ");
-        sb.append("\"").append(escapeString(opportunityDTO.getOrgId())).append("\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Create Opportunity: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        opportunityDTO.setId(id);
+        log.info("Create Opportunity: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(opportunityDTO), ROW_ENCODER);
         return id;
     }
 
+    /**
+     * Stores all rows with a single {@code registerRows} call.
+     */
+    public void createMultiple(final List<OpportunityDTO> opportunityDTOs) {
+        for (OpportunityDTO opportunityDTO : opportunityDTOs) {
+            if (opportunityDTO.getId() == null || opportunityDTO.getId().isBlank()) {
+                opportunityDTO.setId(nextId());
+            }
+        }
+        log.info("Create Multiple Opportunities: {} rows", opportunityDTOs.size());
+        this.gridDbClient.registerRows(TBL_NAME, opportunityDTOs, ROW_ENCODER);
+    }
+
     @Override
     public void update(final String id, final OpportunityDTO opportunityDTO) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(opportunityDTO.getTitle())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(opportunityDTO.getDescription())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(opportunityDTO.getAddress())).append("\"");
-        sb.append(", ");
-        sb.append(
-                opportunityDTO.getStartTime() == null
-                        ? "null"
-                        : "\"" + DateTimeUtil.formatToZoneDateTimeString(opportunityDTO.getStartTime()) + "\"");
-        sb.append(", ");
-        sb.append(
-                opportunityDTO.getEndTime() == null
-                        ? "null"
-                        : "\"" + DateTimeUtil.formatToZoneDateTimeString(opportunityDTO.getEndTime()) + "\"");
-        sb.append(", ");
-        sb.append(
-                opportunityDTO.getSlotsTotal() == null
-                        ? "null"
-                        : opportunityDTO.getSlotsTotal().toString());
-        sb.append(", ");
-        sb.append("\"").append(escapeString(opportunityDTO.getOrgId())).append("\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Update Opportunity: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        opportunityDTO.setId(id);
+        log.info("Update Opportunity: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(opportunityDTO), ROW_ENCODER);
+        GridDbIdentityMap.evict(OpportunityDTO.class, id);
     }
 
     @Override
@@ -198,13 +128,12 @@ public class OpportunityGridDBService implements OpportunityService {
 
     @Override
     public boolean idExists(final String id) {
-        OpportunityDTO o = get(id);
-        return o != null;
+        return this.gridDbClient.exists(TBL_NAME, id);
     }
 
-    private String escapeString(String input) {
-        if (input == null) return null;
-        return input.replace("\\", "\\\\").replace("'", "\\'").replace("\"", "\\\"");
+    @Override
+    public boolean existAll(final Collection<String> ids) {
+        return this.gridDbClient.findExistingIds(TBL_NAME, ids).containsAll(ids);
     }
 
     @Override
@@ -218,21 +147,8 @@ public class OpportunityGridDBService implements OpportunityService {
     }
 
     @Override
-    public List<OpportunityDTO> findAllByOrgId(String orgId) {
-        AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
-                .limit(50L)
-                .condition("orgId == '" + orgId + "'")
-                .sort("id ASC")
-                .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return List.of();
-        }
-        return response.getRows().stream()
-                .map(row -> {
-                    return mapRowToDTO(row);
-                })
-                .collect(Collectors.toList());
+    public KeysetPage<OpportunityDTO> findPageByOrgId(final String orgId, final String after, final int size) {
+        return this.gridDbClient.acquirePage(
+                TBL_NAME, "orgId == '" + orgId + "'", after, size, ROW_DECODER, OpportunityDTO::getId);
     }
 }
@@ -1,13 +1,14 @@
 package com.galapea.techblog.volunteer_matching.opportunity;
 
-import java.util.List;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import java.util.Collection;
 
 public interface OpportunityService {
     String nextId();
 
-    List<OpportunityDTO> findAll();
+    KeysetPage<OpportunityDTO> findPage(String after, int size);
 
-    List<OpportunityDTO> findAllByOrgId(String orgId);
+    KeysetPage<OpportunityDTO> findPageByOrgId(String orgId, String after, int size);
 
     OpportunityDTO get(String id);
 
@@ -20,4 +21,9 @@ public interface OpportunityService {
     void delete(String id);
 
     boolean idExists(String id);
+
+    /**
+     * Whether every one of {@code ids} exists, checked in a single round trip.
+     */
+    boolean existAll(Collection<String> ids);
 }
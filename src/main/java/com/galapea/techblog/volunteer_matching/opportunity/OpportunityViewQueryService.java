@@ -0,0 +1,130 @@
+package com.galapea.techblog.volunteer_matching.opportunity;
+
+import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowDecoder;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbSelectBatch;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbCloudSQLStmt;
+import com.galapea.techblog.volunteer_matching.opportunity_requirement.OpportunityRequirementDTO;
+import com.galapea.techblog.volunteer_matching.opportunity_requirement.OpportunityRequirementGridDBService;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationDTO;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationGridDBService;
+import com.galapea.techblog.volunteer_matching.skill.SkillDTO;
+import com.galapea.techblog.volunteer_matching.skill.SkillGridDBService;
+import com.galapea.techblog.volunteer_matching.util.NotFoundException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Service;
+
+/**
+ * Assembles the opportunity detail page from a single {@code /sql/dml/query} round trip.
+ * <p>
+ * The opportunity, the viewer's registration, the requirements, the required skills and the registration count are
+ * selected as separate statements of one {@link GridDbSelectBatch}. Requirements are then joined to their skills
+ * through a map keyed by skill id.
+ * </p>
+ */
+@Service
+public class OpportunityViewQueryService {
+
+    private static final GridDbRowDecoder<Long> COUNT_DECODER = row -> row.nextLong();
+
+    private final GridDbClient gridDbClient;
+
+    public OpportunityViewQueryService(final GridDbClient gridDbClient) {
+        this.gridDbClient = gridDbClient;
+    }
+
+    /**
+     * @param opportunityId
+     *            the opportunity to show
+     * @param userId
+     *            the signed-in user whose registration is shown, or {@code null} for anonymous viewers
+     * @param orgId
+     *            the organization shown with the opportunity, or {@code null} to use the opportunity's own
+     * @param orgName
+     *            the name of that organization, or an empty string
+     * @throws NotFoundException
+     *             if the opportunity does not exist
+     */
+    public OpportunityResponse getView(
+            final String opportunityId, final String userId, final String orgId, final String orgName) {
+        String id = sqlString(opportunityId);
+        GridDbSelectBatch batch = gridDbClient.selectBatch();
+        // @formatter:off
+        GridDbSelectBatch.Result<OpportunityDTO> opportunityResult = batch.add(new GridDbCloudSQLStmt("""
+                SELECT id, title, description, address, startTime, endTime, slotsTotal, orgId \
+                FROM VoMaOpportunities WHERE id = '%s'
+                """.formatted(id)), OpportunityGridDBService.ROW_DECODER);
+        GridDbSelectBatch.Result<OpportunityRequirementDTO> requirementResult = batch.add(new GridDbCloudSQLStmt("""
+                SELECT id, opportunityId, skillId, isMandatory \
+                FROM VoMaOpportunityRequirements WHERE opportunityId = '%s' ORDER BY id
+                """.formatted(id)), OpportunityRequirementGridDBService.ROW_DECODER);
+        GridDbSelectBatch.Result<SkillDTO> skillResult = batch.add(new GridDbCloudSQLStmt("""
+                SELECT id, name FROM VoMaSkills \
+                WHERE id IN (SELECT skillId FROM VoMaOpportunityRequirements WHERE opportunityId = '%s')
+                """.formatted(id)), SkillGridDBService.ROW_DECODER);
+        GridDbSelectBatch.Result<Long> countResult = batch.add(new GridDbCloudSQLStmt("""
+                SELECT count(id) FROM VoMaRegistrations WHERE opportunityId = '%s' AND status <> 'CANCELLED'
+                """.formatted(id)), COUNT_DECODER);
+        GridDbSelectBatch.Result<RegistrationDTO> registrationResult = userId == null ? null : batch.add(
+                new GridDbCloudSQLStmt("""
+                SELECT id, userId, opportunityId, status, registrationTime \
+                FROM VoMaRegistrations WHERE userId = '%s' AND opportunityId = '%s' LIMIT 1
+                """.formatted(sqlString(userId), id)), RegistrationGridDBService.ROW_DECODER);
+        // @formatter:on
+        batch.execute();
+
+        OpportunityDTO opportunity = opportunityResult
+                .first()
+                .orElseThrow(() -> new NotFoundException("Opportunity not found with id: " + opportunityId));
+        Optional<RegistrationDTO> registration =
+                registrationResult == null ? Optional.empty() : registrationResult.first();
+        long registered = countResult.first().orElse(0L);
+
+        return new OpportunityResponse(
+                opportunity.getId(),
+                opportunity.getTitle(),
+                opportunity.getDescription(),
+                opportunity.getAddress(),
+                opportunity.getStartTime(),
+                opportunity.getEndTime(),
+                opportunity.getSlotsTotal(),
+                availableSlots(opportunity.getSlotsTotal(), registered),
+                orgId != null ? orgId : opportunity.getOrgId(),
+                orgName,
+                registration.map(RegistrationDTO::getId).orElse(""),
+                registration.isPresent(),
+                registration.map(RegistrationDTO::getRegistrationTime).orElse(null),
+                registration
+                        .map(reg -> reg.getStatus() != null ? reg.getStatus().name() : "")
+                        .orElse(""),
+                joinSkills(requirementResult.rows(), skillResult.rows()));
+    }
+
+    static long availableSlots(final Long slotsTotal, final long registered) {
+        return slotsTotal == null ? 0L : Math.max(slotsTotal - registered, 0L);
+    }
+
+    private static List<OpportunitySkill> joinSkills(
+            final List<OpportunityRequirementDTO> requirements, final List<SkillDTO> skills) {
+        Map<String, String> skillNames = new HashMap<>(skills.size() * 2);
+        for (SkillDTO skill : skills) {
+            skillNames.put(skill.getId(), skill.getName());
+        }
+        List<OpportunitySkill> result = new ArrayList<>(requirements.size());
+        for (OpportunityRequirementDTO requirement : requirements) {
+            String name = skillNames.get(requirement.getSkillId());
+            if (name != null) {
+                result.add(new OpportunitySkill(name, requirement.getIsMandatory()));
+            }
+        }
+        return result;
+    }
+
+    private static String sqlString(final String value) {
+        return value.replace("'", "''");
+    }
+}
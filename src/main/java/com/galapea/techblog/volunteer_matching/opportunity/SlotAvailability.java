@@ -0,0 +1,35 @@
+package com.galapea.techblog.volunteer_matching.opportunity;
+
+/**
+ * Snapshot of how many volunteer slots of an opportunity are taken, as pushed to the slot event stream.
+ *
+ * @param opportunityId
+ *            the opportunity
+ * @param slotsTotal
+ *            the configured number of slots, {@code 0} when the opportunity has none
+ * @param registered
+ *            the number of registrations
+ * @param message
+ *            the human readable availability, e.g. {@code "3 slots available"}
+ * @param filledPercent
+ *            {@code registered} as a percentage of {@code slotsTotal}
+ */
+public record SlotAvailability(
+        String opportunityId, long slotsTotal, long registered, String message, double filledPercent) {
+
+    public static SlotAvailability of(final String opportunityId, final Long slotsTotal, final long registered) {
+        if (slotsTotal == null || slotsTotal <= 0) {
+            return new SlotAvailability(opportunityId, 0L, registered, "No Slot Available", 0);
+        }
+        return new SlotAvailability(
+                opportunityId,
+                slotsTotal,
+                registered,
+                (slotsTotal - registered) + " slots available",
+                ((double) registered / slotsTotal) * 100);
+    }
+
+    public static SlotAvailability none(final String opportunityId) {
+        return of(opportunityId, null, 0L);
+    }
+}
@@ -0,0 +1,197 @@
+package com.galapea.techblog.volunteer_matching.opportunity;
+
+import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationChangedEvent;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationService;
+import com.galapea.techblog.volunteer_matching.util.NotFoundException;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes {@link SlotAvailability} to every browser viewing an opportunity over server-sent events.
+ * <p>
+ * There is one shared state per watched opportunity. It is recomputed when a {@link RegistrationChangedEvent} arrives
+ * and on a background refresh every {@code opportunity.slots.refresh-interval}, and then sent to all subscribers.
+ * GridDB load therefore grows with the number of watched opportunities, not with the number of open tabs. State is
+ * dropped as soon as the last subscriber of an opportunity goes away. Only existing opportunities can be watched and at
+ * most {@code opportunity.slots.max-subscribers} streams are open at once, so neither map grows with arbitrary ids.
+ * </p>
+ */
+@Service
+public class SlotAvailabilityBroadcaster {
+
+    static final String EVENT_NAME = "slots";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    private final OpportunityService opportunityService;
+    private final RegistrationService registrationService;
+    private final GridDbClient gridDbClient;
+    private final Duration emitterTimeout;
+    private final int maxSubscribers;
+    private final AtomicInteger open = new AtomicInteger();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, SlotAvailability> states = new ConcurrentHashMap<>();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    public SlotAvailabilityBroadcaster(
+            final OpportunityService opportunityService,
+            final RegistrationService registrationService,
+            final GridDbClient gridDbClient,
+            @Value("${opportunity.slots.sse-timeout:30m}") final Duration emitterTimeout,
+            @Value("${opportunity.slots.max-subscribers:2000}") final int maxSubscribers) {
+        this.opportunityService = opportunityService;
+        this.registrationService = registrationService;
+        this.gridDbClient = gridDbClient;
+        this.emitterTimeout = emitterTimeout;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * Opens an event stream for {@code opportunityId} and immediately sends the current availability.
+     *
+     * @throws NotFoundException if the opportunity does not exist
+     * @throws ResponseStatusException with 503 when {@code opportunity.slots.max-subscribers} streams are already open
+     */
+    public SseEmitter subscribe(final String opportunityId) {
+        // read GridDB before touching the maps; a compute function must not block while holding the bin lock
+        OpportunityDTO opportunity =
+                opportunityService.getOneById(opportunityId).orElseThrow(NotFoundException::new);
+        SlotAvailability loaded = states.get(opportunityId);
+        if (loaded == null) {
+            loaded = availability(opportunity);
+        }
+        if (open.incrementAndGet() > maxSubscribers) {
+            open.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many slot availability streams");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        emitter.onCompletion(() -> unsubscribe(opportunityId, emitter));
+        emitter.onTimeout(() -> unsubscribe(opportunityId, emitter));
+        emitter.onError(e -> unsubscribe(opportunityId, emitter));
+        subscribers.compute(opportunityId, (id, emitters) -> {
+            List<SseEmitter> result = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            result.add(emitter);
+            return result;
+        });
+        SlotAvailability existing = states.putIfAbsent(opportunityId, loaded);
+        send(opportunityId, emitter, existing != null ? existing : loaded);
+        return emitter;
+    }
+
+    /**
+     * Returns the shared state while someone watches the opportunity, otherwise reads it from GridDB without caching.
+     */
+    public SlotAvailability current(final String opportunityId) {
+        SlotAvailability state = states.get(opportunityId);
+        return state != null ? state : load(opportunityId);
+    }
+
+    /**
+     * Recomputes and broadcasts the state of a watched opportunity on a GridDB virtual thread. Requests that arrive
+     * while a recompute is still queued are folded into it.
+     */
+    public void refresh(final String opportunityId) {
+        if (!subscribers.containsKey(opportunityId) || !queued.add(opportunityId)) {
+            return;
+        }
+        gridDbClient
+                .supplyAsync(() -> {
+                    // later changes must schedule another read, so leave the queue before reading
+                    queued.remove(opportunityId);
+                    SlotAvailability state = load(opportunityId);
+                    if (subscribers.containsKey(opportunityId)) {
+                        states.put(opportunityId, state);
+                        broadcast(opportunityId, state);
+                    }
+                    return state;
+                })
+                .exceptionally(e -> {
+                    queued.remove(opportunityId);
+                    log.warn("Failed to refresh slot availability of {}: {}", opportunityId, e.getMessage());
+                    return null;
+                });
+    }
+
+    @EventListener
+    public void onRegistrationChanged(final RegistrationChangedEvent event) {
+        refresh(event.opportunityId());
+    }
+
+    @Scheduled(
+            initialDelayString = "${opportunity.slots.refresh-interval:60s}",
+            fixedDelayString = "${opportunity.slots.refresh-interval:60s}")
+    public void refreshAll() {
+        subscribers.keySet().forEach(this::refresh);
+    }
+
+    @PreDestroy
+    public void completeAll() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+        states.clear();
+        open.set(0);
+    }
+
+    private SlotAvailability load(final String opportunityId) {
+        Optional<OpportunityDTO> opportunity = opportunityService.getOneById(opportunityId);
+        return opportunity.isPresent() ? availability(opportunity.get()) : SlotAvailability.none(opportunityId);
+    }
+
+    private SlotAvailability availability(final OpportunityDTO opportunity) {
+        if (opportunity.getSlotsTotal() == null || opportunity.getSlotsTotal() <= 0) {
+            return SlotAvailability.none(opportunity.getId());
+        }
+        long registered = registrationService.countByOpportunityId(opportunity.getId());
+        return SlotAvailability.of(opportunity.getId(), opportunity.getSlotsTotal(), registered);
+    }
+
+    private void broadcast(final String opportunityId, final SlotAvailability state) {
+        List<SseEmitter> emitters = subscribers.get(opportunityId);
+        if (emitters != null) {
+            emitters.forEach(emitter -> send(opportunityId, emitter, state));
+        }
+    }
+
+    private void send(final String opportunityId, final SseEmitter emitter, final SlotAvailability state) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(state, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // the browser went away; the container calls onError/onCompletion as well
+            unsubscribe(opportunityId, emitter);
+        }
+    }
+
+    private void unsubscribe(final String opportunityId, final SseEmitter emitter) {
+        // completion, timeout, error and a failed send may all report the same emitter; count it once
+        AtomicBoolean removed = new AtomicBoolean();
+        List<SseEmitter> remaining = subscribers.computeIfPresent(opportunityId, (id, emitters) -> {
+            removed.set(emitters.remove(emitter));
+            return emitters.isEmpty() ? null : emitters;
+        });
+        if (removed.get()) {
+            open.decrementAndGet();
+        }
+        if (remaining == null) {
+            states.remove(opportunityId);
+        }
+    }
+}
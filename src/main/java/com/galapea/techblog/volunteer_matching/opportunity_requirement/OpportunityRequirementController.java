@@ -1,5 +1,6 @@
 package com.galapea.techblog.volunteer_matching.opportunity_requirement;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
 import com.galapea.techblog.volunteer_matching.security.CustomUserDetails;
 import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import jakarta.validation.Valid;
@@ -16,6 +17,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
 @RequestMapping("/opportunityRequirements")
+@GridDbCallBudget(1)
 public class OpportunityRequirementController {
 
     private final OpportunityRequirementService opportunityRequirementService;
@@ -1,8 +1,11 @@
 package com.galapea.techblog.volunteer_matching.opportunity_requirement;
 
 import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbIdentityMap;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowDecoder;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowEncoder;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsRequest;
-import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsResponse;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbCloudSQLStmt;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbColumn;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefinition;
@@ -10,7 +13,7 @@ import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLUpdateResponse;
 import com.galapea.techblog.volunteer_matching.util.NotFoundException;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -22,6 +25,22 @@ public class OpportunityRequirementGridDBService implements OpportunityRequireme
     private final GridDbClient gridDbClient;
     private final String TBL_NAME = "VoMaOpportunityRequirements";
 
+    public static final GridDbRowDecoder<OpportunityRequirementDTO> ROW_DECODER = row -> {
+        OpportunityRequirementDTO dto = new OpportunityRequirementDTO();
+        dto.setId(row.nextString());
+        dto.setOpportunityId(row.nextString());
+        dto.setSkillId(row.nextString());
+        dto.setIsMandatory(row.nextBoolean());
+        return dto;
+    };
+
+    public static final GridDbRowEncoder<OpportunityRequirementDTO> ROW_ENCODER = (requirement, row) -> {
+        row.string(requirement.getId());
+        row.string(requirement.getOpportunityId());
+        row.string(requirement.getSkillId());
+        row.bool(requirement.getIsMandatory());
+    };
+
     public OpportunityRequirementGridDBService(final GridDbClient gridDbClient) {
         this.gridDbClient = gridDbClient;
     }
@@ -38,121 +57,60 @@ public class OpportunityRequirementGridDBService implements OpportunityRequireme
     }
 
     @Override
-    public List<OpportunityRequirementDTO> findAll() {
-        AcquireRowsRequest requestBody =
-                AcquireRowsRequest.builder().limit(50L).sort("id ASC").build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return List.of();
-        }
-        return response.getRows().stream()
-                .map(row -> {
-                    return mapRowToDTO(row);
-                })
-                .collect(Collectors.toList());
+    public KeysetPage<OpportunityRequirementDTO> findPage(final String after, final int size) {
+        return this.gridDbClient.acquirePage(TBL_NAME, "", after, size, ROW_DECODER, OpportunityRequirementDTO::getId);
     }
 
-    @Override
-    public OpportunityRequirementDTO get(final String id) {
-        AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
-                .limit(1L)
-                .condition("id == '" + id + "'")
-                .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            throw new NotFoundException("OpportunityRequirement not found with id: " + id);
+    private List<OpportunityRequirementDTO> readAll(final String condition) {
+        try (Stream<OpportunityRequirementDTO> rows = this.gridDbClient.streamRows(
+                TBL_NAME, condition, GridDbClient.STREAM_PAGE_SIZE, ROW_DECODER, OpportunityRequirementDTO::getId)) {
+            return rows.toList();
         }
-        return response.getRows().stream()
-                .findFirst()
-                .map(row -> {
-                    return mapRowToDTO(row);
-                })
-                .orElseThrow(() -> new NotFoundException("OpportunityRequirement not found with id: " + id));
     }
 
-    private OpportunityRequirementDTO mapRowToDTO(List<Object> row) {
-        OpportunityRequirementDTO dto = new OpportunityRequirementDTO();
-        Object rid = row.get(0);
-        if (rid != null) {
-            try {
-                dto.setId(rid.toString());
-            } catch (Exception e) {
-                dto.setId(null);
-            }
-        }
-        dto.setOpportunityId((String) row.get(1));
-        dto.setSkillId((String) row.get(2));
-        Object im = row.get(3);
-        if (im != null) {
-            try {
-                if (im instanceof Boolean) dto.setIsMandatory((Boolean) im);
-                else dto.setIsMandatory(Boolean.valueOf(im.toString()));
-            } catch (Exception e) {
-                dto.setIsMandatory(null);
-            }
-        }
-        return dto;
+    @Override
+    public OpportunityRequirementDTO get(final String id) {
+        return GridDbIdentityMap.lookup(OpportunityRequirementDTO.class, id, () -> {
+            AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
+                    .limit(1L)
+                    .condition("id == '" + id + "'")
+                    .build();
+            return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("OpportunityRequirement not found with id: " + id));
+        });
     }
 
     @Override
     public String create(final OpportunityRequirementDTO opportunityRequirementDTO) {
-        String opportunityId = escapeString(opportunityRequirementDTO.getOpportunityId());
-        String skillId = escapeString(opportunityRequirementDTO.getSkillId());
         String id = opportunityRequirementDTO.getId() != null
                 ? opportunityRequirementDTO.getId()
-                : opportunityId + "-" + skillId;
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(opportunityId).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(skillId).append("\"");
-        sb.append(", ");
-        sb.append(
-                opportunityRequirementDTO.getIsMandatory() == null
-                        ? "null"
-                        : escapeString(
-                                opportunityRequirementDTO.getIsMandatory().toString()));
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Create OpportunityRequirement: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+                : opportunityRequirementDTO.getOpportunityId() + "-" + opportunityRequirementDTO.getSkillId();
+        opportunityRequirementDTO.setId(id);
+        log.info("Create OpportunityRequirement: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(opportunityRequirementDTO), ROW_ENCODER);
         return id;
     }
 
+    /**
+     * Stores all rows with a single {@code registerRows} call.
+     */
+    public void createMultiple(final List<OpportunityRequirementDTO> requirementDTOs) {
+        for (OpportunityRequirementDTO requirementDTO : requirementDTOs) {
+            if (requirementDTO.getId() == null) {
+                requirementDTO.setId(requirementDTO.getOpportunityId() + "-" + requirementDTO.getSkillId());
+            }
+        }
+        log.info("Create Multiple OpportunityRequirements: {} rows", requirementDTOs.size());
+        this.gridDbClient.registerRows(TBL_NAME, requirementDTOs, ROW_ENCODER);
+    }
+
     @Override
     public void update(final String id, final OpportunityRequirementDTO opportunityRequirementDTO) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append(id.toString());
-        sb.append(", ");
-        sb.append("\"")
-                .append(escapeString(opportunityRequirementDTO.getOpportunityId()))
-                .append("\"");
-        sb.append(", ");
-        sb.append("\"")
-                .append(escapeString(opportunityRequirementDTO.getSkillId()))
-                .append("\"");
-        sb.append(", ");
-        sb.append("\'")
-                .append(
-                        opportunityRequirementDTO.getIsMandatory() == null
-                                ? "null"
-                                : escapeString(opportunityRequirementDTO
-                                        .getIsMandatory()
-                                        .toString()));
-        sb.append("\'");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Update OpportunityRequirement: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        opportunityRequirementDTO.setId(id);
+        log.info("Update OpportunityRequirement: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(opportunityRequirementDTO), ROW_ENCODER);
+        GridDbIdentityMap.evict(OpportunityRequirementDTO.class, id);
     }
 
     @Override
@@ -167,21 +125,7 @@ public class OpportunityRequirementGridDBService implements OpportunityRequireme
 
     @Override
     public List<OpportunityRequirementDTO> findAllByOpportunityId(String opportunityId) {
-        AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
-                .limit(50L)
-                .condition("opportunityId == '" + opportunityId + "'")
-                .sort("id ASC")
-                .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return List.of();
-        }
-        return response.getRows().stream()
-                .map(row -> {
-                    return mapRowToDTO(row);
-                })
-                .collect(Collectors.toList());
+        return readAll("opportunityId == '" + opportunityId + "'");
     }
 
     @Override
@@ -1,5 +1,8 @@
 package com.galapea.techblog.volunteer_matching.opportunity_requirement;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import jakarta.validation.Valid;
 import java.util.List;
 import org.springframework.http.HttpStatus;
@@ -12,10 +15,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping(value = "/api/opportunityRequirements", produces = MediaType.APPLICATION_JSON_VALUE)
+@GridDbCallBudget(1)
 public class OpportunityRequirementResource {
 
     private final OpportunityRequirementService opportunityRequirementService;
@@ -25,8 +30,10 @@ public class OpportunityRequirementResource {
     }
 
     @GetMapping
-    public ResponseEntity<List<OpportunityRequirementDTO>> getAllOpportunityRequirements() {
-        return ResponseEntity.ok(opportunityRequirementService.findAll());
+    public ResponseEntity<List<OpportunityRequirementDTO>> getAllOpportunityRequirements(
+            @RequestParam(name = "after", required = false) final String after,
+            @RequestParam(name = "size", defaultValue = "" + KeysetPage.DEFAULT_SIZE) final int size) {
+        return WebUtils.pageResponse(opportunityRequirementService.findPage(after, size));
     }
 
     @GetMapping("/{id}")
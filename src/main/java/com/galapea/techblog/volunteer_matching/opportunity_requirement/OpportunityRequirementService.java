@@ -1,10 +1,11 @@
 package com.galapea.techblog.volunteer_matching.opportunity_requirement;
 
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import java.util.List;
 
 public interface OpportunityRequirementService {
 
-    List<OpportunityRequirementDTO> findAll();
+    KeysetPage<OpportunityRequirementDTO> findPage(String after, int size);
 
     List<OpportunityRequirementDTO> findAllByOpportunityId(String opportunityId);
 
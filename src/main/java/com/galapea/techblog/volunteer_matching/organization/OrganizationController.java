@@ -1,5 +1,6 @@
 package com.galapea.techblog.volunteer_matching.organization;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
 import com.galapea.techblog.volunteer_matching.security.CustomUserDetails;
 import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import jakarta.validation.Valid;
@@ -16,6 +17,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
 @RequestMapping("/organizations")
+@GridDbCallBudget(1)
 public class OrganizationController {
 
     private final OrganizationService organizationService;
@@ -42,6 +44,7 @@ public class OrganizationController {
     }
 
     @PostMapping("/add")
+    @GridDbCallBudget(2)
     public String add(
             @ModelAttribute("organization") @Valid final OrganizationDTO organizationDTO,
             final BindingResult bindingResult,
@@ -1,16 +1,19 @@
 package com.galapea.techblog.volunteer_matching.organization;
 
 import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbIdentityMap;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowDecoder;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowEncoder;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsRequest;
-import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsResponse;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbColumn;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefinition;
 import com.galapea.techblog.volunteer_matching.util.NotFoundException;
 import com.github.f4b6a3.tsid.TsidCreator;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -22,6 +25,22 @@ public class OrganizationGridDBService implements OrganizationService {
     private final GridDbClient gridDbClient;
     private final String TBL_NAME = "VoMaOrganizations";
 
+    public static final GridDbRowDecoder<OrganizationDTO> ROW_DECODER = row -> {
+        OrganizationDTO dto = new OrganizationDTO();
+        dto.setId(row.nextString());
+        dto.setName(row.nextString());
+        dto.setWebsiteUrl(row.nextString());
+        dto.setAdminUserId(row.nextString());
+        return dto;
+    };
+
+    public static final GridDbRowEncoder<OrganizationDTO> ROW_ENCODER = (organization, row) -> {
+        row.string(organization.getId());
+        row.string(organization.getName());
+        row.string(organization.getWebsiteUrl());
+        row.string(organization.getAdminUserId());
+    };
+
     public OrganizationGridDBService(final GridDbClient gridDbClient) {
         this.gridDbClient = gridDbClient;
     }
@@ -38,48 +57,21 @@ public class OrganizationGridDBService implements OrganizationService {
     }
 
     @Override
-    public List<OrganizationDTO> findAll() {
-        AcquireRowsRequest requestBody =
-                AcquireRowsRequest.builder().limit(50L).sort("id ASC").build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return List.of();
-        }
-        return response.getRows().stream()
-                .map(row -> {
-                    OrganizationDTO dto = new OrganizationDTO();
-                    dto.setId((String) row.get(0));
-                    dto.setName((String) row.get(1));
-                    dto.setWebsiteUrl((String) row.get(2));
-                    dto.setAdminUserId((String) row.get(3));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+    public KeysetPage<OrganizationDTO> findPage(final String after, final int size) {
+        return this.gridDbClient.acquirePage(TBL_NAME, "", after, size, ROW_DECODER, OrganizationDTO::getId);
     }
 
     @Override
     public OrganizationDTO get(final String id) {
-        AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
-                .limit(1L)
-                .condition("id == '" + id + "'")
-                .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            throw new NotFoundException("Organization not found with id: " + id);
-        }
-        return response.getRows().stream()
-                .findFirst()
-                .map(row -> {
-                    OrganizationDTO dto = new OrganizationDTO();
-                    dto.setId((String) row.get(0));
-                    dto.setName((String) row.get(1));
-                    dto.setWebsiteUrl((String) row.get(2));
-                    dto.setAdminUserId((String) row.get(3));
-                    return dto;
-                })
-                .orElseThrow(() -> new NotFoundException("Organization not found with id: " + id));
+        return GridDbIdentityMap.lookup(OrganizationDTO.class, id, () -> {
+            AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
+                    .limit(1L)
+                    .condition("id == '" + id + "'")
+                    .build();
+            return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("Organization not found with id: " + id));
+        });
     }
 
     public String nextId() {
@@ -91,41 +83,31 @@ public class OrganizationGridDBService implements OrganizationService {
         String id = organizationDTO.getId() != null && !organizationDTO.getId().isBlank()
                 ? organizationDTO.getId()
                 : nextId();
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(organizationDTO.getName())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(organizationDTO.getWebsiteUrl())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(organizationDTO.getAdminUserId())).append("\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Create Organization: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        organizationDTO.setId(id);
+        log.info("Create Organization: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(organizationDTO), ROW_ENCODER);
         return id;
     }
 
+    /**
+     * Stores all rows with a single {@code registerRows} call.
+     */
+    public void createMultiple(final List<OrganizationDTO> organizationDTOs) {
+        for (OrganizationDTO organizationDTO : organizationDTOs) {
+            if (organizationDTO.getId() == null || organizationDTO.getId().isBlank()) {
+                organizationDTO.setId(nextId());
+            }
+        }
+        log.info("Create Multiple Organizations: {} rows", organizationDTOs.size());
+        this.gridDbClient.registerRows(TBL_NAME, organizationDTOs, ROW_ENCODER);
+    }
+
     @Override
     public void update(final String id, final OrganizationDTO organizationDTO) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(organizationDTO.getName())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(organizationDTO.getWebsiteUrl())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(organizationDTO.getAdminUserId())).append("\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Update Organization: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        organizationDTO.setId(id);
+        log.info("Update Organization: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(organizationDTO), ROW_ENCODER);
+        GridDbIdentityMap.evict(OrganizationDTO.class, id);
     }
 
     @Override
@@ -135,8 +117,12 @@ public class OrganizationGridDBService implements OrganizationService {
 
     @Override
     public boolean idExists(final String id) {
-        OrganizationDTO org = get(id);
-        return org != null;
+        return this.gridDbClient.exists(TBL_NAME, id);
+    }
+
+    @Override
+    public boolean existAll(final Collection<String> ids) {
+        return this.gridDbClient.findExistingIds(TBL_NAME, ids).containsAll(ids);
     }
 
     public Optional<OrganizationDTO> getOneByName(final String name) {
@@ -144,23 +130,8 @@ public class OrganizationGridDBService implements OrganizationService {
                 .limit(1L)
                 .condition("name == '" + name + "'")
                 .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return Optional.empty();
-        }
-        OrganizationDTO dto = response.getRows().stream()
-                .findFirst()
-                .map(row -> {
-                    OrganizationDTO d = new OrganizationDTO();
-                    d.setId((String) row.get(0));
-                    d.setName((String) row.get(1));
-                    d.setWebsiteUrl((String) row.get(2));
-                    d.setAdminUserId((String) row.get(3));
-                    return d;
-                })
-                .orElse(null);
-        return Optional.ofNullable(dto);
+        return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                .findFirst();
     }
 
     public Optional<OrganizationDTO> getOneByAdminUserId(final String adminUserId) {
@@ -168,27 +139,7 @@ public class OrganizationGridDBService implements OrganizationService {
                 .limit(1L)
                 .condition("adminUserId == '" + adminUserId + "'")
                 .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return Optional.empty();
-        }
-        OrganizationDTO dto = response.getRows().stream()
-                .findFirst()
-                .map(row -> {
-                    OrganizationDTO d = new OrganizationDTO();
-                    d.setId((String) row.get(0));
-                    d.setName((String) row.get(1));
-                    d.setWebsiteUrl((String) row.get(2));
-                    d.setAdminUserId((String) row.get(3));
-                    return d;
-                })
-                .orElse(null);
-        return Optional.ofNullable(dto);
-    }
-
-    private String escapeString(String input) {
-        if (input == null) return null;
-        return input.replace("\\", "\\\\").replace("'", "\\'").replace("\"", "\\\"");
+        return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                .findFirst();
     }
 }
@@ -1,11 +1,12 @@
 package com.galapea.techblog.volunteer_matching.organization;
 
-import java.util.List;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import java.util.Collection;
 import java.util.Optional;
 
 public interface OrganizationService {
 
-    List<OrganizationDTO> findAll();
+    KeysetPage<OrganizationDTO> findPage(String after, int size);
 
     OrganizationDTO get(String id);
 
@@ -17,6 +18,11 @@ public interface OrganizationService {
 
     boolean idExists(String id);
 
+    /**
+     * Whether every one of {@code ids} exists, checked in a single round trip.
+     */
+    boolean existAll(Collection<String> ids);
+
     public Optional<OrganizationDTO> getOneByName(final String name);
 
     public Optional<OrganizationDTO> getOneByAdminUserId(final String adminUserId);
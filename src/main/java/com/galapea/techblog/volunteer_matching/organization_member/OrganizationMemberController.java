@@ -1,5 +1,7 @@
 package com.galapea.techblog.volunteer_matching.organization_member;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import jakarta.validation.Valid;
 import org.springframework.stereotype.Controller;
@@ -10,10 +12,12 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
 @RequestMapping("/organizationMembers")
+@GridDbCallBudget(1)
 public class OrganizationMemberController {
 
     private final OrganizationMemberService organizationMemberService;
@@ -28,8 +32,15 @@ public class OrganizationMemberController {
     }
 
     @GetMapping
-    public String list(final Model model) {
-        model.addAttribute("organizationMembers", organizationMemberService.findAll());
+    public String list(
+            @RequestParam(name = "after", required = false) final String after,
+            @RequestParam(name = "size", defaultValue = "" + KeysetPage.DEFAULT_SIZE) final int size,
+            final Model model) {
+        KeysetPage<OrganizationMemberDTO> page = organizationMemberService.findPage(after, size);
+        model.addAttribute("organizationMembers", page.content());
+        model.addAttribute("organizationMemberPage", page);
+        model.addAttribute("isFirstPage", after == null || after.isBlank());
+        model.addAttribute("pageSize", KeysetPage.clampSize(size));
         return "organizationMember/list";
     }
 
@@ -39,6 +50,7 @@ public class OrganizationMemberController {
     }
 
     @PostMapping("/add")
+    @GridDbCallBudget(2)
     public String add(
             @ModelAttribute("organizationMember") @Valid final OrganizationMemberDTO organizationMemberDTO,
             final BindingResult bindingResult,
@@ -1,16 +1,19 @@
 package com.galapea.techblog.volunteer_matching.organization_member;
 
 import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbIdentityMap;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowDecoder;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowEncoder;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsRequest;
-import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsResponse;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbColumn;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefinition;
 import com.galapea.techblog.volunteer_matching.util.NotFoundException;
 import com.github.f4b6a3.tsid.TsidCreator;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -22,6 +25,22 @@ public class OrganizationMemberGridDBService implements OrganizationMemberServic
     private final GridDbClient gridDbClient;
     private final String TBL_NAME = "VoMaOrganizationMembers";
 
+    public static final GridDbRowDecoder<OrganizationMemberDTO> ROW_DECODER = row -> {
+        OrganizationMemberDTO dto = new OrganizationMemberDTO();
+        dto.setId(row.nextString());
+        dto.setUserId(row.nextString());
+        dto.setOrgId(row.nextString());
+        dto.setMemberRole(row.nextEnum(MemberRole.class));
+        return dto;
+    };
+
+    public static final GridDbRowEncoder<OrganizationMemberDTO> ROW_ENCODER = (member, row) -> {
+        row.string(member.getId());
+        row.string(member.getUserId());
+        row.string(member.getOrgId());
+        row.enumName(member.getMemberRole());
+    };
+
     public OrganizationMemberGridDBService(final GridDbClient gridDbClient) {
         this.gridDbClient = gridDbClient;
     }
@@ -38,62 +57,21 @@ public class OrganizationMemberGridDBService implements OrganizationMemberServic
     }
 
     @Override
-    public List<OrganizationMemberDTO> findAll() {
-        AcquireRowsRequest requestBody =
-                AcquireRowsRequest.builder().limit(50L).sort("id ASC").build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return List.of();
-        }
-        return response.getRows().stream()
-                .map(row -> {
-                    OrganizationMemberDTO dto = new OrganizationMemberDTO();
-                    dto.setId((String) row.get(0));
-                    dto.setUserId((String) row.get(1));
-                    dto.setOrgId((String) row.get(2));
-                    Object mr = row.get(3);
-                    if (mr != null) {
-                        try {
-                            dto.setMemberRole(MemberRole.valueOf(mr.toString()));
-                        } catch (Exception e) {
-                            dto.setMemberRole(null);
-                        }
-                    }
-                    return dto;
-                })
-                .collect(Collectors.toList());
+    public KeysetPage<OrganizationMemberDTO> findPage(final String after, final int size) {
+        return this.gridDbClient.acquirePage(TBL_NAME, "", after, size, ROW_DECODER, OrganizationMemberDTO::getId);
     }
 
     @Override
     public OrganizationMemberDTO get(final String id) {
-        AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
-                .limit(1L)
-                .condition("id == '" + id + "'")
-                .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            throw new NotFoundException("OrganizationMember not found with id: " + id);
-        }
-        return response.getRows().stream()
-                .findFirst()
-                .map(row -> {
-                    OrganizationMemberDTO dto = new OrganizationMemberDTO();
-                    dto.setId((String) row.get(0));
-                    dto.setUserId((String) row.get(1));
-                    dto.setOrgId((String) row.get(2));
-                    Object mr = row.get(3);
-                    if (mr != null) {
-                        try {
-                            dto.setMemberRole(MemberRole.valueOf(mr.toString()));
-                        } catch (Exception e) {
-                            dto.setMemberRole(null);
-                        }
-                    }
-                    return dto;
-                })
-                .orElseThrow(() -> new NotFoundException("OrganizationMember not found with id: " + id));
+        return GridDbIdentityMap.lookup(OrganizationMemberDTO.class, id, () -> {
+            AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
+                    .limit(1L)
+                    .condition("id == '" + id + "'")
+                    .build();
+            return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("OrganizationMember not found with id: " + id));
+        });
     }
 
     public String nextId() {
@@ -106,51 +84,18 @@ public class OrganizationMemberGridDBService implements OrganizationMemberServic
                         && !organizationMemberDTO.getId().isBlank()
                 ? organizationMemberDTO.getId()
                 : nextId();
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(organizationMemberDTO.getUserId())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(organizationMemberDTO.getOrgId())).append("\"");
-        sb.append(", ");
-        sb.append(
-                organizationMemberDTO.getMemberRole() == null
-                        ? "null"
-                        : "\""
-                                + escapeString(
-                                        organizationMemberDTO.getMemberRole().name()) + "\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Create OrganizationMember: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        organizationMemberDTO.setId(id);
+        log.info("Create OrganizationMember: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(organizationMemberDTO), ROW_ENCODER);
         return id;
     }
 
     @Override
     public void update(final String id, final OrganizationMemberDTO organizationMemberDTO) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(organizationMemberDTO.getUserId())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(organizationMemberDTO.getOrgId())).append("\"");
-        sb.append(", ");
-        sb.append(
-                organizationMemberDTO.getMemberRole() == null
-                        ? "null"
-                        : "\""
-                                + escapeString(
-                                        organizationMemberDTO.getMemberRole().name()) + "\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Update OrganizationMember: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        organizationMemberDTO.setId(id);
+        log.info("Update OrganizationMember: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(organizationMemberDTO), ROW_ENCODER);
+        GridDbIdentityMap.evict(OrganizationMemberDTO.class, id);
     }
 
     @Override
@@ -160,8 +105,12 @@ public class OrganizationMemberGridDBService implements OrganizationMemberServic
 
     @Override
     public boolean idExists(final String id) {
-        OrganizationMemberDTO om = get(id);
-        return om != null;
+        return this.gridDbClient.exists(TBL_NAME, id);
+    }
+
+    @Override
+    public boolean existAll(final Collection<String> ids) {
+        return this.gridDbClient.findExistingIds(TBL_NAME, ids).containsAll(ids);
     }
 
     public Optional<OrganizationMemberDTO> getOneByUserId(final String userId) {
@@ -169,34 +118,7 @@ public class OrganizationMemberGridDBService implements OrganizationMemberServic
                 .limit(1L)
                 .condition("userId == '" + userId + "'")
                 .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return Optional.empty();
-        }
-        OrganizationMemberDTO dto = response.getRows().stream()
-                .findFirst()
-                .map(row -> {
-                    OrganizationMemberDTO d = new OrganizationMemberDTO();
-                    d.setId((String) row.get(0));
-                    d.setUserId((String) row.get(1));
-                    d.setOrgId((String) row.get(2));
-                    Object mr = row.get(3);
-                    if (mr != null) {
-                        try {
-                            d.setMemberRole(MemberRole.valueOf(mr.toString()));
-                        } catch (Exception e) {
-                            d.setMemberRole(null);
-                        }
-                    }
-                    return d;
-                })
-                .orElse(null);
-        return Optional.ofNullable(dto);
-    }
-
-    private String escapeString(String input) {
-        if (input == null) return null;
-        return input.replace("\\", "\\\\").replace("'", "\\'").replace("\"", "\\\"");
+        return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                .findFirst();
     }
 }
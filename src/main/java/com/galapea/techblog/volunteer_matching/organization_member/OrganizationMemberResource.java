@@ -1,5 +1,8 @@
 package com.galapea.techblog.volunteer_matching.organization_member;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import jakarta.validation.Valid;
 import java.util.List;
 import org.springframework.http.HttpStatus;
@@ -12,10 +15,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping(value = "/api/organizationMembers", produces = MediaType.APPLICATION_JSON_VALUE)
+@GridDbCallBudget(1)
 public class OrganizationMemberResource {
 
     private final OrganizationMemberService organizationMemberService;
@@ -25,8 +30,10 @@ public class OrganizationMemberResource {
     }
 
     @GetMapping
-    public ResponseEntity<List<OrganizationMemberDTO>> getAllOrganizationMembers() {
-        return ResponseEntity.ok(organizationMemberService.findAll());
+    public ResponseEntity<List<OrganizationMemberDTO>> getAllOrganizationMembers(
+            @RequestParam(name = "after", required = false) final String after,
+            @RequestParam(name = "size", defaultValue = "" + KeysetPage.DEFAULT_SIZE) final int size) {
+        return WebUtils.pageResponse(organizationMemberService.findPage(after, size));
     }
 
     @GetMapping("/{id}")
@@ -35,6 +42,7 @@ public class OrganizationMemberResource {
     }
 
     @PostMapping
+    @GridDbCallBudget(2)
     public ResponseEntity<String> createOrganizationMember(
             @RequestBody @Valid final OrganizationMemberDTO organizationMemberDTO) {
         final String createdId = organizationMemberService.create(organizationMemberDTO);
@@ -1,10 +1,11 @@
 package com.galapea.techblog.volunteer_matching.organization_member;
 
-import java.util.List;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import java.util.Collection;
 
 public interface OrganizationMemberService {
 
-    List<OrganizationMemberDTO> findAll();
+    KeysetPage<OrganizationMemberDTO> findPage(String after, int size);
 
     OrganizationMemberDTO get(String id);
 
@@ -15,4 +16,9 @@ public interface OrganizationMemberService {
     void delete(String id);
 
     boolean idExists(String id);
+
+    /**
+     * Whether every one of {@code ids} exists, checked in a single round trip.
+     */
+    boolean existAll(Collection<String> ids);
 }
@@ -1,8 +1,12 @@
 package com.galapea.techblog.volunteer_matching.registration;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
 /**
  * Exception thrown when an opportunity has no available slots for registration.
  */
+@ResponseStatus(HttpStatus.CONFLICT)
 public class OpportunitySlotsFullException extends RuntimeException {
     private final String opportunityId;
     private final Long slotsTotal;
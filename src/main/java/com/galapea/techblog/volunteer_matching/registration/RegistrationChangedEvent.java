@@ -0,0 +1,7 @@
+package com.galapea.techblog.volunteer_matching.registration;
+
+/**
+ * Published after a registration of {@code opportunityId} was written, so listeners can recompute anything derived
+ * from the registration count.
+ */
+public record RegistrationChangedEvent(String opportunityId) {}
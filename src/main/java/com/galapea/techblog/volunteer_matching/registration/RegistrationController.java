@@ -1,23 +1,16 @@
 package com.galapea.techblog.volunteer_matching.registration;
 
-import com.galapea.techblog.volunteer_matching.opportunity.OpportunityDTO;
-import com.galapea.techblog.volunteer_matching.opportunity.OpportunityService;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
 import com.galapea.techblog.volunteer_matching.organization.OrganizationDTO;
 import com.galapea.techblog.volunteer_matching.security.CustomUserDetails;
 import com.galapea.techblog.volunteer_matching.security.SecurityExpressions;
-import com.galapea.techblog.volunteer_matching.user.UserDTO;
-import com.galapea.techblog.volunteer_matching.user.UserService;
 import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import jakarta.validation.Valid;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -26,23 +19,18 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
 @RequestMapping("/registrations")
+@GridDbCallBudget(1)
 public class RegistrationController {
     private final Logger log = LoggerFactory.getLogger(getClass());
     private final RegistrationService registrationService;
-    private final UserService userService;
-    private final OpportunityService opportunityService;
 
-    public RegistrationController(
-            final RegistrationService registrationService,
-            final UserService userService,
-            final OpportunityService opportunityService) {
+    public RegistrationController(final RegistrationService registrationService) {
         this.registrationService = registrationService;
-        this.userService = userService;
-        this.opportunityService = opportunityService;
     }
 
     @ModelAttribute
@@ -51,50 +39,26 @@ public class RegistrationController {
     }
 
     @GetMapping
-    public String list(final Model model, @AuthenticationPrincipal final CustomUserDetails userDetails) {
-        List<RegistrationDTO> allRegistrations = new ArrayList<>();
+    @GridDbCallBudget(1)
+    public String list(
+            final Model model,
+            @AuthenticationPrincipal final CustomUserDetails userDetails,
+            @RequestParam(name = "page", defaultValue = "0") final int page,
+            @RequestParam(name = "size", defaultValue = "20") final int size,
+            @RequestParam(name = "sort", defaultValue = "registrationTime,desc") final String sort) {
+        String orgId = null;
         if (userDetails != null
                 && userDetails.getOrganizations() != null
                 && !userDetails.getOrganizations().isEmpty()) {
             OrganizationDTO org = userDetails.getOrganizations().get(0);
             model.addAttribute("organization", org);
-            allRegistrations = registrationService.findAllByOrgId(org.getId());
+            orgId = org.getId();
         } else {
             model.addAttribute("organization", null);
-            allRegistrations = registrationService.findAll();
         }
-        List<RegistrationResponse> responses = allRegistrations.stream()
-                .map(r -> {
-                    String fullName = "";
-                    String opportunityTitle = "";
-                    if (r.getUserId() != null && !r.getUserId().isBlank()) {
-                        UserDTO u = userService.get(r.getUserId());
-                        if (u != null && u.getFullName() != null) {
-                            fullName = u.getFullName();
-                        }
-                    }
-                    if (r.getOpportunityId() != null && !r.getOpportunityId().isBlank()) {
-                        OpportunityDTO o = opportunityService.get(r.getOpportunityId());
-                        if (o != null && o.getTitle() != null) {
-                            opportunityTitle = o.getTitle();
-                        }
-                    }
-                    String status = r.getStatus() == null ? "" : r.getStatus().name();
-                    String registrationTime = r.getRegistrationTime() == null
-                            ? ""
-                            : r.getRegistrationTime().toString();
-                    return new RegistrationResponse(
-                            r.getId(),
-                            r.getUserId(),
-                            r.getOpportunityId(),
-                            status,
-                            status.compareToIgnoreCase(RegistrationStatus.PENDING.name()) == 0 ? true : false,
-                            registrationTime,
-                            fullName,
-                            opportunityTitle);
-                })
-                .collect(Collectors.toList());
-        model.addAttribute("registrations", responses);
+        RegistrationResponsePage registrationPage = registrationService.findResponsePage(orgId, page, size, sort);
+        model.addAttribute("registrations", registrationPage.content());
+        model.addAttribute("registrationPage", registrationPage);
         return "registration/list";
     }
 
@@ -104,22 +68,25 @@ public class RegistrationController {
     }
 
     @PostMapping("/add")
+    @GridDbCallBudget(7)
     @PreAuthorize(SecurityExpressions.ORGANIZER_ONLY)
     public String add(
             @ModelAttribute("registration") @Valid final RegistrationDTO registrationDTO,
             final BindingResult bindingResult,
             final RedirectAttributes redirectAttributes,
-            @AuthenticationPrincipal final UserDetails userDetails) {
+            @AuthenticationPrincipal final CustomUserDetails userDetails) {
         if (bindingResult.hasErrors()) {
             return "registration/add";
         }
         log.debug("User: {}", userDetails);
-        UserDTO user = userService
-                .getOneByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        registrationDTO.setUserId(user.getId());
+        registrationDTO.setUserId(userDetails.getUserId());
         registrationDTO.setStatus(RegistrationStatus.PENDING);
-        registrationService.create(registrationDTO);
+        try {
+            registrationService.create(registrationDTO);
+        } catch (OpportunitySlotsFullException e) {
+            bindingResult.rejectValue("opportunityId", "opportunity.registrations.full");
+            return "registration/add";
+        }
         redirectAttributes.addFlashAttribute(WebUtils.MSG_SUCCESS, WebUtils.getMessage("registration.create.success"));
         return "redirect:/registrations";
     }
@@ -132,6 +99,7 @@ public class RegistrationController {
     }
 
     @PostMapping("/edit/{id}")
+    @GridDbCallBudget(9)
     @PreAuthorize(SecurityExpressions.ORGANIZER_ONLY)
     public String edit(
             @PathVariable(name = "id") final String id,
@@ -141,7 +109,12 @@ public class RegistrationController {
         if (bindingResult.hasErrors()) {
             return "registration/edit";
         }
-        registrationService.update(id, registrationDTO);
+        try {
+            registrationService.update(id, registrationDTO);
+        } catch (OpportunitySlotsFullException e) {
+            bindingResult.rejectValue("opportunityId", "opportunity.registrations.full");
+            return "registration/edit";
+        }
         redirectAttributes.addFlashAttribute(WebUtils.MSG_SUCCESS, WebUtils.getMessage("registration.update.success"));
         return "redirect:/registrations";
     }
@@ -155,18 +128,62 @@ public class RegistrationController {
     }
 
     @PostMapping("/approve/{id}")
+    @GridDbCallBudget(2)
     @PreAuthorize(SecurityExpressions.ORGANIZER_ONLY)
-    public String approve(@PathVariable(name = "id") final String id, final RedirectAttributes redirectAttributes) {
-        registrationService.delete(id);
-        redirectAttributes.addFlashAttribute(WebUtils.MSG_INFO, WebUtils.getMessage("registration.approve.success"));
+    public String approve(
+            @PathVariable(name = "id") final String id,
+            final RedirectAttributes redirectAttributes,
+            @AuthenticationPrincipal final CustomUserDetails userDetails) {
+        try {
+            registrationService.approve(userDetails.getOrganizationId(), id);
+            redirectAttributes.addFlashAttribute(
+                    WebUtils.MSG_INFO, WebUtils.getMessage("registration.approve.success"));
+        } catch (IllegalStateException e) {
+            redirectAttributes.addFlashAttribute(WebUtils.MSG_ERROR, WebUtils.getMessage("registration.notPending"));
+        }
         return "redirect:/registrations";
     }
 
     @PostMapping("/reject/{id}")
+    @GridDbCallBudget(3)
     @PreAuthorize(SecurityExpressions.ORGANIZER_ONLY)
-    public String reject(@PathVariable(name = "id") final String id, final RedirectAttributes redirectAttributes) {
-        registrationService.delete(id);
-        redirectAttributes.addFlashAttribute(WebUtils.MSG_INFO, WebUtils.getMessage("registration.reject.success"));
+    public String reject(
+            @PathVariable(name = "id") final String id,
+            final RedirectAttributes redirectAttributes,
+            @AuthenticationPrincipal final CustomUserDetails userDetails) {
+        try {
+            registrationService.reject(userDetails.getOrganizationId(), id);
+            redirectAttributes.addFlashAttribute(
+                    WebUtils.MSG_INFO, WebUtils.getMessage("registration.reject.success"));
+        } catch (IllegalStateException e) {
+            redirectAttributes.addFlashAttribute(WebUtils.MSG_ERROR, WebUtils.getMessage("registration.notPending"));
+        }
+        return "redirect:/registrations";
+    }
+
+    @PostMapping("/bulk")
+    @GridDbCallBudget(3)
+    @PreAuthorize(SecurityExpressions.ORGANIZER_ONLY)
+    public String bulk(
+            @RequestParam(name = "ids", required = false) final List<String> ids,
+            @RequestParam(name = "action") final String action,
+            final RedirectAttributes redirectAttributes,
+            @AuthenticationPrincipal final CustomUserDetails userDetails) {
+        if (ids == null || ids.isEmpty()) {
+            redirectAttributes.addFlashAttribute(WebUtils.MSG_INFO, WebUtils.getMessage("registration.bulk.empty"));
+            return "redirect:/registrations";
+        }
+        String orgId = userDetails.getOrganizationId();
+        List<RegistrationTransition> transitions =
+                switch (action) {
+                    case "approve" -> registrationService.approveAll(orgId, ids);
+                    case "reject" -> registrationService.rejectAll(orgId, ids);
+                    default -> throw new IllegalArgumentException("Unknown bulk action: " + action);
+                };
+        long applied = transitions.stream().filter(RegistrationTransition::applied).count();
+        redirectAttributes.addFlashAttribute(
+                WebUtils.MSG_INFO,
+                WebUtils.getMessage("registration.bulk.result", applied, transitions.size() - applied));
         return "redirect:/registrations";
     }
 }
@@ -1,22 +1,37 @@
 package com.galapea.techblog.volunteer_matching.registration;
 
 import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbIdentityMap;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowDecoder;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowEncoder;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsRequest;
-import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsResponse;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbCloudSQLStmt;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbColumn;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefinition;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLSelectResponse;
-import com.galapea.techblog.volunteer_matching.util.DateTimeUtil;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLUpdateResponse;
+import com.galapea.techblog.volunteer_matching.opportunity.OpportunityDTO;
+import com.galapea.techblog.volunteer_matching.opportunity.OpportunityService;
 import com.galapea.techblog.volunteer_matching.util.NotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.f4b6a3.tsid.TsidCreator;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -24,10 +39,52 @@ public class RegistrationGridDBService implements RegistrationService {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
     private final GridDbClient gridDbClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OpportunityService opportunityService;
+    private final SlotReservationService slotReservationService;
+    /** Non-cancelled registrations per opportunity, adjusted in place on register/approve/reject. */
+    private final Cache<String, Long> takenCounts;
     private final String TBL_NAME = "VoMaRegistrations";
+    private static final String DEFAULT_SORT = "registrationTime,desc";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "registrationTime", "reg.registrationTime",
+            "status", "reg.status",
+            "fullName", "usr.fullName",
+            "opportunityTitle", "opp.title");
 
-    public RegistrationGridDBService(final GridDbClient gridDbClient) {
+    public static final GridDbRowDecoder<RegistrationDTO> ROW_DECODER = row -> {
+        RegistrationDTO dto = new RegistrationDTO();
+        dto.setId(row.nextString());
+        dto.setUserId(row.nextString());
+        dto.setOpportunityId(row.nextString());
+        dto.setStatus(row.nextEnum(RegistrationStatus.class));
+        dto.setRegistrationTime(row.nextLocalDateTime());
+        return dto;
+    };
+
+    public static final GridDbRowEncoder<RegistrationDTO> ROW_ENCODER = (registration, row) -> {
+        row.string(registration.getId());
+        row.string(registration.getUserId());
+        row.string(registration.getOpportunityId());
+        row.enumName(registration.getStatus());
+        row.timestamp(registration.getRegistrationTime());
+    };
+
+    public RegistrationGridDBService(
+            final GridDbClient gridDbClient,
+            final ApplicationEventPublisher eventPublisher,
+            final OpportunityService opportunityService,
+            final SlotReservationService slotReservationService,
+            @Value("${registrations.count-cache.ttl:2m}") final Duration countTtl,
+            @Value("${registrations.count-cache.max-size:10000}") final long countMaxSize) {
         this.gridDbClient = gridDbClient;
+        this.eventPublisher = eventPublisher;
+        this.opportunityService = opportunityService;
+        this.slotReservationService = slotReservationService;
+        this.takenCounts = Caffeine.newBuilder()
+                .maximumSize(countMaxSize)
+                .expireAfterWrite(countTtl)
+                .build();
     }
 
     public void createTable() {
@@ -43,119 +100,107 @@ public class RegistrationGridDBService implements RegistrationService {
     }
 
     @Override
-    public List<RegistrationDTO> findAll() {
-        AcquireRowsRequest requestBody =
-                AcquireRowsRequest.builder().limit(50L).sort("id ASC").build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return List.of();
-        }
-        return response.getRows().stream()
-                .map(row -> {
-                    return extractRowToDTO(row);
-                })
-                .collect(Collectors.toList());
-    }
-
-    private RegistrationDTO extractRowToDTO(List<Object> row) {
-        RegistrationDTO dto = new RegistrationDTO();
-        dto.setId((String) row.get(0));
-        dto.setUserId((String) row.get(1));
-        dto.setOpportunityId((String) row.get(2));
-        try {
-            dto.setStatus(RegistrationStatus.valueOf(row.get(3).toString()));
-        } catch (Exception e) {
-            dto.setStatus(null);
-        }
-        try {
-            dto.setRegistrationTime(DateTimeUtil.parseToLocalDateTime(row.get(4).toString()));
-        } catch (Exception e) {
-            dto.setRegistrationTime(null);
-        }
-        return dto;
+    public KeysetPage<RegistrationDTO> findPage(final String after, final int size) {
+        return this.gridDbClient.acquirePage(TBL_NAME, "", after, size, ROW_DECODER, RegistrationDTO::getId);
     }
 
     @Override
     public RegistrationDTO get(final String id) {
-        AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
-                .limit(1L)
-                .condition("id == '" + id + "'")
-                .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            throw new NotFoundException("Registration not found with id: " + id);
-        }
-        return response.getRows().stream()
-                .findFirst()
-                .map(row -> {
-                    return extractRowToDTO(row);
-                })
-                .orElseThrow(() -> new NotFoundException("Registration not found with id: " + id));
+        return GridDbIdentityMap.lookup(RegistrationDTO.class, id, () -> {
+            AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
+                    .limit(1L)
+                    .condition("id == '" + id + "'")
+                    .build();
+            return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("Registration not found with id: " + id));
+        });
     }
 
     public String nextId() {
         return TsidCreator.getTsid().format("reg_%s");
     }
 
+    /**
+     * Stores a new registration. One that holds a slot first reserves it through {@link SlotReservationService}.
+     *
+     * @throws OpportunitySlotsFullException if the opportunity has no slot left
+     */
     @Override
     public String create(final RegistrationDTO registrationDTO) {
         String id = registrationDTO.getId() != null && !registrationDTO.getId().isBlank()
                 ? registrationDTO.getId()
                 : nextId();
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(registrationDTO.getUserId())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(registrationDTO.getOpportunityId())).append("\"");
-        sb.append(", ");
-        sb.append(
-                registrationDTO.getStatus() == null
-                        ? "null"
-                        : "\"" + escapeString(registrationDTO.getStatus().name()) + "\"");
-        sb.append(", ");
-        sb.append("\"")
-                .append(DateTimeUtil.formatToZoneDateTimeString(registrationDTO.getRegistrationTime()))
-                .append("\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Create Registration: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        registrationDTO.setId(id);
+        log.info("Create Registration: {}", id);
+        boolean reserved = isTaken(registrationDTO.getStatus());
+        if (reserved) {
+            reserveSlot(registrationDTO.getOpportunityId());
+        }
+        try {
+            this.gridDbClient.registerRows(TBL_NAME, List.of(registrationDTO), ROW_ENCODER);
+        } catch (RuntimeException e) {
+            if (reserved) {
+                releaseAfterFailure(registrationDTO.getOpportunityId(), e);
+            }
+            throw e;
+        }
+        if (reserved) {
+            adjustTakenCount(registrationDTO.getOpportunityId(), 1);
+        }
+        eventPublisher.publishEvent(new RegistrationChangedEvent(registrationDTO.getOpportunityId()));
         return id;
     }
 
+    /**
+     * Overwrites the registration. When it takes a slot it did not hold before, e.g. a cancelled registration set back
+     * to PENDING or one moved to another opportunity, the slot is reserved first. When it held a slot and no longer
+     * does, the slot is given back once the registration is stored.
+     *
+     * @throws OpportunitySlotsFullException if the registration needs a slot and the opportunity has none left
+     */
     @Override
     public void update(final String id, final RegistrationDTO registrationDTO) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(registrationDTO.getUserId())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(registrationDTO.getOpportunityId())).append("\"");
-        sb.append(", ");
-        sb.append(
-                registrationDTO.getStatus() == null
-                        ? "null"
-                        : "\"" + escapeString(registrationDTO.getStatus().name()) + "\"");
-        sb.append(", ");
-        sb.append(
-                registrationDTO.getRegistrationTime() == null
-                        ? "null"
-                        : "\""
-                                + escapeString(
-                                        registrationDTO.getRegistrationTime().toString()) + "\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Update Registration: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        RegistrationStatus previousStatus = null;
+        String previousOpportunityId = null;
+        try {
+            RegistrationDTO previous = get(id);
+            previousStatus = previous.getStatus();
+            previousOpportunityId = previous.getOpportunityId();
+        } catch (NotFoundException e) {
+            log.debug("Registration {} is new, nothing to give back", id);
+        }
+        boolean keepsSlot = previousOpportunityId != null
+                && isTaken(previousStatus)
+                && isTaken(registrationDTO.getStatus())
+                && previousOpportunityId.equals(registrationDTO.getOpportunityId());
+        boolean reserved = isTaken(registrationDTO.getStatus()) && !keepsSlot;
+        registrationDTO.setId(id);
+        log.info("Update Registration: {}", id);
+        if (reserved) {
+            reserveSlot(registrationDTO.getOpportunityId());
+        }
+        try {
+            this.gridDbClient.registerRows(TBL_NAME, List.of(registrationDTO), ROW_ENCODER);
+        } catch (RuntimeException e) {
+            if (reserved) {
+                releaseAfterFailure(registrationDTO.getOpportunityId(), e);
+            }
+            throw e;
+        }
+        GridDbIdentityMap.evict(RegistrationDTO.class, id);
+        // recount both opportunities on the next read
+        takenCounts.invalidate(registrationDTO.getOpportunityId());
+        if (previousOpportunityId != null) {
+            takenCounts.invalidate(previousOpportunityId);
+            if (isTaken(previousStatus) && !keepsSlot) {
+                slotReservationService.release(previousOpportunityId);
+            }
+            if (!previousOpportunityId.equals(registrationDTO.getOpportunityId())) {
+                eventPublisher.publishEvent(new RegistrationChangedEvent(previousOpportunityId));
+            }
+        }
+        eventPublisher.publishEvent(new RegistrationChangedEvent(registrationDTO.getOpportunityId()));
     }
 
     @Override
@@ -165,13 +210,12 @@ public class RegistrationGridDBService implements RegistrationService {
 
     @Override
     public boolean idExists(final String id) {
-        RegistrationDTO r = get(id);
-        return r != null;
+        return this.gridDbClient.exists(TBL_NAME, id);
     }
 
-    private String escapeString(String input) {
-        if (input == null) return null;
-        return input.replace("\\", "\\\\").replace("'", "\\'").replace("\"", "\\\"");
+    @Override
+    public boolean existAll(final Collection<String> ids) {
+        return this.gridDbClient.findExistingIds(TBL_NAME, ids).containsAll(ids);
     }
 
     @Override
@@ -190,18 +234,27 @@ public class RegistrationGridDBService implements RegistrationService {
                 .limit(1L)
                 .condition("userId == '" + userId + "' and opportunityId == '" + opportunityId + "'")
                 .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB. userId: " + userId + ", opportunityId: " + opportunityId);
-            return Optional.empty();
+        return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<RegistrationDTO> findAllByUserIdAndOpportunityIdIn(
+            String userId, Collection<String> opportunityIds) {
+        if (opportunityIds.isEmpty()) {
+            return List.of();
         }
-        RegistrationDTO result = response.getRows().stream()
-                .findFirst()
-                .map(row -> {
-                    return extractRowToDTO(row);
-                })
-                .orElse(null);
-        return Optional.ofNullable(result);
+        String opportunityIdList = opportunityIds.stream()
+                .map(opportunityId -> "'" + GridDbClient.sqlString(opportunityId) + "'")
+                .collect(Collectors.joining(", "));
+        // @formatter:off
+        String stmt =  """
+            SELECT id, userId, opportunityId, status, registrationTime \
+            FROM VoMaRegistrations \
+            WHERE userId = '%s' AND opportunityId IN (%s)
+        """.formatted(GridDbClient.sqlString(userId), opportunityIdList);
+        // @formatter:on
+        return this.gridDbClient.select(new GridDbCloudSQLStmt(stmt), ROW_DECODER);
     }
 
     @Override
@@ -209,7 +262,7 @@ public class RegistrationGridDBService implements RegistrationService {
         // @formatter:off
         String stmt =  """
             SELECT count(id) FROM VoMaRegistrations \
-            WHERE opportunityId = '%s'
+            WHERE opportunityId = '%s' AND status <> 'CANCELLED'
         """.formatted(opportunityId);
         // @formatter:on
         List<GridDbCloudSQLStmt> statementList = List.of(new GridDbCloudSQLStmt(stmt));
@@ -235,55 +288,215 @@ public class RegistrationGridDBService implements RegistrationService {
     }
 
     @Override
-    public void approve(String id) {
-        RegistrationDTO registrationDTO = get(id);
-        if (registrationDTO.getStatus().compareTo(RegistrationStatus.PENDING) != 0) {
-            throw new IllegalStateException("Only PENDING registrations can be approved");
+    public void approve(final String orgId, final String id) {
+        requireApplied(approveAll(orgId, List.of(id)).get(0), "Only PENDING registrations can be approved");
+    }
+
+    @Override
+    public void reject(final String orgId, final String id) {
+        requireApplied(rejectAll(orgId, List.of(id)).get(0), "Only PENDING registrations can be cancelled");
+    }
+
+    private static void requireApplied(final RegistrationTransition transition, final String notPendingMessage) {
+        if (!transition.found()) {
+            throw new NotFoundException("Registration not found with id: " + transition.id());
+        }
+        if (!transition.applied()) {
+            throw new IllegalStateException(notPendingMessage);
         }
-        registrationDTO.setStatus(RegistrationStatus.APPROVED);
-        update(id, registrationDTO);
     }
 
     @Override
-    public void reject(String id) {
-        RegistrationDTO registrationDTO = get(id);
-        if (registrationDTO.getStatus().compareTo(RegistrationStatus.PENDING) != 0) {
-            throw new IllegalStateException("Only PENDING registrations can be cancelled");
+    public List<RegistrationTransition> approveAll(final String orgId, final Collection<String> ids) {
+        return transitionPending(orgId, ids, RegistrationStatus.APPROVED);
+    }
+
+    @Override
+    public List<RegistrationTransition> rejectAll(final String orgId, final Collection<String> ids) {
+        return transitionPending(orgId, ids, RegistrationStatus.CANCELLED);
+    }
+
+    /**
+     * Moves the PENDING registrations of {@code orgId} among {@code ids} to {@code target}. A select joined with the
+     * opportunities of the organization finds which ids exist there, their status and their opportunity; ids outside
+     * the organization are reported as not found. Each PENDING one then gets its own guarded
+     * {@code UPDATE ... WHERE id = ? AND status = 'PENDING' AND opportunityId = ?} so the response tells per id whether
+     * it changed and a registration moved to another opportunity meanwhile is left alone. All updates go to GridDB in
+     * one {@code /sql/dml/update} request.
+     */
+    private List<RegistrationTransition> transitionPending(
+            final String orgId, final Collection<String> ids, final RegistrationStatus target) {
+        List<String> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Map.Entry<String, String>> candidates = new HashMap<>();
+        if (orgId != null) {
+            String idList = distinctIds.stream()
+                    .map(id -> "'" + GridDbClient.sqlString(id) + "'")
+                    .collect(Collectors.joining(", "));
+            // @formatter:off
+            String select = """
+                SELECT reg.id, reg.opportunityId, reg.status FROM VoMaRegistrations reg \
+                INNER JOIN VoMaOpportunities opp ON reg.opportunityId = opp.id \
+                WHERE reg.id IN (%s) AND opp.orgId = '%s'
+            """.formatted(idList, GridDbClient.sqlString(orgId));
+            // @formatter:on
+            this.gridDbClient
+                    .select(
+                            new GridDbCloudSQLStmt(select),
+                            row -> Map.entry(row.nextString(), Map.entry(row.nextString(), row.nextString())))
+                    .forEach(entry -> candidates.put(entry.getKey(), entry.getValue()));
         }
-        registrationDTO.setStatus(RegistrationStatus.CANCELLED);
-        update(id, registrationDTO);
+        List<String> pendingIds = distinctIds.stream()
+                .filter(id -> candidates.containsKey(id)
+                        && RegistrationStatus.PENDING.name().equals(candidates.get(id).getValue()))
+                .toList();
+        List<GridDbCloudSQLStmt> updates = pendingIds.stream()
+                .map(id -> new GridDbCloudSQLStmt("UPDATE " + TBL_NAME + " SET status = '" + target.name()
+                        + "' WHERE id = '" + GridDbClient.sqlString(id)
+                        + "' AND status = 'PENDING' AND opportunityId = '"
+                        + GridDbClient.sqlString(candidates.get(id).getKey()) + "'"))
+                .toList();
+        SQLUpdateResponse[] responses = updates.isEmpty() ? null : this.gridDbClient.executeSQLUpdate(updates);
+
+        List<RegistrationTransition> results = new ArrayList<>(distinctIds.size());
+        Map<String, Integer> changedPerOpportunity = new HashMap<>();
+        for (String id : distinctIds) {
+            if (!candidates.containsKey(id)) {
+                results.add(new RegistrationTransition(id, false, false, "Registration not found"));
+                continue;
+            }
+            int i = pendingIds.indexOf(id);
+            if (i < 0) {
+                results.add(new RegistrationTransition(id, true, false, "Registration is not PENDING"));
+                continue;
+            }
+            SQLUpdateResponse response = responses != null && i < responses.length ? responses[i] : null;
+            boolean applied = response != null && response.updatedRows() == 1;
+            results.add(new RegistrationTransition(id, true, applied, response != null ? response.message() : null));
+            if (applied) {
+                GridDbIdentityMap.evict(RegistrationDTO.class, id);
+                changedPerOpportunity.merge(candidates.get(id).getKey(), 1, Integer::sum);
+            }
+        }
+        long appliedCount = results.stream().filter(RegistrationTransition::applied).count();
+        log.info("Moved {} of {} registrations of org {} to {}", appliedCount, distinctIds.size(), orgId, target);
+        changedPerOpportunity.forEach((opportunityId, count) -> {
+            if (!isTaken(target)) {
+                // PENDING and APPROVED both hold a slot, only a cancellation frees one
+                adjustTakenCount(opportunityId, -count);
+                slotReservationService.release(opportunityId, count);
+            }
+            eventPublisher.publishEvent(new RegistrationChangedEvent(opportunityId));
+        });
+        return results;
     }
 
     @Override
-    public List<RegistrationDTO> findAllByOrgId(String orgId) {
+    public RegistrationResponsePage findResponsePage(String orgId, int page, int size, String sort) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = KeysetPage.clampSize(size);
+        String[] sortParts = (sort == null ? DEFAULT_SORT : sort).split(",");
+        String sortProperty = SORT_COLUMNS.containsKey(sortParts[0]) ? sortParts[0] : "registrationTime";
+        String direction = sortParts.length > 1 && sortParts[1].equalsIgnoreCase("asc") ? "ASC" : "DESC";
+        String where = orgId == null ? "" : "WHERE opp.orgId = '" + GridDbClient.sqlString(orgId) + "' ";
+        // fetch one extra row to find out whether there is a next page
         // @formatter:off
         String stmt =  """
-            SELECT reg.id, reg.userId, reg.opportunityId, reg.status, reg.registrationTime \
+            SELECT reg.id, reg.userId, reg.opportunityId, reg.status, reg.registrationTime, usr.fullName, opp.title \
             FROM VoMaRegistrations reg \
-            JOIN VoMaOpportunities opp ON reg.opportunityId = opp.id \
-            WHERE opp.orgId = '%s'
-        """.formatted(orgId);
+            LEFT JOIN VoMaUsers usr ON reg.userId = usr.id \
+            LEFT JOIN VoMaOpportunities opp ON reg.opportunityId = opp.id \
+            %sORDER BY %s %s, reg.id %s \
+            LIMIT %d OFFSET %d
+        """.formatted(
+                where,
+                SORT_COLUMNS.get(sortProperty),
+                direction,
+                direction,
+                pageSize + 1,
+                (long) pageNumber * pageSize);
         // @formatter:on
-        List<GridDbCloudSQLStmt> statementList = List.of(new GridDbCloudSQLStmt(stmt));
-        SQLSelectResponse[] response = this.gridDbClient.select(statementList);
-        if (response == null || response.length != statementList.size()) {
-            log.error(
-                    "Failed to fetch registered by org {}. Response is null or size mismatch. Expected: {}, Actual: {}",
-                    orgId,
-                    statementList.size(),
-                    response != null ? response.length : 0);
-            return List.of();
+        String appliedSort = sortProperty + "," + direction.toLowerCase();
+        List<RegistrationResponse> results = this.gridDbClient.select(
+                new GridDbCloudSQLStmt(stmt),
+                row -> toResponse(ROW_DECODER.decode(row), row.nextString(), row.nextString()));
+        List<RegistrationResponse> content = results.stream().limit(pageSize).collect(Collectors.toList());
+        return new RegistrationResponsePage(content, pageNumber, pageSize, appliedSort, results.size() > pageSize);
+    }
+
+    private static RegistrationResponse toResponse(RegistrationDTO r, String fullName, String opportunityTitle) {
+        String status = r.getStatus() == null ? "" : r.getStatus().name();
+        String registrationTime =
+                r.getRegistrationTime() == null ? "" : r.getRegistrationTime().toString();
+        return new RegistrationResponse(
+                r.getId(),
+                r.getUserId(),
+                r.getOpportunityId(),
+                status,
+                r.getStatus() == RegistrationStatus.PENDING,
+                registrationTime,
+                fullName == null ? "" : fullName,
+                opportunityTitle == null ? "" : opportunityTitle);
+    }
+
+    @Override
+    public Map<String, Long> countByOpportunityIdIn(final Collection<String> opportunityIds) {
+        Map<String, Long> counts = new HashMap<>(takenCounts.getAllPresent(opportunityIds));
+        List<String> missing = opportunityIds.stream()
+                .filter(id -> !counts.containsKey(id))
+                .distinct()
+                .toList();
+        if (missing.isEmpty()) {
+            return counts;
+        }
+        String idList =
+                missing.stream().map(id -> "'" + GridDbClient.sqlString(id) + "'").collect(Collectors.joining(", "));
+        // @formatter:off
+        String stmt = """
+            SELECT opportunityId, count(id) FROM VoMaRegistrations \
+            WHERE opportunityId IN (%s) AND status <> 'CANCELLED' \
+            GROUP BY opportunityId
+        """.formatted(idList);
+        // @formatter:on
+        Map<String, Long> loaded = new HashMap<>();
+        this.gridDbClient
+                .select(new GridDbCloudSQLStmt(stmt), row -> Map.entry(row.nextString(), row.nextLong()))
+                .forEach(entry -> loaded.put(entry.getKey(), entry.getValue()));
+        for (String id : missing) {
+            long count = loaded.getOrDefault(id, 0L);
+            // keep a count that register/reject adjusted while the query was running
+            counts.put(id, takenCounts.asMap().merge(id, count, (current, fresh) -> current));
         }
+        return counts;
+    }
 
-        List<List<Object>> results = response[0].getResults();
-        if (results.isEmpty()) {
-            log.info("No result for opportunity: {}", orgId);
-            return List.of();
+    private void reserveSlot(final String opportunityId) {
+        OpportunityDTO opportunity = opportunityService.get(opportunityId);
+        if (!slotReservationService.tryReserve(opportunityId, opportunity.getSlotsTotal())) {
+            throw new OpportunitySlotsFullException(
+                    opportunityId, opportunity.getSlotsTotal(), opportunity.getSlotsTotal());
+        }
+    }
+
+    /**
+     * Gives back the slot reserved for a write that failed, keeping {@code failure} as the exception to report.
+     */
+    private void releaseAfterFailure(final String opportunityId, final RuntimeException failure) {
+        try {
+            slotReservationService.release(opportunityId);
+        } catch (RuntimeException releaseFailure) {
+            log.warn("Could not give back the slot of opportunity {}", opportunityId, releaseFailure);
+            failure.addSuppressed(releaseFailure);
         }
-        return results.stream()
-                .map(row -> {
-                    return extractRowToDTO(row);
-                })
-                .collect(Collectors.toList());
+    }
+
+    private static boolean isTaken(final RegistrationStatus status) {
+        return status != RegistrationStatus.CANCELLED;
+    }
+
+    private void adjustTakenCount(final String opportunityId, final long delta) {
+        takenCounts.asMap().computeIfPresent(opportunityId, (id, count) -> Math.max(count + delta, 0L));
     }
 }
@@ -1,10 +1,17 @@
 package com.galapea.techblog.volunteer_matching.registration;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import com.galapea.techblog.volunteer_matching.security.CustomUserDetails;
+import com.galapea.techblog.volunteer_matching.security.SecurityExpressions;
+import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import jakarta.validation.Valid;
 import java.util.List;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,10 +19,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping(value = "/api/registrations", produces = MediaType.APPLICATION_JSON_VALUE)
+@GridDbCallBudget(1)
 public class RegistrationResource {
 
     private final RegistrationService registrationService;
@@ -25,8 +34,10 @@ public class RegistrationResource {
     }
 
     @GetMapping
-    public ResponseEntity<List<RegistrationDTO>> getAllRegistrations() {
-        return ResponseEntity.ok(registrationService.findAll());
+    public ResponseEntity<List<RegistrationDTO>> getAllRegistrations(
+            @RequestParam(name = "after", required = false) final String after,
+            @RequestParam(name = "size", defaultValue = "" + KeysetPage.DEFAULT_SIZE) final int size) {
+        return WebUtils.pageResponse(registrationService.findPage(after, size));
     }
 
     @GetMapping("/{id}")
@@ -35,12 +46,14 @@ public class RegistrationResource {
     }
 
     @PostMapping
+    @GridDbCallBudget(7)
     public ResponseEntity<String> createRegistration(@RequestBody @Valid final RegistrationDTO registrationDTO) {
         final String createdId = registrationService.create(registrationDTO);
         return new ResponseEntity<>('"' + createdId + '"', HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
+    @GridDbCallBudget(9)
     public ResponseEntity<String> updateRegistration(
             @PathVariable(name = "id") final String id, @RequestBody @Valid final RegistrationDTO registrationDTO) {
         registrationService.update(id, registrationDTO);
@@ -52,4 +65,20 @@ public class RegistrationResource {
         registrationService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/approve")
+    @GridDbCallBudget(2)
+    @PreAuthorize(SecurityExpressions.ORGANIZER_ONLY)
+    public ResponseEntity<List<RegistrationTransition>> approveRegistrations(
+            @RequestBody final List<String> ids, @AuthenticationPrincipal final CustomUserDetails userDetails) {
+        return ResponseEntity.ok(registrationService.approveAll(userDetails.getOrganizationId(), ids));
+    }
+
+    @PostMapping("/reject")
+    @GridDbCallBudget(3)
+    @PreAuthorize(SecurityExpressions.ORGANIZER_ONLY)
+    public ResponseEntity<List<RegistrationTransition>> rejectRegistrations(
+            @RequestBody final List<String> ids, @AuthenticationPrincipal final CustomUserDetails userDetails) {
+        return ResponseEntity.ok(registrationService.rejectAll(userDetails.getOrganizationId(), ids));
+    }
 }
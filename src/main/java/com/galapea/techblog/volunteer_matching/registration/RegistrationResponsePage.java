@@ -0,0 +1,11 @@
+package com.galapea.techblog.volunteer_matching.registration;
+
+import java.util.List;
+
+public record RegistrationResponsePage(
+        List<RegistrationResponse> content, int page, int size, String sort, boolean hasNext) {
+
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+}
@@ -1,18 +1,30 @@
 package com.galapea.techblog.volunteer_matching.registration;
 
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import com.galapea.techblog.volunteer_matching.util.NotFoundException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface RegistrationService {
 
-    List<RegistrationDTO> findAll();
+    KeysetPage<RegistrationDTO> findPage(String after, int size);
 
-    List<RegistrationDTO> findAllByOrgId(String orgId);
+    /**
+     * One page of registrations joined with the volunteer's full name and the opportunity title.
+     *
+     * @param orgId only registrations for this organization's opportunities, or all registrations when null
+     * @param sort property and optional direction, e.g. {@code registrationTime,desc}
+     */
+    RegistrationResponsePage findResponsePage(String orgId, int page, int size, String sort);
 
     RegistrationDTO get(String id);
 
     Optional<RegistrationDTO> getByUserIdAndOpportunityId(String userId, String opportunityId);
 
+    List<RegistrationDTO> findAllByUserIdAndOpportunityIdIn(String userId, Collection<String> opportunityIds);
+
     String create(RegistrationDTO registrationDTO);
 
     void update(String id, RegistrationDTO registrationDTO);
@@ -21,11 +33,51 @@ public interface RegistrationService {
 
     boolean idExists(String id);
 
+    /**
+     * Whether every one of {@code ids} exists, checked in a single round trip.
+     */
+    boolean existAll(Collection<String> ids);
+
     String register(String userId, String opportunityId);
 
     Long countByOpportunityId(String opportunityId);
 
-    void approve(String id);
+    /**
+     * Non-cancelled registrations of each opportunity, with {@code 0} for opportunities without any.
+     */
+    Map<String, Long> countByOpportunityIdIn(Collection<String> opportunityIds);
+
+    /**
+     * Approves a PENDING registration for an opportunity of {@code orgId}.
+     *
+     * @throws NotFoundException if there is no such registration in the organization
+     * @throws IllegalStateException if the registration is not PENDING
+     */
+    void approve(String orgId, String id);
+
+    /**
+     * Cancels a PENDING registration for an opportunity of {@code orgId}.
+     *
+     * @throws NotFoundException if there is no such registration in the organization
+     * @throws IllegalStateException if the registration is not PENDING
+     */
+    void reject(String orgId, String id);
+
+    /**
+     * Approves the PENDING registrations among {@code ids} that belong to opportunities of {@code orgId}, in one GridDB
+     * request. Ids of other organizations are reported as not found, as are all ids when {@code orgId} is
+     * {@code null}.
+     *
+     * @return one result per distinct id, in the order given
+     */
+    List<RegistrationTransition> approveAll(String orgId, Collection<String> ids);
 
-    void reject(String id);
+    /**
+     * Cancels the PENDING registrations among {@code ids} that belong to opportunities of {@code orgId}, in one GridDB
+     * request. Ids of other organizations are reported as not found, as are all ids when {@code orgId} is
+     * {@code null}.
+     *
+     * @return one result per distinct id, in the order given
+     */
+    List<RegistrationTransition> rejectAll(String orgId, Collection<String> ids);
 }
@@ -0,0 +1,15 @@
+package com.galapea.techblog.volunteer_matching.registration;
+
+/**
+ * Outcome of a status change of one registration in a bulk approve/reject.
+ *
+ * @param id
+ *            the registration
+ * @param found
+ *            whether the registration exists for an opportunity of the caller's organization
+ * @param applied
+ *            whether the registration was PENDING and now has the requested status
+ * @param message
+ *            why the registration was not moved, or the GridDB message for a failed statement, otherwise {@code null}
+ */
+public record RegistrationTransition(String id, boolean found, boolean applied, String message) {}
@@ -1,5 +1,6 @@
 package com.galapea.techblog.volunteer_matching.registration;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
 import com.galapea.techblog.volunteer_matching.opportunity.OpportunityDTO;
 import com.galapea.techblog.volunteer_matching.opportunity.OpportunityService;
 import com.galapea.techblog.volunteer_matching.opportunity_requirement.OpportunityRequirementDTO;
@@ -10,6 +11,7 @@ import com.galapea.techblog.volunteer_matching.volunteer_skill.VolunteerSkillDTO
 import com.galapea.techblog.volunteer_matching.volunteer_skill.VolunteerSkillService;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -22,13 +24,16 @@ public class RegistrationValidationService {
     private final OpportunityRequirementService opportunityRequirementService;
     private final VolunteerSkillService volunteerSkillService;
     private final SkillService skillService;
+    private final GridDbClient gridDbClient;
 
     public RegistrationValidationService(
+            final GridDbClient gridDbClient,
             final RegistrationService registrationService,
             final OpportunityService opportunityService,
             final OpportunityRequirementService opportunityRequirementService,
             final VolunteerSkillService volunteerSkillService,
             final SkillService skillService) {
+        this.gridDbClient = gridDbClient;
         this.registrationService = registrationService;
         this.opportunityService = opportunityService;
         this.opportunityRequirementService = opportunityRequirementService;
@@ -38,6 +43,10 @@ public class RegistrationValidationService {
 
     /**
      * Validates a registration request before allowing the user to register.
+     * <p>
+     * All GridDB lookups the checks need are independent, so they are issued concurrently and the whole validation
+     * costs roughly one round trip. The first check that fails cancels the lookups still in flight.
+     * </p>
      *
      * @param userId the volunteer's user ID
      * @param opportunityId the opportunity ID
@@ -48,14 +57,39 @@ public class RegistrationValidationService {
     public void validateRegistration(final String userId, final String opportunityId) {
         log.debug("Validating registration for user: {}, opportunity: {}", userId, opportunityId);
 
-        // Check 1: User not already registered
-        validateNotAlreadyRegistered(userId, opportunityId);
+        CompletableFuture<Optional<RegistrationDTO>> existingReg = gridDbClient.supplyAsync(
+                () -> registrationService.getByUserIdAndOpportunityId(userId, opportunityId));
+        CompletableFuture<OpportunityDTO> opportunity =
+                gridDbClient.supplyAsync(() -> opportunityService.get(opportunityId));
+        CompletableFuture<Long> registeredCount =
+                gridDbClient.supplyAsync(() -> registrationService.countByOpportunityId(opportunityId));
+        CompletableFuture<List<VolunteerSkillDTO>> userSkills =
+                gridDbClient.supplyAsync(() -> volunteerSkillService.findAllByUserId(userId));
+        CompletableFuture<List<OpportunityRequirementDTO>> opportunityRequirements = gridDbClient.supplyAsync(
+                () -> opportunityRequirementService.findAllByOpportunityId(opportunityId));
+        List<CompletableFuture<?>> lookups =
+                List.of(existingReg, opportunity, registeredCount, userSkills, opportunityRequirements);
 
-        // Check 2: Opportunity has available slots
-        validateSlotsAvailable(opportunityId);
+        List<CompletableFuture<Void>> checks = List.of(
+                // Check 1: User not already registered
+                existingReg.thenAccept(reg -> validateNotAlreadyRegistered(reg, userId, opportunityId)),
+                // Check 2: Opportunity has available slots
+                opportunity.thenAcceptBoth(registeredCount, this::validateSlotsAvailable),
+                // Check 3: User has mandatory skills
+                userSkills.thenAcceptBoth(
+                        opportunityRequirements,
+                        (skills, requirements) -> validateMandatorySkills(userId, opportunityId, skills, requirements)));
 
-        // Check 3: User has mandatory skills
-        validateMandatorySkills(userId, opportunityId);
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        for (CompletableFuture<Void> check : checks) {
+            check.whenComplete((ignored, error) -> {
+                if (error != null && outcome.completeExceptionally(error)) {
+                    lookups.forEach(lookup -> lookup.cancel(true));
+                }
+            });
+        }
+        CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new)).thenRun(() -> outcome.complete(null));
+        GridDbClient.await(outcome);
 
         log.debug("Registration validation passed for user: {}, opportunity: {}", userId, opportunityId);
     }
@@ -65,8 +99,8 @@ public class RegistrationValidationService {
      *
      * @throws AlreadyRegisteredException if user is already registered
      */
-    private void validateNotAlreadyRegistered(final String userId, final String opportunityId) {
-        Optional<RegistrationDTO> existingReg = registrationService.getByUserIdAndOpportunityId(userId, opportunityId);
+    private void validateNotAlreadyRegistered(
+            final Optional<RegistrationDTO> existingReg, final String userId, final String opportunityId) {
         if (existingReg.isPresent()) {
             log.debug(
                     "Registration validation failed - User already registered: user={}, opportunity={}",
@@ -81,17 +115,15 @@ public class RegistrationValidationService {
      *
      * @throws OpportunitySlotsFullException if opportunity is at capacity
      */
-    private void validateSlotsAvailable(final String opportunityId) {
-        OpportunityDTO opportunity = opportunityService.get(opportunityId);
-        Long registeredCount = registrationService.countByOpportunityId(opportunityId);
-
+    private void validateSlotsAvailable(final OpportunityDTO opportunity, final Long registeredCount) {
         if (registeredCount >= opportunity.getSlotsTotal()) {
             log.debug(
                     "Registration validation failed - Opportunity is full: opportunity={}, registered={}, total={}",
-                    opportunityId,
+                    opportunity.getId(),
                     registeredCount,
                     opportunity.getSlotsTotal());
-            throw new OpportunitySlotsFullException(opportunityId, opportunity.getSlotsTotal(), registeredCount);
+            throw new OpportunitySlotsFullException(
+                    opportunity.getId(), opportunity.getSlotsTotal(), registeredCount);
         }
     }
 
@@ -100,11 +132,11 @@ public class RegistrationValidationService {
      *
      * @throws MissingMandatorySkillException if user lacks a mandatory skill
      */
-    private void validateMandatorySkills(final String userId, final String opportunityId) {
-        List<VolunteerSkillDTO> userSkills = volunteerSkillService.findAllByUserId(userId);
-        List<OpportunityRequirementDTO> opportunityRequirements =
-                opportunityRequirementService.findAllByOpportunityId(opportunityId);
-
+    private void validateMandatorySkills(
+            final String userId,
+            final String opportunityId,
+            final List<VolunteerSkillDTO> userSkills,
+            final List<OpportunityRequirementDTO> opportunityRequirements) {
         for (OpportunityRequirementDTO requirement : opportunityRequirements) {
             // Skip optional requirements
             if (!requirement.getIsMandatory()) {
@@ -0,0 +1,175 @@
+package com.galapea.techblog.volunteer_matching.registration;
+
+import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbException;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbResilience;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbCloudSQLStmt;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbColumn;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefinition;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLSelectResponse;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLUpdateResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hands out opportunity slots so that concurrent registrations never exceed {@code slotsTotal}.
+ * <p>
+ * A slot only counts as reserved once a conditional {@code UPDATE ... WHERE reserved < slotsTotal} on the
+ * opportunity's counter row in {@code VoMaOpportunitySlots} succeeds. That update is the guard across application
+ * nodes. The counter row is seeded with the opportunity's non-cancelled registrations the first time it is needed.
+ * {@link RegistrationGridDBService} reserves a slot for every registration it stores as taken and gives it back when
+ * the registration is cancelled or moved, so the counter follows every write path.
+ * An opportunity found full is remembered for {@code registrations.slot-full-hint-ttl}, or until this node gives a
+ * slot of it back, and rejected without a round trip meanwhile. The hint expires, so slots freed on another node are
+ * offered again.
+ * </p>
+ */
+@Service
+public class SlotReservationService {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    private final GridDbClient gridDbClient;
+    private final String TBL_NAME = "VoMaOpportunitySlots";
+    private final Set<String> seeded = ConcurrentHashMap.newKeySet();
+    /** {@link System#nanoTime} until which an opportunity is taken to be full, by opportunity id. */
+    private final ConcurrentHashMap<String, Long> fullUntil = new ConcurrentHashMap<>();
+    private final long fullHintNanos;
+
+    public SlotReservationService(
+            final GridDbClient gridDbClient,
+            @Value("${registrations.slot-full-hint-ttl:5s}") final Duration fullHintTtl) {
+        this.gridDbClient = gridDbClient;
+        this.fullHintNanos = fullHintTtl.toNanos();
+    }
+
+    public void createTable() {
+        List<GridDbColumn> columns = List.of(
+                new GridDbColumn("opportunityId", "STRING", Set.of("TREE")), new GridDbColumn("reserved", "LONG"));
+
+        GridDbContainerDefinition containerDefinition = GridDbContainerDefinition.build(TBL_NAME, columns);
+        this.gridDbClient.createContainer(containerDefinition);
+    }
+
+    /**
+     * Reserves one slot of the opportunity.
+     *
+     * @return {@code true} if a slot was reserved, {@code false} if the opportunity is full
+     * @throws GridDbException if the reservation could not be recorded in GridDB
+     */
+    public boolean tryReserve(final String opportunityId, final long slotsTotal) {
+        Long until = fullUntil.get(opportunityId);
+        if (until != null) {
+            if (System.nanoTime() - until < 0) {
+                log.debug("Opportunity {} was full a moment ago", opportunityId);
+                return false;
+            }
+            fullUntil.remove(opportunityId, until);
+        }
+        if (!seeded.contains(opportunityId)) {
+            seed(opportunityId);
+            seeded.add(opportunityId);
+        }
+        if (!incrementInGridDb(opportunityId, slotsTotal)) {
+            fullUntil.put(opportunityId, System.nanoTime() + fullHintNanos);
+            log.debug("No slot left for opportunity {}: total={}", opportunityId, slotsTotal);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gives back a slot taken by {@link #tryReserve}, e.g. when storing the registration failed.
+     */
+    public void release(final String opportunityId) {
+        release(opportunityId, 1);
+    }
+
+    /**
+     * Gives back {@code count} slots of the opportunity in one conditional update. The update is exempt from the GridDB
+     * circuits and bulkhead, see {@link GridDbResilience#exempt}, so that a slot is not lost while GridDB Cloud is
+     * failing the very calls that made it necessary to give it back.
+     */
+    public void release(final String opportunityId, final int count) {
+        if (count <= 0) {
+            return;
+        }
+        // @formatter:off
+        String stmt = """
+            UPDATE %s SET reserved = reserved - %d WHERE opportunityId = '%s' AND reserved >= %d
+        """.formatted(TBL_NAME, count, GridDbClient.sqlString(opportunityId), count);
+        // @formatter:on
+        GridDbResilience.exempt(() -> this.gridDbClient.executeSQLUpdate(List.of(new GridDbCloudSQLStmt(stmt))));
+        fullUntil.remove(opportunityId);
+    }
+
+    private boolean incrementInGridDb(final String opportunityId, final long slotsTotal) {
+        // @formatter:off
+        String stmt = """
+            UPDATE %s SET reserved = reserved + 1 WHERE opportunityId = '%s' AND reserved < %d
+        """.formatted(TBL_NAME, GridDbClient.sqlString(opportunityId), slotsTotal);
+        // @formatter:on
+        SQLUpdateResponse[] response = this.gridDbClient.executeSQLUpdate(List.of(new GridDbCloudSQLStmt(stmt)));
+        return response != null && response.length == 1 && response[0].updatedRows() == 1;
+    }
+
+    /**
+     * Creates the opportunity's counter row from the current registration count when it is missing. Losing the insert
+     * to another node is fine, its row is used; any other failure propagates and the row is seeded again next time.
+     */
+    private void seed(final String opportunityId) {
+        if (counterExists(opportunityId)) {
+            return;
+        }
+        long registeredCount = countTaken(opportunityId);
+        // @formatter:off
+        String insert = """
+            INSERT INTO %s (opportunityId, reserved) VALUES ('%s', %d)
+        """.formatted(TBL_NAME, GridDbClient.sqlString(opportunityId), registeredCount);
+        // @formatter:on
+        try {
+            this.gridDbClient.executeSQLUpdate(List.of(new GridDbCloudSQLStmt(insert)));
+            log.info("Seeded slot counter for opportunity {} with {} registrations", opportunityId, registeredCount);
+        } catch (GridDbException e) {
+            // a duplicate row key is a client error, and the row is there now
+            if (!e.getStatus().is4xxClientError() || !counterExists(opportunityId)) {
+                throw e;
+            }
+            log.debug("Slot counter for opportunity {} already seeded", opportunityId, e);
+        }
+    }
+
+    private long countTaken(final String opportunityId) {
+        // @formatter:off
+        String select = """
+            SELECT count(id) FROM VoMaRegistrations WHERE opportunityId = '%s' AND status <> 'CANCELLED'
+        """.formatted(GridDbClient.sqlString(opportunityId));
+        // @formatter:on
+        SQLSelectResponse[] response = this.gridDbClient.select(List.of(new GridDbCloudSQLStmt(select)));
+        if (response == null
+                || response.length != 1
+                || response[0].getResults() == null
+                || response[0].getResults().isEmpty()) {
+            return 0L;
+        }
+        return ((Number) response[0].getResults().get(0).get(0)).longValue();
+    }
+
+    private boolean counterExists(final String opportunityId) {
+        // @formatter:off
+        String select = """
+            SELECT reserved FROM %s WHERE opportunityId = '%s'
+        """.formatted(TBL_NAME, GridDbClient.sqlString(opportunityId));
+        // @formatter:on
+        SQLSelectResponse[] response = this.gridDbClient.select(List.of(new GridDbCloudSQLStmt(select)));
+        return response != null
+                && response.length == 1
+                && response[0].getResults() != null
+                && !response[0].getResults().isEmpty();
+    }
+}
@@ -1,5 +1,6 @@
 package com.galapea.techblog.volunteer_matching.security;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
 import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -7,6 +8,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 @Controller
+@GridDbCallBudget(0)
 public class AuthenticationController {
     @GetMapping("/login")
     public String login(
@@ -1,6 +1,8 @@
 package com.galapea.techblog.volunteer_matching.security;
 
 import com.galapea.techblog.volunteer_matching.organization.OrganizationDTO;
+import com.galapea.techblog.volunteer_matching.user.UserDTO;
+import com.galapea.techblog.volunteer_matching.user.UserRole;
 import java.util.Collection;
 import java.util.List;
 import org.springframework.security.core.GrantedAuthority;
@@ -8,6 +10,8 @@ import org.springframework.security.core.userdetails.User;
 
 public class CustomUserDetails extends User {
     private final String userId;
+    private final String fullName;
+    private final UserRole role;
     private final List<OrganizationDTO> organizations;
 
     public CustomUserDetails(
@@ -15,9 +19,13 @@ public class CustomUserDetails extends User {
             String password,
             Collection<? extends GrantedAuthority> authorities,
             String userId,
+            String fullName,
+            UserRole role,
             List<OrganizationDTO> organizations) {
         super(username, password, authorities);
         this.userId = userId;
+        this.fullName = fullName;
+        this.role = role;
         this.organizations = organizations;
     }
 
@@ -25,7 +33,36 @@ public class CustomUserDetails extends User {
         return this.userId;
     }
 
+    public String getFullName() {
+        return this.fullName;
+    }
+
+    public UserRole getRole() {
+        return this.role;
+    }
+
     public List<OrganizationDTO> getOrganizations() {
         return this.organizations;
     }
+
+    /**
+     * The organization the organizer pages act for, the first one of the user, or {@code null} without any.
+     */
+    public String getOrganizationId() {
+        return this.organizations == null || this.organizations.isEmpty()
+                ? null
+                : this.organizations.get(0).getId();
+    }
+
+    /**
+     * The signed-in user as resolved at login, so request handlers do not have to look it up again.
+     */
+    public UserDTO toUserDTO() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(this.userId);
+        userDTO.setEmail(getUsername());
+        userDTO.setFullName(this.fullName);
+        userDTO.setRole(this.role);
+        return userDTO;
+    }
 }
@@ -41,8 +41,14 @@ public class CustomUserDetailsService implements UserDetailsService {
                 authorities.add(new SimpleGrantedAuthority("ROLE_" + UserRole.ORGANIZER.name()));
                 orgs.add(org.get());
             }
-            UserDetails userDetails =
-                    new CustomUserDetails(userDTO.getEmail(), "{noop}123", authorities, userDTO.getId(), orgs);
+            UserDetails userDetails = new CustomUserDetails(
+                    userDTO.getEmail(),
+                    "{noop}123",
+                    authorities,
+                    userDTO.getId(),
+                    userDTO.getFullName(),
+                    userDTO.getRole(),
+                    orgs);
             return userDetails;
         }
     }
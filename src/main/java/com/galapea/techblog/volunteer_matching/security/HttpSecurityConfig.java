@@ -48,6 +48,8 @@ public class HttpSecurityConfig {
                         .requestMatchers("/skills/**")
                         .hasAnyRole(SecurityExpressions.ROLE_ADMIN)
                         .requestMatchers("/users/**")
+                        .hasAnyRole(SecurityExpressions.ROLE_ADMIN)
+                        .requestMatchers("/actuator/metrics/**")
                         .hasAnyRole(SecurityExpressions.ROLE_ADMIN))
                 .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
                 .formLogin(form -> form.loginPage("/login")
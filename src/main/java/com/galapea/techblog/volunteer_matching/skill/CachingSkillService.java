@@ -0,0 +1,171 @@
+package com.galapea.techblog.volunteer_matching.skill;
+
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Read-through cache in front of {@link SkillGridDBService}.
+ * <p>
+ * Skills are seeded once and rarely edited, so reads are served from bounded in-memory caches that expire after
+ * {@code skills.cache.ttl}. Every write goes to GridDB first and then invalidates all caches. Cached
+ * {@link SkillDTO}s are copied on the way out so callers cannot mutate cache entries. Hits, misses and evictions are
+ * published as the {@code cache.*} meters of {@code skills.all}, {@code skills.byId} and {@code skills.byName}.
+ * </p>
+ */
+@Service
+@Primary
+public class CachingSkillService implements SkillService {
+
+    private static final String ALL_KEY = "all";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    private final SkillGridDBService delegate;
+    private final Cache<String, List<SkillDTO>> allSkills;
+    private final Cache<String, SkillDTO> skillsById;
+    private final Cache<String, Optional<SkillDTO>> skillsByName;
+
+    public CachingSkillService(
+            final SkillGridDBService delegate,
+            @Value("${skills.cache.ttl:10m}") final Duration ttl,
+            @Value("${skills.cache.max-size:1000}") final long maxSize,
+            final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.allSkills = CaffeineCacheMetrics.monitor(
+                meterRegistry,
+                Caffeine.newBuilder().expireAfterWrite(ttl).recordStats().build(),
+                "skills.all");
+        this.skillsById = CaffeineCacheMetrics.monitor(
+                meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build(),
+                "skills.byId");
+        this.skillsByName = CaffeineCacheMetrics.monitor(
+                meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build(),
+                "skills.byName");
+    }
+
+    @Override
+    public List<SkillDTO> findAll() {
+        List<SkillDTO> skills = allSkills.get(ALL_KEY, key -> {
+            List<SkillDTO> loaded = List.copyOf(delegate.findAll());
+            loaded.forEach(skill -> skillsById.put(skill.getId(), skill));
+            return loaded;
+        });
+        return copyOf(skills);
+    }
+
+    @Override
+    public KeysetPage<SkillDTO> findPage(final String after, final int size) {
+        return delegate.findPage(after, size);
+    }
+
+    @Override
+    public List<SkillDTO> findAllByIdIn(final List<String> ids) {
+        Map<String, SkillDTO> cached = skillsById.getAllPresent(ids);
+        List<String> missing = ids.stream().filter(id -> !cached.containsKey(id)).distinct().toList();
+        if (missing.isEmpty()) {
+            return copyOf(ids.stream().distinct().map(cached::get).toList());
+        }
+        log.debug("Skill cache miss for {} of {} ids", missing.size(), ids.size());
+        List<SkillDTO> loaded = delegate.findAllByIdIn(missing);
+        loaded.forEach(skill -> skillsById.put(skill.getId(), skill));
+        List<SkillDTO> result = new ArrayList<>(cached.values());
+        result.addAll(loaded);
+        return copyOf(result);
+    }
+
+    @Override
+    public SkillDTO get(final String id) {
+        return copy(skillsById.get(id, delegate::get));
+    }
+
+    @Override
+    public String create(final SkillDTO skillDTO) {
+        try {
+            return delegate.create(skillDTO);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void update(final String id, final SkillDTO skillDTO) {
+        try {
+            delegate.update(id, skillDTO);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void delete(final String id) {
+        try {
+            delegate.delete(id);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public boolean idExists(final String id) {
+        return skillsById.getIfPresent(id) != null || delegate.idExists(id);
+    }
+
+    @Override
+    public boolean existAll(final Collection<String> ids) {
+        List<String> unknown =
+                ids.stream().filter(id -> id == null || skillsById.getIfPresent(id) == null).toList();
+        return unknown.isEmpty() || delegate.existAll(unknown);
+    }
+
+    @Override
+    public boolean nameExists(final String name) {
+        return skillsByName.get(name, delegate::getOneByName).isPresent();
+    }
+
+    @Override
+    public void createMultiple(final List<SkillDTO> skillDTOs) {
+        try {
+            delegate.createMultiple(skillDTOs);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        allSkills.invalidateAll();
+        skillsById.invalidateAll();
+        skillsByName.invalidateAll();
+    }
+
+    private static List<SkillDTO> copyOf(final List<SkillDTO> skills) {
+        return skills.stream().map(CachingSkillService::copy).collect(Collectors.toList());
+    }
+
+    private static SkillDTO copy(final SkillDTO skill) {
+        return new SkillDTO(skill.getId(), skill.getName());
+    }
+}
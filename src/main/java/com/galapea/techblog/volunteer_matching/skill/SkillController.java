@@ -1,5 +1,7 @@
 package com.galapea.techblog.volunteer_matching.skill;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import com.galapea.techblog.volunteer_matching.security.SecurityExpressions;
 import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import jakarta.validation.Valid;
@@ -12,10 +14,12 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
 @RequestMapping("/skills")
+@GridDbCallBudget(1)
 public class SkillController {
 
     private final SkillService skillService;
@@ -25,8 +29,15 @@ public class SkillController {
     }
 
     @GetMapping
-    public String list(final Model model) {
-        model.addAttribute("skills", skillService.findAll());
+    public String list(
+            @RequestParam(name = "after", required = false) final String after,
+            @RequestParam(name = "size", defaultValue = "" + KeysetPage.DEFAULT_SIZE) final int size,
+            final Model model) {
+        KeysetPage<SkillDTO> page = skillService.findPage(after, size);
+        model.addAttribute("skills", page.content());
+        model.addAttribute("skillPage", page);
+        model.addAttribute("isFirstPage", after == null || after.isBlank());
+        model.addAttribute("pageSize", KeysetPage.clampSize(size));
         return "skill/list";
     }
 
@@ -36,6 +47,7 @@ public class SkillController {
     }
 
     @PostMapping("/add")
+    @GridDbCallBudget(2)
     public String add(
             @ModelAttribute("skill") @Valid final SkillDTO skillDTO,
             final BindingResult bindingResult,
@@ -55,6 +67,7 @@ public class SkillController {
     }
 
     @PostMapping("/edit/{id}")
+    @GridDbCallBudget(3)
     public String edit(
             @PathVariable(name = "id") final String id,
             @ModelAttribute("skill") @Valid final SkillDTO skillDTO,
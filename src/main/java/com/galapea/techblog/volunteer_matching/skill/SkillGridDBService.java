@@ -1,18 +1,21 @@
 package com.galapea.techblog.volunteer_matching.skill;
 
 import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbIdentityMap;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowDecoder;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowEncoder;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsRequest;
-import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsResponse;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbCloudSQLStmt;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbColumn;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefinition;
-import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLSelectResponse;
 import com.galapea.techblog.volunteer_matching.util.NotFoundException;
 import com.github.f4b6a3.tsid.TsidCreator;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -24,6 +27,14 @@ public class SkillGridDBService implements SkillService {
     private final GridDbClient gridDbClient;
     private final String TBL_NAME = "VoMaSkills";
 
+    public static final GridDbRowDecoder<SkillDTO> ROW_DECODER =
+            row -> new SkillDTO(row.nextString(), row.nextString());
+
+    public static final GridDbRowEncoder<SkillDTO> ROW_ENCODER = (skill, row) -> {
+        row.string(skill.getId());
+        row.string(skill.getName());
+    };
+
     public SkillGridDBService(final GridDbClient gridDbClient) {
         this.gridDbClient = gridDbClient;
     }
@@ -38,43 +49,32 @@ public class SkillGridDBService implements SkillService {
 
     @Override
     public List<SkillDTO> findAll() {
-        AcquireRowsRequest requestBody =
-                AcquireRowsRequest.builder().limit(50L).sort("id ASC").build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return List.of();
+        return readAll("");
+    }
+
+    @Override
+    public KeysetPage<SkillDTO> findPage(final String after, final int size) {
+        return this.gridDbClient.acquirePage(TBL_NAME, "", after, size, ROW_DECODER, SkillDTO::getId);
+    }
+
+    private List<SkillDTO> readAll(final String condition) {
+        try (Stream<SkillDTO> rows = this.gridDbClient.streamRows(
+                TBL_NAME, condition, GridDbClient.STREAM_PAGE_SIZE, ROW_DECODER, SkillDTO::getId)) {
+            return rows.toList();
         }
-        return response.getRows().stream()
-                .map(row -> {
-                    SkillDTO dto = new SkillDTO();
-                    dto.setId((String) row.get(0));
-                    dto.setName((String) row.get(1));
-                    return dto;
-                })
-                .collect(Collectors.toList());
     }
 
     @Override
     public SkillDTO get(final String id) {
-        AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
-                .limit(1L)
-                .condition("id == '" + id + "'")
-                .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            throw new NotFoundException("Skill not found with id: " + id);
-        }
-        return response.getRows().stream()
-                .findFirst()
-                .map(row -> {
-                    SkillDTO dto = new SkillDTO();
-                    dto.setId((String) row.get(0));
-                    dto.setName((String) row.get(1));
-                    return dto;
-                })
-                .orElseThrow(() -> new NotFoundException("Skill not found with id: " + id));
+        return GridDbIdentityMap.lookup(SkillDTO.class, id, () -> {
+            AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
+                    .limit(1L)
+                    .condition("id == '" + id + "'")
+                    .build();
+            return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("Skill not found with id: " + id));
+        });
     }
 
     public String nextId() {
@@ -84,33 +84,18 @@ public class SkillGridDBService implements SkillService {
     @Override
     public String create(final SkillDTO skillDTO) {
         String id = skillDTO.getId() != null && !skillDTO.getId().isBlank() ? skillDTO.getId() : nextId();
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(skillDTO.getName())).append("\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Create Skill: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        skillDTO.setId(id);
+        log.info("Create Skill: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(skillDTO), ROW_ENCODER);
         return id;
     }
 
     @Override
     public void update(final String id, final SkillDTO skillDTO) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(skillDTO.getName())).append("\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Update Skill: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        skillDTO.setId(id);
+        log.info("Update Skill: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(skillDTO), ROW_ENCODER);
+        GridDbIdentityMap.evict(SkillDTO.class, id);
     }
 
     @Override
@@ -120,8 +105,12 @@ public class SkillGridDBService implements SkillService {
 
     @Override
     public boolean idExists(final String id) {
-        SkillDTO s = get(id);
-        return s != null;
+        return this.gridDbClient.exists(TBL_NAME, id);
+    }
+
+    @Override
+    public boolean existAll(final Collection<String> ids) {
+        return this.gridDbClient.findExistingIds(TBL_NAME, ids).containsAll(ids);
     }
 
     @Override
@@ -134,55 +123,26 @@ public class SkillGridDBService implements SkillService {
                 .limit(1L)
                 .condition("name == '" + name + "'")
                 .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return Optional.empty();
-        }
-        SkillDTO dto = response.getRows().stream()
-                .findFirst()
-                .map(row -> {
-                    SkillDTO d = new SkillDTO();
-                    d.setId((String) row.get(0));
-                    d.setName((String) row.get(1));
-                    return d;
-                })
-                .orElse(null);
-        return Optional.ofNullable(dto);
-    }
-
-    private String escapeString(String input) {
-        if (input == null) return null;
-        return input.replace("\\", "\\\\").replace("'", "\\'").replace("\"", "\\\"");
+        return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                .findFirst();
     }
 
     @Override
     public void createMultiple(List<SkillDTO> skillDTOs) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        for (int i = 0; i < skillDTOs.size(); i++) {
-            SkillDTO skillDTO = skillDTOs.get(i);
-            String id = skillDTO.getId() != null && !skillDTO.getId().isBlank() ? skillDTO.getId() : nextId();
-            sb.append("[");
-            sb.append("\"").append(escapeString(id)).append("\"");
-            sb.append(", ");
-            sb.append("\"").append(escapeString(skillDTO.getName())).append("\"");
-            sb.append("]");
-            if (i < skillDTOs.size() - 1) {
-                sb.append(", ");
+        for (SkillDTO skillDTO : skillDTOs) {
+            if (skillDTO.getId() == null || skillDTO.getId().isBlank()) {
+                skillDTO.setId(nextId());
             }
         }
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Create Multiple Skills: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        log.info("Create Multiple Skills: {} rows", skillDTOs.size());
+        this.gridDbClient.registerRows(TBL_NAME, skillDTOs, ROW_ENCODER);
     }
 
     @Override
     public List<SkillDTO> findAllByIdIn(List<String> ids) {
         StringBuilder idLiStringBuilder = new StringBuilder();
         for (int i = 0; i < ids.size(); i++) {
-            idLiStringBuilder.append("'").append(escapeString(ids.get(i))).append("'");
+            idLiStringBuilder.append("'").append(GridDbClient.sqlString(ids.get(i))).append("'");
             if (i < ids.size() - 1) {
                 idLiStringBuilder.append(", ");
             }
@@ -196,29 +156,11 @@ public class SkillGridDBService implements SkillService {
         """
                         .formatted(idLiStringBuilder.toString());
         // @formatter:on
-        List<GridDbCloudSQLStmt> statementList = List.of(new GridDbCloudSQLStmt(stmt));
-        SQLSelectResponse[] response = this.gridDbClient.select(statementList);
-        if (response == null || response.length != statementList.size()) {
-            log.error(
-                    "Response is null or size mismatch. Expected: {}, Actual: {}",
-                    statementList.size(),
-                    response != null ? response.length : 0);
-            return List.of();
-        }
-
-        List<List<Object>> results = response[0].getResults();
+        List<SkillDTO> results = this.gridDbClient.select(new GridDbCloudSQLStmt(stmt), ROW_DECODER);
         if (results.isEmpty()) {
             log.info("No result for find by list of ID");
-            return List.of();
         }
-        return results.stream()
-                .map(row -> {
-                    SkillDTO dto = new SkillDTO();
-                    dto.setId((String) row.get(0));
-                    dto.setName((String) row.get(1));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return results;
 
         // AcquireRowsRequest requestBody =
         //         AcquireRowsRequest.builder().limit(50L).condition("id IN ("+ idLiStringBuilder.toString()
@@ -1,5 +1,8 @@
 package com.galapea.techblog.volunteer_matching.skill;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import jakarta.validation.Valid;
 import java.util.List;
 import org.springframework.http.HttpStatus;
@@ -12,10 +15,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping(value = "/api/skills", produces = MediaType.APPLICATION_JSON_VALUE)
+@GridDbCallBudget(1)
 public class SkillResource {
 
     private final SkillService skillService;
@@ -25,8 +30,10 @@ public class SkillResource {
     }
 
     @GetMapping
-    public ResponseEntity<List<SkillDTO>> getAllSkills() {
-        return ResponseEntity.ok(skillService.findAll());
+    public ResponseEntity<List<SkillDTO>> getAllSkills(
+            @RequestParam(name = "after", required = false) final String after,
+            @RequestParam(name = "size", defaultValue = "" + KeysetPage.DEFAULT_SIZE) final int size) {
+        return WebUtils.pageResponse(skillService.findPage(after, size));
     }
 
     @GetMapping("/{id}")
@@ -35,12 +42,14 @@ public class SkillResource {
     }
 
     @PostMapping
+    @GridDbCallBudget(2)
     public ResponseEntity<String> createSkill(@RequestBody @Valid final SkillDTO skillDTO) {
         final String createdId = skillService.create(skillDTO);
         return new ResponseEntity<>('"' + createdId + '"', HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
+    @GridDbCallBudget(3)
     public ResponseEntity<String> updateSkill(
             @PathVariable(name = "id") final String id, @RequestBody @Valid final SkillDTO skillDTO) {
         skillService.update(id, skillDTO);
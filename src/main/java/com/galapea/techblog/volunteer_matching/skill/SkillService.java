@@ -1,11 +1,15 @@
 package com.galapea.techblog.volunteer_matching.skill;
 
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import java.util.Collection;
 import java.util.List;
 
 public interface SkillService {
 
     List<SkillDTO> findAll();
 
+    KeysetPage<SkillDTO> findPage(String after, int size);
+
     List<SkillDTO> findAllByIdIn(List<String> ids);
 
     SkillDTO get(String id);
@@ -18,6 +22,11 @@ public interface SkillService {
 
     boolean idExists(String id);
 
+    /**
+     * Whether every one of {@code ids} exists, checked in a single round trip.
+     */
+    boolean existAll(Collection<String> ids);
+
     boolean nameExists(String name);
 
     void createMultiple(List<SkillDTO> skillDTOs);
@@ -0,0 +1,120 @@
+package com.galapea.techblog.volunteer_matching.user;
+
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Read-through cache in front of {@link UserGridDBService}, keyed by email and by id.
+ * <p>
+ * Login and the user validators resolve the same few users over and over. Entries expire after
+ * {@code users.cache.ttl}, and {@link #create} and {@link #update} invalidate them. Request handlers that only need
+ * the signed-in user should use {@code CustomUserDetails#toUserDTO()} instead, which needs no lookup at all.
+ * </p>
+ */
+@Service
+@Primary
+public class CachingUserService implements UserService {
+
+    private final UserGridDBService delegate;
+    private final Cache<String, Optional<UserDTO>> usersByEmail;
+    private final Cache<String, UserDTO> usersById;
+
+    public CachingUserService(
+            final UserGridDBService delegate,
+            @Value("${users.cache.ttl:5m}") final Duration ttl,
+            @Value("${users.cache.max-size:10000}") final long maxSize) {
+        this.delegate = delegate;
+        this.usersByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public KeysetPage<UserDTO> findPage(final String after, final int size) {
+        return delegate.findPage(after, size);
+    }
+
+    @Override
+    public UserDTO get(final String id) {
+        return copy(usersById.get(id, delegate::get));
+    }
+
+    @Override
+    public String create(final UserDTO userDTO) {
+        try {
+            return delegate.create(userDTO);
+        } finally {
+            usersByEmail.invalidate(userDTO.getEmail());
+        }
+    }
+
+    @Override
+    public void update(final String id, final UserDTO userDTO) {
+        UserDTO previous = usersById.getIfPresent(id);
+        try {
+            delegate.update(id, userDTO);
+        } finally {
+            usersById.invalidate(id);
+            usersByEmail.invalidate(userDTO.getEmail());
+            if (previous != null) {
+                usersByEmail.invalidate(previous.getEmail());
+            } else {
+                // the old email is unknown, so drop every email mapping rather than serve a stale one
+                usersByEmail.invalidateAll();
+            }
+        }
+    }
+
+    @Override
+    public void delete(final String id) {
+        delegate.delete(id);
+    }
+
+    @Override
+    public boolean idExists(final String id) {
+        return usersById.getIfPresent(id) != null || delegate.idExists(id);
+    }
+
+    @Override
+    public boolean existAll(final Collection<String> ids) {
+        List<String> unknown =
+                ids.stream().filter(id -> id == null || usersById.getIfPresent(id) == null).toList();
+        return unknown.isEmpty() || delegate.existAll(unknown);
+    }
+
+    @Override
+    public boolean emailExists(final String email) {
+        return getOneByEmail(email).isPresent();
+    }
+
+    @Override
+    public Optional<UserDTO> getOneByEmail(final String email) {
+        Optional<UserDTO> user = usersByEmail.get(email, delegate::getOneByEmail);
+        user.ifPresent(found -> usersById.put(found.getId(), found));
+        return user.map(CachingUserService::copy);
+    }
+
+    private static UserDTO copy(final UserDTO user) {
+        UserDTO copy = new UserDTO();
+        copy.setId(user.getId());
+        copy.setEmail(user.getEmail());
+        copy.setFullName(user.getFullName());
+        copy.setRole(user.getRole());
+        return copy;
+    }
+}
@@ -1,5 +1,7 @@
 package com.galapea.techblog.volunteer_matching.user;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import jakarta.validation.Valid;
 import org.springframework.stereotype.Controller;
@@ -10,10 +12,12 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
 @RequestMapping("/users")
+@GridDbCallBudget(1)
 public class UserController {
 
     private final UserService userService;
@@ -23,8 +27,15 @@ public class UserController {
     }
 
     @GetMapping
-    public String list(final Model model) {
-        model.addAttribute("users", userService.findAll());
+    public String list(
+            @RequestParam(name = "after", required = false) final String after,
+            @RequestParam(name = "size", defaultValue = "" + KeysetPage.DEFAULT_SIZE) final int size,
+            final Model model) {
+        KeysetPage<UserDTO> page = userService.findPage(after, size);
+        model.addAttribute("users", page.content());
+        model.addAttribute("userPage", page);
+        model.addAttribute("isFirstPage", after == null || after.isBlank());
+        model.addAttribute("pageSize", KeysetPage.clampSize(size));
         return "user/list";
     }
 
@@ -34,6 +45,7 @@ public class UserController {
     }
 
     @PostMapping("/add")
+    @GridDbCallBudget(3)
     public String add(
             @ModelAttribute("user") @Valid final UserDTO userDTO,
             final BindingResult bindingResult,
@@ -53,6 +65,7 @@ public class UserController {
     }
 
     @PostMapping("/edit/{id}")
+    @GridDbCallBudget(3)
     public String edit(
             @PathVariable(name = "id") final String id,
             @ModelAttribute("user") @Valid final UserDTO userDTO,
@@ -1,16 +1,19 @@
 package com.galapea.techblog.volunteer_matching.user;
 
 import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbIdentityMap;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowDecoder;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowEncoder;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsRequest;
-import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsResponse;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbColumn;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefinition;
 import com.galapea.techblog.volunteer_matching.util.NotFoundException;
 import com.github.f4b6a3.tsid.TsidCreator;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -21,6 +24,22 @@ public class UserGridDBService implements UserService {
     private final GridDbClient gridDbClient;
     private final String TBL_NAME = "VoMaUsers";
 
+    public static final GridDbRowDecoder<UserDTO> ROW_DECODER = row -> {
+        UserDTO dto = new UserDTO();
+        dto.setId(row.nextString());
+        dto.setEmail(row.nextString());
+        dto.setFullName(row.nextString());
+        dto.setRole(row.nextEnum(UserRole.class));
+        return dto;
+    };
+
+    public static final GridDbRowEncoder<UserDTO> ROW_ENCODER = (user, row) -> {
+        row.string(user.getId());
+        row.string(user.getEmail());
+        row.string(user.getFullName());
+        row.enumName(user.getRole());
+    };
+
     public UserGridDBService(final GridDbClient gridDbClient) {
         this.gridDbClient = gridDbClient;
     }
@@ -37,44 +56,21 @@ public class UserGridDBService implements UserService {
     }
 
     @Override
-    public List<UserDTO> findAll() {
-        AcquireRowsRequest requestBody =
-                AcquireRowsRequest.builder().limit(50L).sort("id ASC").build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return List.of();
-        }
-        return response.getRows().stream().map(row -> mapToDTO(row)).collect(Collectors.toList());
-    }
-
-    private UserDTO mapToDTO(List<Object> row) {
-        UserDTO dto = new UserDTO();
-        dto.setId((String) row.get(0));
-        dto.setEmail((String) row.get(1));
-        dto.setFullName((String) row.get(2));
-        String roleStr = (String) row.get(3);
-        if (roleStr != null) {
-            dto.setRole(UserRole.valueOf(roleStr));
-        }
-        return dto;
+    public KeysetPage<UserDTO> findPage(final String after, final int size) {
+        return this.gridDbClient.acquirePage(TBL_NAME, "", after, size, ROW_DECODER, UserDTO::getId);
     }
 
     @Override
     public UserDTO get(final String id) {
-        AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
-                .limit(1L)
-                .condition("id == \'" + id + "\'")
-                .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            throw new NotFoundException("User not found with id: " + id);
-        }
-        return response.getRows().stream()
-                .findFirst()
-                .map(row -> mapToDTO(row))
-                .orElseThrow(() -> new NotFoundException("User not found with id: " + id));
+        return GridDbIdentityMap.lookup(UserDTO.class, id, () -> {
+            AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
+                    .limit(1L)
+                    .condition("id == \'" + id + "\'")
+                    .build();
+            return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("User not found with id: " + id));
+        });
     }
 
     public String nextId() {
@@ -84,46 +80,31 @@ public class UserGridDBService implements UserService {
     @Override
     public String create(final UserDTO userDTO) {
         String id = userDTO.getId() != null && !userDTO.getId().isBlank() ? userDTO.getId() : nextId();
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(userDTO.getEmail())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(userDTO.getFullName())).append("\"");
-        sb.append(", ");
-        sb.append(
-                userDTO.getRole() == null
-                        ? "null"
-                        : "\"" + escapeString(userDTO.getRole().name()) + "\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Create User: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        userDTO.setId(id);
+        log.info("Create User: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(userDTO), ROW_ENCODER);
         return id;
     }
 
+    /**
+     * Stores all rows with a single {@code registerRows} call.
+     */
+    public void createMultiple(final List<UserDTO> userDTOs) {
+        for (UserDTO userDTO : userDTOs) {
+            if (userDTO.getId() == null || userDTO.getId().isBlank()) {
+                userDTO.setId(nextId());
+            }
+        }
+        log.info("Create Multiple Users: {} rows", userDTOs.size());
+        this.gridDbClient.registerRows(TBL_NAME, userDTOs, ROW_ENCODER);
+    }
+
     @Override
     public void update(final String id, final UserDTO userDTO) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(userDTO.getEmail())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(userDTO.getFullName())).append("\"");
-        if (userDTO.getRole() != null) {
-            sb.append(", ");
-            sb.append("\"" + escapeString(userDTO.getRole().name()) + "\"");
-        }
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Update User: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        userDTO.setId(id);
+        log.info("Update User: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(userDTO), ROW_ENCODER);
+        GridDbIdentityMap.evict(UserDTO.class, id);
     }
 
     @Override
@@ -133,8 +114,12 @@ public class UserGridDBService implements UserService {
 
     @Override
     public boolean idExists(final String id) {
-        UserDTO user = get(id);
-        return user != null;
+        return this.gridDbClient.exists(TBL_NAME, id);
+    }
+
+    @Override
+    public boolean existAll(final Collection<String> ids) {
+        return this.gridDbClient.findExistingIds(TBL_NAME, ids).containsAll(ids);
     }
 
     public Optional<UserDTO> getOneByEmail(final String email) {
@@ -142,16 +127,8 @@ public class UserGridDBService implements UserService {
                 .limit(1L)
                 .condition("email == \'" + email + "\'")
                 .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return Optional.empty();
-        }
-        UserDTO userDTO = response.getRows().stream()
-                .findFirst()
-                .map(row -> mapToDTO(row))
-                .orElse(null);
-        return Optional.ofNullable(userDTO);
+        return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                .findFirst();
     }
 
     @Override
@@ -159,9 +136,4 @@ public class UserGridDBService implements UserService {
         Optional<UserDTO> userOpt = getOneByEmail(email);
         return userOpt.isPresent();
     }
-
-    private String escapeString(String input) {
-        if (input == null) return null;
-        return input.replace("\\", "\\\\").replace("'", "\\'").replace("\"", "\\\"");
-    }
 }
@@ -1,5 +1,8 @@
 package com.galapea.techblog.volunteer_matching.user;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import com.galapea.techblog.volunteer_matching.util.WebUtils;
 import jakarta.validation.Valid;
 import java.util.List;
 import org.springframework.http.HttpStatus;
@@ -12,10 +15,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping(value = "/api/users", produces = MediaType.APPLICATION_JSON_VALUE)
+@GridDbCallBudget(1)
 public class UserResource {
 
     private final UserService userService;
@@ -25,8 +30,10 @@ public class UserResource {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        return ResponseEntity.ok(userService.findAll());
+    public ResponseEntity<List<UserDTO>> getAllUsers(
+            @RequestParam(name = "after", required = false) final String after,
+            @RequestParam(name = "size", defaultValue = "" + KeysetPage.DEFAULT_SIZE) final int size) {
+        return WebUtils.pageResponse(userService.findPage(after, size));
     }
 
     @GetMapping("/{id}")
@@ -35,12 +42,14 @@ public class UserResource {
     }
 
     @PostMapping
+    @GridDbCallBudget(3)
     public ResponseEntity<String> createUser(@RequestBody @Valid final UserDTO userDTO) {
         final String createdId = userService.create(userDTO);
         return new ResponseEntity<>('"' + createdId + '"', HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
+    @GridDbCallBudget(3)
     public ResponseEntity<String> updateUser(
             @PathVariable(name = "id") final String id, @RequestBody @Valid final UserDTO userDTO) {
         userService.update(id, userDTO);
@@ -1,11 +1,12 @@
 package com.galapea.techblog.volunteer_matching.user;
 
-import java.util.List;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import java.util.Collection;
 import java.util.Optional;
 
 public interface UserService {
 
-    List<UserDTO> findAll();
+    KeysetPage<UserDTO> findPage(String after, int size);
 
     UserDTO get(String id);
 
@@ -17,6 +18,11 @@ public interface UserService {
 
     boolean idExists(String id);
 
+    /**
+     * Whether every one of {@code ids} exists, checked in a single round trip.
+     */
+    boolean existAll(Collection<String> ids);
+
     boolean emailExists(String email);
 
     public Optional<UserDTO> getOneByEmail(final String email);
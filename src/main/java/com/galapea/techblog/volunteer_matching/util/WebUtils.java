@@ -1,11 +1,16 @@
 package com.galapea.techblog.volunteer_matching.util;
 
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @Component
 public class WebUtils {
@@ -28,4 +33,21 @@ public class WebUtils {
     public static String getMessage(final String code, final Object... args) {
         return messageSource.getMessage(code, args, code, localeResolver.resolveLocale(getRequest()));
     }
+
+    /**
+     * Returns the rows of a keyset page as a plain JSON list. When there are more rows, a
+     * {@code Link: <...?after=...>; rel="next"} header points at the following page.
+     */
+    public static <T> ResponseEntity<List<T>> pageResponse(final KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.nextAfter())
+                    .build()
+                    .encode()
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.content());
+    }
 }
@@ -1,5 +1,6 @@
 package com.galapea.techblog.volunteer_matching.volunteer_skill;
 
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCallBudget;
 import com.galapea.techblog.volunteer_matching.security.CustomUserDetails;
 import com.galapea.techblog.volunteer_matching.skill.SkillDTO;
 import com.galapea.techblog.volunteer_matching.skill.SkillService;
@@ -22,6 +23,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
 @RequestMapping("/volunteerSkills")
+@GridDbCallBudget(2)
 public class VolunteerSkillController {
     private static final Logger LOGGER = LoggerFactory.getLogger(VolunteerSkillController.class);
 
@@ -1,18 +1,19 @@
 package com.galapea.techblog.volunteer_matching.volunteer_skill;
 
 import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbIdentityMap;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowDecoder;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbRowEncoder;
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsRequest;
-import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsResponse;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbCloudSQLStmt;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbColumn;
 import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbContainerDefinition;
-import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLSelectResponse;
-import com.galapea.techblog.volunteer_matching.util.DateTimeUtil;
 import com.galapea.techblog.volunteer_matching.util.NotFoundException;
 import com.github.f4b6a3.tsid.TsidCreator;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -24,6 +25,26 @@ public class VolunteerSkillGridDBService implements VolunteerSkillService {
     private final GridDbClient gridDbClient;
     private final String TBL_NAME = "VoMaVolunteerSkills";
 
+    public static final GridDbRowDecoder<VolunteerSkillDTO> ROW_DECODER = row -> {
+        VolunteerSkillDTO dto = new VolunteerSkillDTO();
+        dto.setId(row.nextString());
+        dto.setUserId(row.nextString());
+        dto.setSkillId(row.nextString());
+        dto.setExpiryDate(row.nextLocalDateTime());
+        dto.setVerificationStatus(row.nextEnum(VerificationStatus.class));
+        // only present when the skill name is joined in
+        dto.setSkillName(row.nextString());
+        return dto;
+    };
+
+    public static final GridDbRowEncoder<VolunteerSkillDTO> ROW_ENCODER = (volunteerSkill, row) -> {
+        row.string(volunteerSkill.getId());
+        row.string(volunteerSkill.getUserId());
+        row.string(volunteerSkill.getSkillId());
+        row.timestamp(volunteerSkill.getExpiryDate());
+        row.enumName(volunteerSkill.getVerificationStatus());
+    };
+
     public VolunteerSkillGridDBService(final GridDbClient gridDbClient) {
         this.gridDbClient = gridDbClient;
     }
@@ -41,68 +62,21 @@ public class VolunteerSkillGridDBService implements VolunteerSkillService {
     }
 
     @Override
-    public List<VolunteerSkillDTO> findAll() {
-        AcquireRowsRequest requestBody =
-                AcquireRowsRequest.builder().limit(50L).sort("id ASC").build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            return List.of();
-        }
-        return response.getRows().stream()
-                .map(row -> {
-                    return extractDTO(row);
-                })
-                .collect(Collectors.toList());
-    }
-
-    private VolunteerSkillDTO extractDTO(List<Object> row) {
-        log.info("############################### {}", row);
-        VolunteerSkillDTO dto = new VolunteerSkillDTO();
-        dto.setId((String) row.get(0));
-        dto.setUserId((String) row.get(1));
-        dto.setSkillId((String) row.get(2));
-        Object expiry = row.get(3);
-        if (expiry != null) {
-            try {
-                dto.setExpiryDate(DateTimeUtil.parseToLocalDateTime(expiry.toString()));
-            } catch (Exception e) {
-                dto.setExpiryDate(null);
-            }
-        }
-        Object vs = row.get(4);
-        if (vs != null) {
-            try {
-                dto.setVerificationStatus(VerificationStatus.valueOf(vs.toString()));
-            } catch (Exception e) {
-                dto.setVerificationStatus(null);
-            }
-        }
-        try {
-            dto.setSkillName((String) row.get(5));
-        } catch (Exception e) {
-            dto.setSkillName(null);
-        }
-        return dto;
+    public KeysetPage<VolunteerSkillDTO> findPage(final String after, final int size) {
+        return this.gridDbClient.acquirePage(TBL_NAME, "", after, size, ROW_DECODER, VolunteerSkillDTO::getId);
     }
 
     @Override
     public VolunteerSkillDTO get(final String id) {
-        AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
-                .limit(1L)
-                .condition("id == '" + id + "'")
-                .build();
-        AcquireRowsResponse response = this.gridDbClient.acquireRows(TBL_NAME, requestBody);
-        if (response == null || response.getRows() == null) {
-            log.error("Failed to acquire rows from GridDB");
-            throw new NotFoundException("VolunteerSkill not found with id: " + id);
-        }
-        return response.getRows().stream()
-                .findFirst()
-                .map(row -> {
-                    return extractDTO(row);
-                })
-                .orElseThrow(() -> new NotFoundException("VolunteerSkill not found with id: " + id));
+        return GridDbIdentityMap.lookup(VolunteerSkillDTO.class, id, () -> {
+            AcquireRowsRequest requestBody = AcquireRowsRequest.builder()
+                    .limit(1L)
+                    .condition("id == '" + id + "'")
+                    .build();
+            return this.gridDbClient.acquireRows(TBL_NAME, requestBody, ROW_DECODER).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("VolunteerSkill not found with id: " + id));
+        });
     }
 
     public String nextId() {
@@ -115,63 +89,23 @@ public class VolunteerSkillGridDBService implements VolunteerSkillService {
                 volunteerSkillDTO.getId() != null && !volunteerSkillDTO.getId().isBlank()
                         ? volunteerSkillDTO.getId()
                         : nextId();
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(volunteerSkillDTO.getUserId())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(volunteerSkillDTO.getSkillId())).append("\"");
-        sb.append(", ");
-        sb.append(
-                volunteerSkillDTO.getExpiryDate() == null
-                        ? "null"
-                        : "\"" + DateTimeUtil.formatToZoneDateTimeString(volunteerSkillDTO.getExpiryDate()) + "\"");
-        sb.append(", ");
-        sb.append(
-                volunteerSkillDTO.getVerificationStatus() == null
-                        ? "null"
-                        : "\""
-                                + escapeString(volunteerSkillDTO
-                                        .getVerificationStatus()
-                                        .name()) + "\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Create VolunteerSkill: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        VolunteerSkillDTO row = new VolunteerSkillDTO();
+        row.setId(id);
+        row.setUserId(volunteerSkillDTO.getUserId());
+        row.setSkillId(volunteerSkillDTO.getSkillId());
+        row.setExpiryDate(volunteerSkillDTO.getExpiryDate());
+        row.setVerificationStatus(volunteerSkillDTO.getVerificationStatus());
+        log.info("Create VolunteerSkill: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(row), ROW_ENCODER);
         return id;
     }
 
     @Override
     public void update(final String id, final VolunteerSkillDTO volunteerSkillDTO) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append("[");
-        sb.append("\"").append(escapeString(id)).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(volunteerSkillDTO.getUserId())).append("\"");
-        sb.append(", ");
-        sb.append("\"").append(escapeString(volunteerSkillDTO.getSkillId())).append("\"");
-        sb.append(", ");
-        sb.append(
-                volunteerSkillDTO.getExpiryDate() == null
-                        ? "null"
-                        : "\"" + DateTimeUtil.formatToZoneDateTimeString(volunteerSkillDTO.getExpiryDate()) + "\"");
-        sb.append(", ");
-        sb.append(
-                volunteerSkillDTO.getVerificationStatus() == null
-                        ? "null"
-                        : "\""
-                                + escapeString(volunteerSkillDTO
-                                        .getVerificationStatus()
-                                        .name()) + "\"");
-        sb.append("]");
-        sb.append("]");
-        String result = sb.toString();
-        log.info("Update VolunteerSkill: {}", result);
-        this.gridDbClient.registerRows(TBL_NAME, result);
+        volunteerSkillDTO.setId(id);
+        log.info("Update VolunteerSkill: {}", id);
+        this.gridDbClient.registerRows(TBL_NAME, List.of(volunteerSkillDTO), ROW_ENCODER);
+        GridDbIdentityMap.evict(VolunteerSkillDTO.class, id);
     }
 
     @Override
@@ -181,13 +115,12 @@ public class VolunteerSkillGridDBService implements VolunteerSkillService {
 
     @Override
     public boolean idExists(final String id) {
-        VolunteerSkillDTO vs = get(id);
-        return vs != null;
+        return this.gridDbClient.exists(TBL_NAME, id);
     }
 
-    private String escapeString(String input) {
-        if (input == null) return null;
-        return input.replace("\\", "\\\\").replace("'", "\\'").replace("\"", "\\\"");
+    @Override
+    public boolean existAll(final Collection<String> ids) {
+        return this.gridDbClient.findExistingIds(TBL_NAME, ids).containsAll(ids);
     }
 
     @Override
@@ -200,26 +133,10 @@ public class VolunteerSkillGridDBService implements VolunteerSkillService {
             WHERE vs.userId = '%s'
         """.formatted(userId);
         // @formatter:on
-        List<GridDbCloudSQLStmt> statementList = List.of(new GridDbCloudSQLStmt(stmt));
-        SQLSelectResponse[] response = this.gridDbClient.select(statementList);
-        if (response == null || response.length != statementList.size()) {
-            log.error(
-                    "Failed to fetch VolunteerSkills by user {}. Response is null or size mismatch. Expected: {}, Actual: {}",
-                    userId,
-                    statementList.size(),
-                    response != null ? response.length : 0);
-            return List.of();
-        }
-
-        List<List<Object>> results = response[0].getResults();
+        List<VolunteerSkillDTO> results = this.gridDbClient.select(new GridDbCloudSQLStmt(stmt), ROW_DECODER);
         if (results.isEmpty()) {
             log.info("No result for VolunteerSkills userId: {}", userId);
-            return List.of();
         }
-        return results.stream()
-                .map(row -> {
-                    return extractDTO(row);
-                })
-                .collect(Collectors.toList());
+        return results;
     }
 }
@@ -1,10 +1,12 @@
 package com.galapea.techblog.volunteer_matching.volunteer_skill;
 
+import com.galapea.techblog.volunteer_matching.griddb.KeysetPage;
+import java.util.Collection;
 import java.util.List;
 
 public interface VolunteerSkillService {
 
-    List<VolunteerSkillDTO> findAll();
+    KeysetPage<VolunteerSkillDTO> findPage(String after, int size);
 
     VolunteerSkillDTO get(String id);
 
@@ -16,5 +18,10 @@ public interface VolunteerSkillService {
 
     boolean idExists(String id);
 
+    /**
+     * Whether every one of {@code ids} exists, checked in a single round trip.
+     */
+    boolean existAll(Collection<String> ids);
+
     public List<VolunteerSkillDTO> findAllByUserId(String userId);
 }
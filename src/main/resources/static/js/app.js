@@ -48,6 +48,19 @@ function initDatepicker() {
 }
 initDatepicker();
 
+/**
+ * Keep slot availability up to date from the server-sent slot events of the
+ * opportunity instead of polling. EventSource reconnects by itself.
+ */
+document.querySelectorAll('[data-slot-stream]').forEach(($item) => {
+  const source = new EventSource($item.getAttribute('data-slot-stream'));
+  source.addEventListener('slots', (event) => {
+    const slots = JSON.parse(event.data);
+    $item.querySelector('.slot-available').textContent = slots.message;
+    $item.querySelector('.progress-bar').style.width = slots.filledPercent + '%';
+  });
+});
+
 let alert_list = document.querySelectorAll(".alert");
 alert_list.forEach(function (alert) {
   new bootstrap.Alert(alert);
@@ -0,0 +1,310 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import com.galapea.techblog.volunteer_matching.opportunity_requirement.OpportunityRequirementService;
+import com.galapea.techblog.volunteer_matching.organization_member.MemberRole;
+import com.galapea.techblog.volunteer_matching.organization_member.OrganizationMemberDTO;
+import com.galapea.techblog.volunteer_matching.organization_member.OrganizationMemberService;
+import com.galapea.techblog.volunteer_matching.registration.RegistrationService;
+import com.galapea.techblog.volunteer_matching.security.CustomUserDetails;
+import com.galapea.techblog.volunteer_matching.user.UserRole;
+import com.galapea.techblog.volunteer_matching.volunteer_skill.VerificationStatus;
+import com.galapea.techblog.volunteer_matching.volunteer_skill.VolunteerSkillService;
+import com.galapea.techblog.volunteer_matching.volunteer_skill.VolunterSkillAddRequest;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+/**
+ * Runs every page and every {@code /api} endpoint against the {@code griddb-stub} profile and checks that it makes
+ * no more GridDB calls than its {@link GridDbCallBudget}, as reported by {@link GridDbCallCountFilter}. A handler
+ * without a budget fails as well, so new endpoints have to declare one.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"griddbstub.latency=0ms", "griddbstub.jitter=0ms"})
+@AutoConfigureMockMvc
+@ActiveProfiles("griddb-stub")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GridDbCallBudgetTest {
+
+    // seeded by GridDbInitializer
+    private static final String ORGANIZER = "admin@health.example";
+    private static final String ORGANIZER_ID = "usr_0njm1smprjsvq";
+    private static final String VOLUNTEER = "user1@member.com";
+    private static final String VOLUNTEER_ID = "usr_0njfreferfe";
+    private static final String ORGANIZATION_ID = "org_0njm1sn84jv58";
+    private static final String OPPORTUNITY_ID = "opp_0njm1smprjsvq01";
+    private static final String OPPORTUNITY_WITH_REQUIREMENTS_ID = "opp_0njm1smprjsvq02";
+    private static final String OTHER_ORGANIZATION_OPPORTUNITY_ID = "opp_0vitacompggg01";
+    private static final String SKILL_ID = "sk_0njm1smprjsvq";
+
+    private static final String ADMIN = "admin";
+    private static final String ANONYMOUS = "anonymous";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private OrganizationMemberService organizationMemberService;
+
+    @Autowired
+    private VolunteerSkillService volunteerSkillService;
+
+    @Autowired
+    private OpportunityRequirementService opportunityRequirementService;
+
+    private final Map<String, String> ids = new HashMap<>();
+
+    @DynamicPropertySource
+    static void stubPort(final DynamicPropertyRegistry registry) throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            int port = socket.getLocalPort();
+            registry.add("griddbstub.port", () -> port);
+        }
+    }
+
+    @BeforeAll
+    void createFixtures() {
+        ids.put("{opportunity}", OPPORTUNITY_ID);
+        ids.put("{opportunityWithRequirements}", OPPORTUNITY_WITH_REQUIREMENTS_ID);
+        ids.put("{organization}", ORGANIZATION_ID);
+        ids.put("{user}", ORGANIZER_ID);
+        ids.put("{skill}", SKILL_ID);
+        ids.put("{registration}", registrationService.register(VOLUNTEER_ID, OPPORTUNITY_ID));
+        ids.put(
+                "{requirement}",
+                opportunityRequirementService
+                        .findAllByOpportunityId(OPPORTUNITY_WITH_REQUIREMENTS_ID)
+                        .get(0)
+                        .getId());
+
+        OrganizationMemberDTO member = new OrganizationMemberDTO();
+        member.setUserId(ORGANIZER_ID);
+        member.setOrgId(ORGANIZATION_ID);
+        member.setMemberRole(MemberRole.ADMIN);
+        ids.put("{member}", organizationMemberService.create(member));
+
+        VolunterSkillAddRequest volunteerSkill = new VolunterSkillAddRequest();
+        volunteerSkill.setUserId(VOLUNTEER_ID);
+        volunteerSkill.setSkillId(SKILL_ID);
+        volunteerSkill.setExpiryDate(LocalDateTime.now().plusYears(1));
+        volunteerSkill.setVerificationStatus(VerificationStatus.VERIFIED);
+        ids.put("{volunteerSkill}", volunteerSkillService.create(volunteerSkill));
+    }
+
+    static Stream<Arguments> pages() {
+        return Stream.of(
+                Arguments.of(ANONYMOUS, "/"),
+                Arguments.of(ANONYMOUS, "/login"),
+                Arguments.of(ANONYMOUS, "/opportunities"),
+                Arguments.of(ANONYMOUS, "/opportunities/{opportunity}"),
+                Arguments.of(VOLUNTEER, "/opportunities"),
+                Arguments.of(VOLUNTEER, "/opportunities/{opportunity}"),
+                Arguments.of(VOLUNTEER, "/registrations"),
+                Arguments.of(VOLUNTEER, "/volunteerSkills"),
+                Arguments.of(VOLUNTEER, "/volunteerSkills/add"),
+                Arguments.of(VOLUNTEER, "/volunteerSkills/edit/{volunteerSkill}"),
+                Arguments.of(ORGANIZER, "/opportunities"),
+                Arguments.of(ORGANIZER, "/opportunities/{opportunity}"),
+                Arguments.of(ORGANIZER, "/opportunities/add"),
+                Arguments.of(ORGANIZER, "/opportunities/edit/{opportunity}"),
+                Arguments.of(ORGANIZER, "/opportunities/{opportunityWithRequirements}/requirements"),
+                Arguments.of(ORGANIZER, "/registrations"),
+                Arguments.of(ORGANIZER, "/registrations/add"),
+                Arguments.of(ORGANIZER, "/registrations/edit/{registration}"),
+                Arguments.of(ORGANIZER, "/organizations"),
+                Arguments.of(ORGANIZER, "/organizations/add"),
+                Arguments.of(ORGANIZER, "/organizations/edit/{organization}"),
+                Arguments.of(ORGANIZER, "/organizationMembers"),
+                Arguments.of(ORGANIZER, "/organizationMembers/add"),
+                Arguments.of(ORGANIZER, "/organizationMembers/edit/{member}"),
+                Arguments.of(ORGANIZER, "/opportunityRequirements"),
+                Arguments.of(ORGANIZER, "/opportunityRequirements/add"),
+                Arguments.of(ORGANIZER, "/opportunityRequirements/edit/{requirement}"),
+                Arguments.of(ADMIN, "/users"),
+                Arguments.of(ADMIN, "/users/add"),
+                Arguments.of(ADMIN, "/users/edit/{user}"),
+                Arguments.of(ADMIN, "/skills"),
+                Arguments.of(ADMIN, "/skills/add"),
+                Arguments.of(ADMIN, "/skills/edit/{skill}"));
+    }
+
+    static Stream<Arguments> apiReads() {
+        return Stream.of(
+                Arguments.of(ANONYMOUS, "/api/home/databaseStatus"),
+                Arguments.of(ANONYMOUS, "/api/home/databaseHealth"),
+                Arguments.of(ANONYMOUS, "/api/home/connectionPool"),
+                Arguments.of(ANONYMOUS, "/api/users"),
+                Arguments.of(ANONYMOUS, "/api/users/{user}"),
+                Arguments.of(ANONYMOUS, "/api/skills"),
+                Arguments.of(ANONYMOUS, "/api/skills/{skill}"),
+                Arguments.of(ANONYMOUS, "/api/organizationMembers"),
+                Arguments.of(ANONYMOUS, "/api/organizationMembers/{member}"),
+                Arguments.of(ANONYMOUS, "/api/opportunityRequirements"),
+                Arguments.of(ANONYMOUS, "/api/opportunityRequirements/{requirement}"),
+                Arguments.of(ANONYMOUS, "/api/registrations"),
+                Arguments.of(ANONYMOUS, "/api/registrations/{registration}"),
+                Arguments.of(ANONYMOUS, "/api/opportunities/{opportunity}/availabilityStatus"),
+                Arguments.of(VOLUNTEER, "/api/opportunities/{opportunity}/availabilityStatus"),
+                Arguments.of(ANONYMOUS, "/api/opportunities/{opportunity}/slotAvailable"),
+                Arguments.of(ANONYMOUS, "/api/opportunities/{opportunity}/slotFilledProgress"));
+    }
+
+    @ParameterizedTest(name = "{1} as {0}")
+    @MethodSource("pages")
+    void pageStaysWithinItsBudget(final String who, final String path) throws Exception {
+        mockMvc.perform(get(resolve(path)).with(as(who))).andExpect(withinBudget());
+    }
+
+    @ParameterizedTest(name = "{1} as {0}")
+    @MethodSource("apiReads")
+    void apiReadStaysWithinItsBudget(final String who, final String path) throws Exception {
+        mockMvc.perform(get(resolve(path)).with(as(who))).andExpect(withinBudget());
+    }
+
+    @Test
+    void slotStreamStaysWithinItsBudget() throws Exception {
+        mockMvc.perform(get("/api/opportunities/{id}/slots", OPPORTUNITY_WITH_REQUIREMENTS_ID)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .with(as(VOLUNTEER)))
+                .andExpect(withinBudget());
+    }
+
+    @Test
+    void registeringStaysWithinItsBudget() throws Exception {
+        mockMvc.perform(post("/opportunities/{id}/registrations", OTHER_ORGANIZATION_OPPORTUNITY_ID)
+                        .with(as(VOLUNTEER))
+                        .with(csrf()))
+                .andExpect(withinBudget());
+    }
+
+    @Test
+    void approvingAndRejectingStayWithinTheirBudget() throws Exception {
+        mockMvc.perform(post("/registrations/approve/{id}", pendingRegistration())
+                        .with(as(ORGANIZER))
+                        .with(csrf()))
+                .andExpect(withinBudget());
+        mockMvc.perform(post("/registrations/reject/{id}", pendingRegistration())
+                        .with(as(ORGANIZER))
+                        .with(csrf()))
+                .andExpect(withinBudget());
+        mockMvc.perform(post("/registrations/bulk")
+                        .param("ids", pendingRegistration(), pendingRegistration())
+                        .param("action", "reject")
+                        .with(as(ORGANIZER))
+                        .with(csrf()))
+                .andExpect(withinBudget());
+    }
+
+    @Test
+    void bulkApiStaysWithinItsBudget() throws Exception {
+        for (String action : List.of("approve", "reject")) {
+            mockMvc.perform(post("/api/registrations/" + action)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[\"" + pendingRegistration() + "\", \"" + pendingRegistration() + "\"]")
+                            .with(as(ORGANIZER))
+                            .with(csrf()))
+                    .andExpect(withinBudget());
+        }
+    }
+
+    @Test
+    void skillApiWritesStayWithinTheirBudget() throws Exception {
+        String name = "Budget Skill " + System.nanoTime();
+        String created = mockMvc.perform(post("/api/skills")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + name + "\"}")
+                        .with(csrf()))
+                .andExpect(withinBudget())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        mockMvc.perform(put("/api/skills/{id}", created.replace("\"", ""))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + name + " renamed\"}")
+                        .with(csrf()))
+                .andExpect(withinBudget());
+    }
+
+    /**
+     * A new PENDING registration for an opportunity of the organizer, so each approve or reject has work to do.
+     */
+    private String pendingRegistration() {
+        return registrationService.register("usr_budget" + System.nanoTime(), OPPORTUNITY_ID);
+    }
+
+    private String resolve(final String path) {
+        String resolved = path;
+        for (Map.Entry<String, String> id : ids.entrySet()) {
+            resolved = resolved.replace(id.getKey(), id.getValue());
+        }
+        return resolved;
+    }
+
+    private RequestPostProcessor as(final String who) {
+        return switch (who) {
+            case ANONYMOUS -> anonymous();
+            // no admin is seeded, and the admin pages do not look the user up
+            case ADMIN -> user(new CustomUserDetails(
+                    "budget-admin@example.com",
+                    "{noop}123",
+                    List.of(new SimpleGrantedAuthority("ROLE_" + UserRole.ADMIN.name())),
+                    "usr_budgetadmin",
+                    "Budget Admin",
+                    UserRole.ADMIN,
+                    List.of()));
+            default -> user(userDetailsService.loadUserByUsername(who));
+        };
+    }
+
+    private static ResultMatcher withinBudget() {
+        return result -> {
+            MockHttpServletResponse response = result.getResponse();
+            String request = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+            assertThat(response.getStatus()).as("status of %s", request).isLessThan(400);
+            String budget = response.getHeader(GridDbCallCountFilter.BUDGET_HEADER);
+            assertThat(budget).as("GridDB call budget of %s", request).isNotNull();
+            String calls = response.getHeader(GridDbCallCountFilter.CALLS_HEADER);
+            assertThat(Integer.parseInt(calls))
+                    .as("GridDB calls of %s", request)
+                    .isLessThanOrEqualTo(Integer.parseInt(budget));
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.galapea.techblog.volunteer_matching.griddb.GridDbCircuitBreaker.State;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class GridDbCircuitBreakerTest {
+
+    private static final long LONG_OPEN = Duration.ofMinutes(10).toNanos();
+
+    @Test
+    void staysClosedUntilMinimumCallsAreRecorded() {
+        GridDbCircuitBreaker circuit = new GridDbCircuitBreaker("test", 10, 4, 0.5, LONG_OPEN);
+        for (int i = 0; i < 3; i++) {
+            assertThat(circuit.tryAcquire()).isTrue();
+            circuit.record(true);
+        }
+        assertThat(circuit.state()).isEqualTo(State.CLOSED);
+        assertThat(circuit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        GridDbCircuitBreaker circuit = new GridDbCircuitBreaker("test", 10, 4, 0.5, LONG_OPEN);
+        circuit.record(false);
+        circuit.record(false);
+        circuit.record(true);
+        assertThat(circuit.state()).isEqualTo(State.CLOSED);
+        circuit.record(true);
+        assertThat(circuit.state()).isEqualTo(State.OPEN);
+        assertThat(circuit.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void failuresLeaveTheWindowAgain() {
+        GridDbCircuitBreaker circuit = new GridDbCircuitBreaker("test", 4, 4, 0.5, LONG_OPEN);
+        circuit.record(true);
+        circuit.record(false);
+        circuit.record(false);
+        circuit.record(false);
+        circuit.record(true);
+        assertThat(circuit.state()).isEqualTo(State.CLOSED);
+        circuit.record(true);
+        assertThat(circuit.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void halfOpenLetsASingleTrialThrough() {
+        GridDbCircuitBreaker circuit = opened(0);
+        assertThat(circuit.tryAcquire()).isTrue();
+        assertThat(circuit.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(circuit.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void successfulTrialClosesTheCircuit() {
+        GridDbCircuitBreaker circuit = opened(0);
+        assertThat(circuit.tryAcquire()).isTrue();
+        circuit.record(false);
+        assertThat(circuit.state()).isEqualTo(State.CLOSED);
+        assertThat(circuit.tryAcquire()).isTrue();
+        // the window starts over, a single failure no longer opens it
+        circuit.record(true);
+        assertThat(circuit.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void failedTrialReopensTheCircuit() throws InterruptedException {
+        long openNanos = Duration.ofMillis(50).toNanos();
+        GridDbCircuitBreaker circuit = opened(openNanos);
+        assertThat(circuit.tryAcquire()).isFalse();
+        Thread.sleep(60);
+        assertThat(circuit.tryAcquire()).isTrue();
+        circuit.record(true);
+        assertThat(circuit.state()).isEqualTo(State.OPEN);
+        assertThat(circuit.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void releasedTrialLetsTheNextCallTry() {
+        GridDbCircuitBreaker circuit = opened(0);
+        assertThat(circuit.tryAcquire()).isTrue();
+        circuit.release();
+        assertThat(circuit.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(circuit.tryAcquire()).isTrue();
+    }
+
+    private static GridDbCircuitBreaker opened(final long openNanos) {
+        GridDbCircuitBreaker circuit = new GridDbCircuitBreaker("test", 4, 2, 0.5, openNanos);
+        circuit.record(true);
+        circuit.record(true);
+        assertThat(circuit.state()).isEqualTo(State.OPEN);
+        return circuit;
+    }
+}
@@ -0,0 +1,186 @@
+package com.galapea.techblog.volunteer_matching.griddb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Drives {@link GridDbResilience#intercept} with executions that fail, hang or answer garbage, and checks that the
+ * bulkhead permit always comes back and that the circuits see the outcome.
+ */
+class GridDbResilienceTest {
+
+    private static final byte[] BODY = new byte[0];
+
+    private final MockClientHttpRequest update =
+            new MockClientHttpRequest(HttpMethod.POST, URI.create("http://griddb/sql/dml/update"));
+    private final MockClientHttpRequest query =
+            new MockClientHttpRequest(HttpMethod.POST, URI.create("http://griddb/sql/dml/query"));
+
+    @Test
+    void failingCallsOpenTheirOwnCircuitOnly() throws IOException {
+        GridDbResilience resilience = resilience(Duration.ofSeconds(5), Duration.ofMillis(50));
+        AtomicInteger calls = new AtomicInteger();
+        ClientHttpRequestExecution failing = (request, body) -> {
+            calls.incrementAndGet();
+            throw new IOException("connection reset");
+        };
+
+        assertThatThrownBy(() -> resilience.intercept(update, BODY, failing)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> resilience.intercept(update, BODY, failing)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> resilience.intercept(update, BODY, failing))
+                .isInstanceOf(GridDbException.class)
+                .hasMessageContaining("write circuit is open");
+        assertThat(calls).hasValue(2);
+
+        // the single bulkhead permit came back after each failure, and reads have a circuit of their own
+        try (ClientHttpResponse response = resilience.intercept(query, BODY, ok())) {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    @Test
+    void unreadableStatusReleasesTheBulkheadAndCountsAsFailure() throws IOException {
+        GridDbResilience resilience = resilience(Duration.ofSeconds(5), Duration.ofMillis(50));
+        ClientHttpResponse broken = mock(ClientHttpResponse.class);
+        when(broken.getStatusCode()).thenThrow(new IOException("malformed status line"));
+
+        assertThatThrownBy(() -> resilience.intercept(update, BODY, (request, body) -> broken))
+                .isInstanceOf(IOException.class);
+        verify(broken).close();
+
+        // the permit came back, and with this call one of two failed, which opens the circuit
+        try (ClientHttpResponse response = resilience.intercept(update, BODY, ok())) {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        assertThatThrownBy(() -> resilience.intercept(update, BODY, ok()))
+                .isInstanceOf(GridDbException.class)
+                .hasMessageContaining("write circuit is open");
+    }
+
+    @Test
+    void slowCallHoldsTheBulkheadButNotExemptCalls() throws Exception {
+        GridDbResilience resilience = resilience(Duration.ofMillis(10), Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ClientHttpRequestExecution slow = (request, body) -> {
+            started.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new MockClientHttpResponse(BODY, HttpStatus.OK);
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> pending = executor.submit(() -> {
+                resilience.intercept(query, BODY, slow).close();
+                return null;
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> resilience.intercept(update, BODY, ok()))
+                    .isInstanceOf(GridDbException.class)
+                    .hasMessageContaining("Too many concurrent");
+            GridDbResilience.exempt(() -> {
+                try (ClientHttpResponse response = resilience.intercept(update, BODY, ok())) {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            finish.countDown();
+            pending.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // that read and this one were both slower than the threshold, which opens the read circuit
+        ClientHttpRequestExecution sleeping = (request, body) -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new MockClientHttpResponse(BODY, HttpStatus.OK);
+        };
+        try (ClientHttpResponse response = resilience.intercept(query, BODY, sleeping)) {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        assertThatThrownBy(() -> resilience.intercept(query, BODY, ok()))
+                .isInstanceOf(GridDbException.class)
+                .hasMessageContaining("read circuit is open");
+    }
+
+    @Test
+    void exemptCallsPassAnOpenCircuit() throws IOException {
+        GridDbResilience resilience = resilience(Duration.ofSeconds(5), Duration.ofMillis(50));
+        ClientHttpRequestExecution failing = (request, body) -> {
+            throw new IOException("connection reset");
+        };
+        assertThatThrownBy(() -> resilience.intercept(update, BODY, failing)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> resilience.intercept(update, BODY, failing)).isInstanceOf(IOException.class);
+
+        AtomicInteger calls = new AtomicInteger();
+        GridDbResilience.exempt(() -> {
+            try (ClientHttpResponse response = resilience.intercept(update, BODY, (request, body) -> {
+                calls.incrementAndGet();
+                return new MockClientHttpResponse(BODY, HttpStatus.OK);
+            })) {
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        assertThat(calls).hasValue(1);
+        assertThatThrownBy(() -> resilience.intercept(update, BODY, ok()))
+                .isInstanceOf(GridDbException.class)
+                .hasMessageContaining("write circuit is open");
+    }
+
+    /**
+     * One call at a time; a circuit opens once half of at least two calls failed and stays open for the test.
+     */
+    private static GridDbResilience resilience(final Duration slowCallThreshold, final Duration maxWait) {
+        return new GridDbResilience(
+                new SimpleMeterRegistry(),
+                4,
+                2,
+                0.5,
+                slowCallThreshold,
+                Duration.ofMinutes(10),
+                1,
+                maxWait,
+                false,
+                DataSize.ofMegabytes(1),
+                DataSize.ofKilobytes(64));
+    }
+
+    private static ClientHttpRequestExecution ok() {
+        return (request, body) -> new MockClientHttpResponse(BODY, HttpStatus.OK);
+    }
+}
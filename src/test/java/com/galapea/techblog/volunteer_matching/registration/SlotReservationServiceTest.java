@@ -0,0 +1,346 @@
+package com.galapea.techblog.volunteer_matching.registration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.galapea.techblog.volunteer_matching.griddb.GridDbClient;
+import com.galapea.techblog.volunteer_matching.griddb.GridDbException;
+import com.galapea.techblog.volunteer_matching.griddbstub.GridDbStubException;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.AcquireRowsRequest;
+import com.galapea.techblog.volunteer_matching.griddbstub.GridDbStubStore;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.GridDbCloudSQLStmt;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLSelectResponse;
+import com.galapea.techblog.volunteer_matching.griddbwebapi.SQLUpdateResponse;
+import com.galapea.techblog.volunteer_matching.opportunity.OpportunityDTO;
+import com.galapea.techblog.volunteer_matching.opportunity.OpportunityService;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Runs {@link SlotReservationService} against the H2-backed {@link GridDbStubStore}, whose conditional updates lock
+ * the counter row like GridDB does, with two service instances standing in for two application nodes.
+ */
+class SlotReservationServiceTest {
+
+    private static final long SLOTS_TOTAL = 10;
+    private static final int THREADS = 32;
+    private static final String REGISTRATIONS = "VoMaRegistrations";
+
+    private GridDbStubStore store;
+    private GridDbClient gridDbClient;
+    private String opportunityId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        store = new GridDbStubStore();
+        gridDbClient = mock(GridDbClient.class);
+        doAnswer(invocation -> {
+                    try {
+                        store.createContainer(invocation.getArgument(0));
+                    } catch (GridDbStubException e) {
+                        // already created by an earlier test, GridDbClient ignores the 409 as well
+                    }
+                    return null;
+                })
+                .when(gridDbClient)
+                .createContainer(any());
+        when(gridDbClient.select(anyList())).thenAnswer(invocation -> asGridDbClient(() ->
+                store.query(statements(invocation.getArgument(0))).toArray(SQLSelectResponse[]::new)));
+        when(gridDbClient.executeSQLUpdate(anyList())).thenAnswer(invocation -> asGridDbClient(() ->
+                store.update(statements(invocation.getArgument(0))).toArray(SQLUpdateResponse[]::new)));
+        doAnswer(invocation -> {
+                    List<RegistrationDTO> registrations = new ArrayList<>(invocation.getArgument(1));
+                    store.putRows(REGISTRATIONS, registrations.stream().map(SlotReservationServiceTest::row).toList());
+                    return null;
+                })
+                .when(gridDbClient)
+                .registerRows(eq(REGISTRATIONS), anyCollection(), any());
+        when(gridDbClient.acquireRows(eq(REGISTRATIONS), any(AcquireRowsRequest.class), any()))
+                .thenAnswer(invocation -> findRegistrations(invocation.<AcquireRowsRequest>getArgument(1)));
+        node(Duration.ofSeconds(5)).createTable();
+        registrations(node(Duration.ofSeconds(5))).createTable();
+        opportunityId = "opp_" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        store.destroy();
+    }
+
+    @Test
+    void concurrentReservationsOnTwoNodesNeverOverbook() throws Exception {
+        List<SlotReservationService> nodes = List.of(node(Duration.ofSeconds(5)), node(Duration.ofSeconds(5)));
+        AtomicInteger reserved = new AtomicInteger();
+        runConcurrently(400, i -> {
+            if (nodes.get(i % 2).tryReserve(opportunityId, SLOTS_TOTAL)) {
+                reserved.incrementAndGet();
+            }
+        });
+
+        assertThat(reserved.get()).isEqualTo(SLOTS_TOTAL);
+        assertThat(reservedInGridDb()).isEqualTo(SLOTS_TOTAL);
+    }
+
+    @Test
+    void concurrentReservationsAndReleasesNeverOverbook() throws Exception {
+        // a zero hint makes every attempt go to GridDB, so released slots are contended for immediately
+        List<SlotReservationService> nodes = List.of(node(Duration.ZERO), node(Duration.ZERO));
+        AtomicInteger held = new AtomicInteger();
+        AtomicInteger maxHeld = new AtomicInteger();
+        runConcurrently(2000, i -> {
+            SlotReservationService node = nodes.get(i % 2);
+            if (node.tryReserve(opportunityId, SLOTS_TOTAL)) {
+                maxHeld.accumulateAndGet(held.incrementAndGet(), Math::max);
+                if (ThreadLocalRandom.current().nextBoolean()) {
+                    held.decrementAndGet();
+                    node.release(opportunityId);
+                }
+            }
+        });
+
+        assertThat(maxHeld.get()).isLessThanOrEqualTo((int) SLOTS_TOTAL);
+        assertThat(reservedInGridDb()).isEqualTo(held.get());
+    }
+
+    @Test
+    void slotFreedOnAnotherNodeIsOfferedAgainOnceTheFullHintExpires() {
+        SlotReservationService first = node(Duration.ofMillis(200));
+        SlotReservationService second = node(Duration.ofMillis(200));
+        for (int i = 0; i < SLOTS_TOTAL; i++) {
+            assertThat(first.tryReserve(opportunityId, SLOTS_TOTAL)).isTrue();
+        }
+        assertThat(first.tryReserve(opportunityId, SLOTS_TOTAL)).isFalse();
+
+        second.release(opportunityId);
+
+        assertThat(first.tryReserve(opportunityId, SLOTS_TOTAL)).isFalse();
+        sleep(Duration.ofMillis(300));
+        assertThat(first.tryReserve(opportunityId, SLOTS_TOTAL)).isTrue();
+        assertThat(reservedInGridDb()).isEqualTo(SLOTS_TOTAL);
+    }
+
+    @Test
+    void releaseOnTheSameNodeClearsTheFullHint() {
+        SlotReservationService node = node(Duration.ofHours(1));
+        for (int i = 0; i < SLOTS_TOTAL; i++) {
+            node.tryReserve(opportunityId, SLOTS_TOTAL);
+        }
+        assertThat(node.tryReserve(opportunityId, SLOTS_TOTAL)).isFalse();
+
+        node.release(opportunityId);
+
+        assertThat(node.tryReserve(opportunityId, SLOTS_TOTAL)).isTrue();
+    }
+
+    @Test
+    void quoteInOpportunityIdIsEscaped() {
+        String quoted = opportunityId + "'x";
+        SlotReservationService node = node(Duration.ofSeconds(5));
+
+        assertThat(node.tryReserve(quoted, SLOTS_TOTAL)).isTrue();
+        node.release(quoted);
+    }
+
+    @Test
+    void failedSeedIsTriedAgainInsteadOfReportingFull() {
+        SlotReservationService node = node(Duration.ofHours(1));
+        when(gridDbClient.executeSQLUpdate(argThat(statements -> statements.get(0).statement().contains("INSERT"))))
+                .thenThrow(new GridDbException("circuit is open", HttpStatus.SERVICE_UNAVAILABLE, null))
+                .thenAnswer(invocation -> asGridDbClient(() ->
+                        store.update(statements(invocation.getArgument(0))).toArray(SQLUpdateResponse[]::new)));
+
+        assertThatThrownBy(() -> node.tryReserve(opportunityId, SLOTS_TOTAL)).isInstanceOf(GridDbException.class);
+
+        assertThat(node.tryReserve(opportunityId, SLOTS_TOTAL)).isTrue();
+        assertThat(reservedInGridDb()).isEqualTo(1);
+    }
+
+    @Test
+    void seedLostToAnotherNodeCountsAgainstItsRow() throws Exception {
+        List<SlotReservationService> nodes = List.of(node(Duration.ofSeconds(5)), node(Duration.ofSeconds(5)));
+        // every node starts unseeded, so the first reservations race to insert the counter row
+        runConcurrently(THREADS, i -> nodes.get(i % 2).tryReserve(opportunityId, SLOTS_TOTAL));
+
+        assertThat(reservedInGridDb()).isEqualTo(SLOTS_TOTAL);
+    }
+
+    @Test
+    void registrationsWrittenThroughTheCrudPathKeepTheCounterExact() {
+        RegistrationGridDBService registrations = registrations(node(Duration.ofHours(1)));
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < SLOTS_TOTAL; i++) {
+            ids.add(registrations.create(registration("usr_" + i, RegistrationStatus.PENDING)));
+        }
+        assertThatThrownBy(() -> registrations.create(registration("usr_late", RegistrationStatus.PENDING)))
+                .isInstanceOf(OpportunitySlotsFullException.class);
+        assertThat(reservedInGridDb()).isEqualTo(SLOTS_TOTAL);
+
+        registrations.update(ids.get(0), registration("usr_0", RegistrationStatus.CANCELLED));
+        assertThat(reservedInGridDb()).isEqualTo(SLOTS_TOTAL - 1);
+
+        registrations.create(registration("usr_late", RegistrationStatus.PENDING));
+        assertThat(reservedInGridDb()).isEqualTo(SLOTS_TOTAL);
+
+        // the cancelled registration cannot take its slot back while the opportunity is full
+        assertThatThrownBy(() -> registrations.update(ids.get(0), registration("usr_0", RegistrationStatus.PENDING)))
+                .isInstanceOf(OpportunitySlotsFullException.class);
+        registrations.update(ids.get(1), registration("usr_1", RegistrationStatus.APPROVED));
+        assertThat(reservedInGridDb()).isEqualTo(SLOTS_TOTAL);
+        assertThat(takenInGridDb()).isEqualTo(SLOTS_TOTAL);
+    }
+
+    @Test
+    void counterIsSeededWithTheRegistrationsStoredBefore() {
+        store.putRows(
+                REGISTRATIONS,
+                List.of(
+                        row(registration("usr_a", RegistrationStatus.APPROVED)),
+                        row(registration("usr_b", RegistrationStatus.PENDING)),
+                        row(registration("usr_c", RegistrationStatus.CANCELLED))));
+
+        assertThat(node(Duration.ofSeconds(5)).tryReserve(opportunityId, SLOTS_TOTAL)).isTrue();
+
+        assertThat(reservedInGridDb()).isEqualTo(3);
+    }
+
+    private SlotReservationService node(final Duration fullHintTtl) {
+        return new SlotReservationService(gridDbClient, fullHintTtl);
+    }
+
+    private RegistrationGridDBService registrations(final SlotReservationService node) {
+        OpportunityService opportunityService = mock(OpportunityService.class);
+        when(opportunityService.get(any())).thenAnswer(invocation -> {
+            OpportunityDTO opportunity = new OpportunityDTO();
+            opportunity.setId(invocation.getArgument(0));
+            opportunity.setSlotsTotal(SLOTS_TOTAL);
+            return opportunity;
+        });
+        return new RegistrationGridDBService(
+                gridDbClient,
+                mock(ApplicationEventPublisher.class),
+                opportunityService,
+                node,
+                Duration.ofMinutes(2),
+                100);
+    }
+
+    private RegistrationDTO registration(final String userId, final RegistrationStatus status) {
+        RegistrationDTO registration = new RegistrationDTO();
+        registration.setId("reg_" + UUID.randomUUID().toString().replace("-", ""));
+        registration.setUserId(userId);
+        registration.setOpportunityId(opportunityId);
+        registration.setStatus(status);
+        return registration;
+    }
+
+    private static List<Object> row(final RegistrationDTO registration) {
+        return Arrays.asList(
+                registration.getId(),
+                registration.getUserId(),
+                registration.getOpportunityId(),
+                registration.getStatus().name(),
+                null);
+    }
+
+    /**
+     * Answers {@code acquireRows} from the stub store; the conditions used here differ from SQL only in {@code ==}.
+     */
+    private List<RegistrationDTO> findRegistrations(final AcquireRowsRequest request) {
+        String where = request.getCondition().replace("==", "=");
+        List<SQLSelectResponse> response = store.query(List.of(
+                "SELECT id, userId, opportunityId, status FROM VoMaRegistrations WHERE " + where + " LIMIT 1"));
+        return response.get(0).getResults().stream()
+                .map(values -> {
+                    RegistrationDTO registration = new RegistrationDTO();
+                    registration.setId((String) values.get(0));
+                    registration.setUserId((String) values.get(1));
+                    registration.setOpportunityId((String) values.get(2));
+                    registration.setStatus(RegistrationStatus.valueOf((String) values.get(3)));
+                    return registration;
+                })
+                .toList();
+    }
+
+    private long takenInGridDb() {
+        List<SQLSelectResponse> response = store.query(List.of("SELECT count(id) FROM VoMaRegistrations"
+                + " WHERE opportunityId = '" + opportunityId + "' AND status <> 'CANCELLED'"));
+        return ((Number) response.get(0).getResults().get(0).get(0)).longValue();
+    }
+
+    private long reservedInGridDb() {
+        List<SQLSelectResponse> response = store.query(List.of(
+                "SELECT reserved FROM VoMaOpportunitySlots WHERE opportunityId = '" + opportunityId + "'"));
+        return ((Number) response.get(0).getResults().get(0).get(0)).longValue();
+    }
+
+    /**
+     * Answers like {@link GridDbClient}, which reports an error status of GridDB as {@link GridDbException}.
+     */
+    private static <T> T asGridDbClient(final Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (GridDbStubException e) {
+            throw new GridDbException(e.getMessage(), e.getStatus(), null);
+        }
+    }
+
+    private static List<String> statements(final List<GridDbCloudSQLStmt> statements) {
+        return statements.stream().map(GridDbCloudSQLStmt::statement).toList();
+    }
+
+    private static void runConcurrently(final int tasks, final Task task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> futures = new ArrayList<>(tasks);
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private static void sleep(final Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run(int index) throws Exception;
+    }
+}